@@ -0,0 +1,64 @@
+package deathmaze;
+
+import java.util.Random;
+
+/**
+ * <h1>BacktrackerGenerator</h1>
+ * This class carves a maze with a randomized depth first search. The search is iterative, with an
+ * explicit stack of rooms, so the size of the maze isn't limited by the size of the call stack.
+ *
+ * @author Fred Erlenbusch
+ * @version 1.0
+ * @since 2026-10-17
+ */
+public class BacktrackerGenerator implements MazeGenerator {
+
+    /**
+     * @return	The name of the algorithm.
+     */
+    @Override
+    public String getName() {
+        return "Backtracker";
+    }
+
+    /**
+     * Carves the passages into the grid.
+     *
+     * @param	grid	The grid to be carved.
+     * @param	start	The index of the room the search starts from.
+     * @param	rand	The random number generator used to pick the next room.
+     */
+    @Override
+    public void generate(PackedGrid grid, int start, Random rand) {
+        int[] stack = new int[grid.size()];
+        int[] directions = new int[4];
+        int top = 0;
+
+        grid.setFlag(start, PackedGrid.PART_OF_MAZE, true);
+        stack[top++] = start;
+
+        while (top > 0) {
+            int current = stack[top - 1];
+            int cnt = 0;
+
+            for (int direction = PackedGrid.NORTH; direction <= PackedGrid.EAST; direction++) {
+                int next = grid.neighbour(current, direction);
+
+                if (next != -1 && !grid.hasFlag(next, PackedGrid.PART_OF_MAZE)) {
+                    directions[cnt++] = direction;
+                }
+            }
+
+            if (cnt == 0) {
+                top--;
+            } else {
+                int direction = directions[rand.nextInt(cnt)];
+                int next = grid.neighbour(current, direction);
+
+                grid.setPassage(current, direction, true);
+                grid.setFlag(next, PackedGrid.PART_OF_MAZE, true);
+                stack[top++] = next;
+            }
+        }
+    }
+}
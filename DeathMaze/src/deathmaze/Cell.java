@@ -38,7 +38,8 @@ public class Cell {
      */
     private Wall east;
     /**
-     * The value of this node used by the maze class.
+     * The value of this node used by the maze class. For a view of a maze's room, null until a
+     * value is set on the view, the value being read from the maze's occupancy until then.
      *
      * @see	Maze
      */
@@ -52,6 +53,18 @@ public class Cell {
      * the generation of the maze.
      */
     private boolean partOfMaze;
+    /**
+     * The packed grid this node is a view of, or null if this node holds its own values.
+     *
+     * @see	PackedGrid
+     */
+    private PackedGrid grid;
+    /**
+     * The occupancy of the maze this node is a view of a room of, or null.
+     *
+     * @see	Occupancy
+     */
+    private Occupancy occupancy;
 
     /**
      * The constructor for a this class.
@@ -71,6 +84,34 @@ public class Cell {
         this.visited = false;
     }
 
+    /**
+     * The constructor for a view of a room of a packed grid. The walls and flags of the view are
+     * read from and written to the grid.
+     *
+     * @param	grid	The grid the room belongs to.
+     * @param	x	The x coordinate for this node.
+     * @param	y	The y coordinate for this node.
+     */
+    Cell(PackedGrid grid, int x, int y) {
+        this(grid, null, x, y);
+    }
+
+    /**
+     * The constructor for a view of a room of a maze. The walls and flags of the view are read from
+     * and written to the maze's grid, and its value is read from the maze's occupancy.
+     *
+     * @param	grid	The grid the room belongs to.
+     * @param	occupancy	The occupancy of the maze, or null if the room has no occupants.
+     * @param	x	The x coordinate for this node.
+     * @param	y	The y coordinate for this node.
+     */
+    Cell(PackedGrid grid, Occupancy occupancy, int x, int y) {
+        this(x, y);
+        this.grid = grid;
+        this.occupancy = occupancy;
+        this.value = null;
+    }
+
     /**
      * The copy constructor for this class. Creates a new instance from an existing instance.
      *
@@ -86,6 +127,8 @@ public class Cell {
         this.value = that.value;
         this.partOfMaze = that.partOfMaze;
         this.visited = that.visited;
+        this.grid = that.grid;
+        this.occupancy = that.occupancy;
     }
 
     /**
@@ -96,6 +139,10 @@ public class Cell {
      */
     public List<Wall> getValidWalls() {
         List<Wall> validWalls = new ArrayList<>();
+        Wall north = getNorth();
+        Wall west = getWest();
+        Wall south = getSouth();
+        Wall east = getEast();
 
         if (!north.isPassage() && !(north.getSide1() == null || north.getSide2() == null)) {
             validWalls.add(north);
@@ -125,6 +172,10 @@ public class Cell {
      */
     public List<Cell> getAdjRooms() {
         List<Cell> adjRooms = new ArrayList<>();
+        Wall north = getNorth();
+        Wall west = getWest();
+        Wall south = getSouth();
+        Wall east = getEast();
 
         if (north.isPassage() && north.getOther(this) != null) {
             adjRooms.add(north.getOther(this));
@@ -145,6 +196,120 @@ public class Cell {
         return adjRooms;
     }
 
+    /**
+     * Determines the directions a character can move to from this node, like getAdjRooms but
+     * without allocating a list, walls, or nodes.
+     *
+     * @return	The directions of the adjacent nodes, bit <code>1 &lt;&lt; direction</code> set for
+     * every direction of PackedGrid with a passage to another node.
+     */
+    public int getPassageMask() {
+        if (grid != null) {
+            return grid.getPassageMask(grid.index(x, y));
+        }
+
+        return passageBit(north, PackedGrid.NORTH) | passageBit(west, PackedGrid.WEST)
+                | passageBit(south, PackedGrid.SOUTH) | passageBit(east, PackedGrid.EAST);
+    }
+
+    /**
+     * Determines the directions of the valid walls around this node, like getValidWalls but
+     * without allocating a list or walls.
+     *
+     * @return	The directions of the valid walls, bit <code>1 &lt;&lt; direction</code> set for every
+     * direction of PackedGrid with a wall that isn't a passage and has another node behind it.
+     */
+    public int getValidWallMask() {
+        if (grid != null) {
+            int index = grid.index(x, y);
+            int mask = 0;
+
+            for (int direction = PackedGrid.NORTH; direction <= PackedGrid.EAST; direction++) {
+                if (grid.neighbour(index, direction) != -1 && !grid.isPassage(index, direction)) {
+                    mask |= 1 << direction;
+                }
+            }
+
+            return mask;
+        }
+
+        return validWallBit(north, PackedGrid.NORTH) | validWallBit(west, PackedGrid.WEST)
+                | validWallBit(south, PackedGrid.SOUTH) | validWallBit(east, PackedGrid.EAST);
+    }
+
+    /**
+     * @param	wall	A wall of this node.
+     * @param	direction	The direction of the wall.
+     * @return	The bit of the direction if the wall is a passage to another node, 0 otherwise.
+     */
+    private int passageBit(Wall wall, int direction) {
+        return wall != null && wall.isPassage() && wall.getOther(this) != null ? 1 << direction : 0;
+    }
+
+    /**
+     * @param	wall	A wall of this node.
+     * @param	direction	The direction of the wall.
+     * @return	The bit of the direction if the wall is valid, 0 otherwise.
+     */
+    private int validWallBit(Wall wall, int direction) {
+        return wall != null && !wall.isPassage() && wall.getSide1() != null && wall.getSide2() != null
+                ? 1 << direction : 0;
+    }
+
+    /**
+     * Generates the view of one of the walls of this node's room in the packed grid. Walls on the
+     * border of the grid have no other side and are never a passage.
+     *
+     * @param	direction	The direction of the wall.
+     * @return	The view of the wall.
+     */
+    private Wall getGridWall(int direction) {
+        int index = grid.index(x, y);
+        int other = grid.neighbour(index, direction);
+
+        if (other == -1) {
+            return new Wall(this);
+        } else if (direction == PackedGrid.NORTH) {
+            return new Wall(grid, other, PackedGrid.SOUTH);
+        } else if (direction == PackedGrid.WEST) {
+            return new Wall(grid, other, PackedGrid.EAST);
+        } else {
+            return new Wall(grid, index, direction);
+        }
+    }
+
+    /**
+     * Throws an exception if this node is a view of a packed grid, where the walls are defined by
+     * the grid and can not be replaced.
+     */
+    private void checkDetached() {
+        if (grid != null) {
+            throw new UnsupportedOperationException("The walls of a packed grid can't be replaced");
+        }
+    }
+
+    /**
+     * Reads the value of this node's room from the occupancy of the maze: "P" for the player, "M"
+     * for a monster, or an empty string.
+     *
+     * @return	The value of the room.
+     */
+    private String occupantValue() {
+        if (occupancy == null) {
+            return "";
+        }
+
+        int room = grid.index(x, y);
+
+        if (occupancy.has(room, Occupancy.PLAYER)) {
+            return "P";
+        } else if (occupancy.has(room, Occupancy.MOB)) {
+            return "M";
+        }
+
+        return "";
+    }
+
     /**
      * Generates the hash value of this node.
      *
@@ -219,13 +384,14 @@ public class Cell {
      * @return the north
      */
     public Wall getNorth() {
-        return north;
+        return grid == null ? north : getGridWall(PackedGrid.NORTH);
     }
 
     /**
      * @param north the north to set
      */
     public void setNorth(Wall north) {
+        checkDetached();
         this.north = north;
     }
 
@@ -233,13 +399,14 @@ public class Cell {
      * @return the west
      */
     public Wall getWest() {
-        return west;
+        return grid == null ? west : getGridWall(PackedGrid.WEST);
     }
 
     /**
      * @param west the west to set
      */
     public void setWest(Wall west) {
+        checkDetached();
         this.west = west;
     }
 
@@ -247,13 +414,14 @@ public class Cell {
      * @return the south
      */
     public Wall getSouth() {
-        return south;
+        return grid == null ? south : getGridWall(PackedGrid.SOUTH);
     }
 
     /**
      * @param south the south to set
      */
     public void setSouth(Wall south) {
+        checkDetached();
         this.south = south;
     }
 
@@ -261,24 +429,31 @@ public class Cell {
      * @return the east
      */
     public Wall getEast() {
-        return east;
+        return grid == null ? east : getGridWall(PackedGrid.EAST);
     }
 
     /**
      * @param east the east to set
      */
     public void setEast(Wall east) {
+        checkDetached();
         this.east = east;
     }
 
     /**
+     * Gets the value of this node. The value of a view of a maze's room is read from the maze's
+     * occupancy, unless a value was set on the view.
+     *
      * @return the value
      */
     public String getValue() {
-        return value;
+        return value == null ? occupantValue() : value;
     }
 
     /**
+     * Sets the value of this node. Setting the value of a view of a maze's room only changes the
+     * value of the view, the occupancy of the maze is changed by the moves of the maze.
+     *
      * @param value the value to set
      */
     public void setValue(String value) {
@@ -289,27 +464,35 @@ public class Cell {
      * @return the visited
      */
     public boolean isVisited() {
-        return visited;
+        return grid == null ? visited : grid.hasFlag(grid.index(x, y), PackedGrid.VISITED);
     }
 
     /**
      * @param visited the visited to set
      */
     public void setVisited(boolean visited) {
-        this.visited = visited;
+        if (grid == null) {
+            this.visited = visited;
+        } else {
+            grid.setFlag(grid.index(x, y), PackedGrid.VISITED, visited);
+        }
     }
 
     /**
      * @return the partOfMaze
      */
     public boolean isPartOfMaze() {
-        return partOfMaze;
+        return grid == null ? partOfMaze : grid.hasFlag(grid.index(x, y), PackedGrid.PART_OF_MAZE);
     }
 
     /**
      * @param partOfMaze the partOfMaze to set
      */
     public void setPartOfMaze(boolean partOfMaze) {
-        this.partOfMaze = partOfMaze;
+        if (grid == null) {
+            this.partOfMaze = partOfMaze;
+        } else {
+            grid.setFlag(grid.index(x, y), PackedGrid.PART_OF_MAZE, partOfMaze);
+        }
     }
 }
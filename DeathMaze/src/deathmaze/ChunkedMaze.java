@@ -0,0 +1,317 @@
+package deathmaze;
+
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * <h1>ChunkedMaze</h1>
+ * This class is a maze with no edges, used by the open world mode. The world is split into square
+ * chunks, each carved into a perfect maze of its own when the player's visibility range first
+ * reaches it. A chunk is carved with a random number generator seeded from the world's seed and
+ * the chunk's coordinates, so a chunk is the same every time it's generated.
+ * <p>
+ * Every pair of adjacent chunks is joined by a single door, whose position along their border is
+ * also derived from the world's seed and the coordinates of the border, so both chunks agree on
+ * it without looking at each other. The chunks are kept in a least recently used cache; chunks
+ * evicted from it are generated again when needed, so the memory used is bounded no matter how far
+ * the player walks. Only the passages are regenerated: which rooms of an evicted chunk the player
+ * has seen is forgotten.
+ *
+ * @author Fred Erlenbusch
+ * @version 1.0
+ * @since 2026-10-17
+ */
+public class ChunkedMaze {
+
+    /**
+     * The seed the chunks are generated from.
+     */
+    private final long seed;
+    /**
+     * The number of rooms wide and tall of a chunk.
+     */
+    private final int chunkSize;
+    /**
+     * The visibility range of the player.
+     */
+    private final int visRange;
+    /**
+     * The algorithm used to carve the chunks.
+     */
+    private final MazeGenerator generator;
+    /**
+     * The chunks in memory, by their coordinates, in least recently used order.
+     */
+    private final Map<Long, PackedGrid> chunks;
+    /**
+     * The number of chunks generated so far, including regenerated chunks.
+     */
+    private long generated;
+    /**
+     * The x coordinate of the player.
+     */
+    private int playerX;
+    /**
+     * The y coordinate of the player.
+     */
+    private int playerY;
+
+    /**
+     * The constructor for this class. The player starts at the origin of the world.
+     *
+     * @param	seed	The seed the chunks are generated from.
+     * @param	chunkSize	# of rooms width and height wise of a chunk
+     * @param	maxChunks	# of chunks kept in memory
+     * @param	visRange	How far the player can see from their current location
+     * @param	generator	The algorithm used to carve the chunks
+     */
+    public ChunkedMaze(long seed, int chunkSize, final int maxChunks, int visRange, MazeGenerator generator) {
+        this.seed = seed;
+        this.chunkSize = chunkSize;
+        this.visRange = visRange;
+        this.generator = generator;
+        this.chunks = new LinkedHashMap<Long, PackedGrid>(16, 0.75f, true) {
+            private static final long serialVersionUID = 1L;
+
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<Long, PackedGrid> eldest) {
+                return size() > maxChunks;
+            }
+        };
+        this.generated = 0;
+        this.playerX = 0;
+        this.playerY = 0;
+
+        markVisibleRooms();
+    }
+
+    /**
+     * Moves the player in a given direction, if there's a passage in that direction.
+     *
+     * @param	direction	The direction to move the player ("N", "W", "S", or "E").
+     * @return	True if the player moved.
+     */
+    public boolean movePlayer(String direction) {
+        int dir = "NWSE".indexOf(direction);
+
+        if (direction.length() != 1 || dir < 0) {
+            throw new IllegalArgumentException("Invalid direction: " + direction);
+        }
+
+        if (!isPassage(playerX, playerY, dir)) {
+            return false;
+        }
+
+        playerX += dir == PackedGrid.WEST ? -1 : dir == PackedGrid.EAST ? 1 : 0;
+        playerY += dir == PackedGrid.NORTH ? -1 : dir == PackedGrid.SOUTH ? 1 : 0;
+        markVisibleRooms();
+
+        return true;
+    }
+
+    /**
+     * Changes the visited flag of the rooms visible to the player to true.
+     */
+    private void markVisibleRooms() {
+        for (Cell room : getVisibleRooms(playerX, playerY)) {
+            PackedGrid chunk = getChunk(room.getX(), room.getY());
+            chunk.setFlag(localIndex(chunk, room.getX(), room.getY()), PackedGrid.VISITED, true);
+        }
+    }
+
+    /**
+     * Gets a list of rooms that are visible from the given room, up to the visibility range in a
+     * straight line in each direction. Chunks reached by the line of sight are generated.
+     *
+     * @param	x	The x coordinate of the room.
+     * @param	y	The y coordinate of the room.
+     * @return	A list of rooms visible from the given room.
+     */
+    public List<Cell> getVisibleRooms(int x, int y) {
+        List<Cell> rooms = new ArrayList<>();
+
+        rooms.add(new Cell(x, y));
+
+        for (int direction = PackedGrid.NORTH; direction <= PackedGrid.EAST; direction++) {
+            int currentX = x;
+            int currentY = y;
+
+            for (int cnt = 0; cnt < visRange && isPassage(currentX, currentY, direction); cnt++) {
+                currentX += direction == PackedGrid.WEST ? -1 : direction == PackedGrid.EAST ? 1 : 0;
+                currentY += direction == PackedGrid.NORTH ? -1 : direction == PackedGrid.SOUTH ? 1 : 0;
+                rooms.add(new Cell(currentX, currentY));
+            }
+        }
+
+        return rooms;
+    }
+
+    /**
+     * Determines if the wall of a room in a given direction is a passage.
+     *
+     * @param	x	The x coordinate of the room.
+     * @param	y	The y coordinate of the room.
+     * @param	direction	The direction of the wall.
+     * @return	True if the wall is a passage.
+     */
+    public boolean isPassage(int x, int y, int direction) {
+        int localX = Math.floorMod(x, chunkSize);
+        int localY = Math.floorMod(y, chunkSize);
+        int chunkX = Math.floorDiv(x, chunkSize);
+        int chunkY = Math.floorDiv(y, chunkSize);
+
+        switch (direction) {
+            case PackedGrid.NORTH:
+                if (localY == 0) {
+                    return door(chunkX, chunkY - 1, PackedGrid.SOUTH) == localX;
+                }
+                break;
+            case PackedGrid.WEST:
+                if (localX == 0) {
+                    return door(chunkX - 1, chunkY, PackedGrid.EAST) == localY;
+                }
+                break;
+            case PackedGrid.SOUTH:
+                if (localY == chunkSize - 1) {
+                    return door(chunkX, chunkY, PackedGrid.SOUTH) == localX;
+                }
+                break;
+            case PackedGrid.EAST:
+                if (localX == chunkSize - 1) {
+                    return door(chunkX, chunkY, PackedGrid.EAST) == localY;
+                }
+                break;
+            default:
+                throw new IllegalArgumentException("Invalid direction: " + direction);
+        }
+
+        PackedGrid chunk = getChunk(x, y);
+        return chunk.isPassage(chunk.index(localX, localY), direction);
+    }
+
+    /**
+     * Determines if a room has been seen by the player. Rooms of chunks that have been evicted are
+     * no longer known to have been seen.
+     *
+     * @param	x	The x coordinate of the room.
+     * @param	y	The y coordinate of the room.
+     * @return	True if the room has been seen.
+     */
+    public boolean isVisited(int x, int y) {
+        PackedGrid chunk = getChunk(x, y);
+        return chunk.hasFlag(localIndex(chunk, x, y), PackedGrid.VISITED);
+    }
+
+    /**
+     * Determines the position of the door on the East or South border of a chunk.
+     *
+     * @param	chunkX	The x coordinate of the chunk.
+     * @param	chunkY	The y coordinate of the chunk.
+     * @param	direction	The border, East or South.
+     * @return	The offset of the door along the border.
+     */
+    private int door(int chunkX, int chunkY, int direction) {
+        long hash = MazeRandom.mix64(chunkKey(chunkX, chunkY) * 2 + (direction == PackedGrid.EAST ? 0 : 1) + seed);
+        return (int) Math.floorMod(hash, (long) chunkSize);
+    }
+
+    /**
+     * Gets the chunk containing a room, generating it if it's not in memory.
+     *
+     * @param	x	The x coordinate of the room.
+     * @param	y	The y coordinate of the room.
+     * @return	The chunk.
+     */
+    private PackedGrid getChunk(int x, int y) {
+        long key = chunkKey(Math.floorDiv(x, chunkSize), Math.floorDiv(y, chunkSize));
+        PackedGrid chunk = chunks.get(key);
+
+        if (chunk == null) {
+            MazeRandom rand = new MazeRandom(MazeRandom.mix64(seed ^ MazeRandom.mix64(key)));
+
+            chunk = new PackedGrid(chunkSize, chunkSize);
+            generator.generate(chunk, rand.nextInt(chunk.size()), rand);
+            chunks.put(key, chunk);
+            generated++;
+        }
+
+        return chunk;
+    }
+
+    /**
+     * Determines the index in its chunk of a room.
+     *
+     * @param	chunk	The chunk of the room.
+     * @param	x	The x coordinate of the room.
+     * @param	y	The y coordinate of the room.
+     * @return	The index of the room in the chunk.
+     */
+    private int localIndex(PackedGrid chunk, int x, int y) {
+        return chunk.index(Math.floorMod(x, chunkSize), Math.floorMod(y, chunkSize));
+    }
+
+    /**
+     * Packs the coordinates of a chunk into the key of the chunk cache.
+     *
+     * @param	chunkX	The x coordinate of the chunk.
+     * @param	chunkY	The y coordinate of the chunk.
+     * @return	The key of the chunk.
+     */
+    private static long chunkKey(int chunkX, int chunkY) {
+        return ((long) chunkX << 32) | (chunkY & 0xffffffffL);
+    }
+
+    /*
+* ------------------------- Getters and Setters -------------------------
+     */
+    /**
+     * @return the seed
+     */
+    public long getSeed() {
+        return seed;
+    }
+
+    /**
+     * @return the chunkSize
+     */
+    public int getChunkSize() {
+        return chunkSize;
+    }
+
+    /**
+     * @return the visRange
+     */
+    public int getVisRange() {
+        return visRange;
+    }
+
+    /**
+     * @return the number of chunks in memory
+     */
+    public int getLoadedChunks() {
+        return chunks.size();
+    }
+
+    /**
+     * @return the number of chunks generated so far, including regenerated chunks
+     */
+    public long getGeneratedChunks() {
+        return generated;
+    }
+
+    /**
+     * @return the x coordinate of the player
+     */
+    public int getPlayerX() {
+        return playerX;
+    }
+
+    /**
+     * @return the y coordinate of the player
+     */
+    public int getPlayerY() {
+        return playerY;
+    }
+}
@@ -0,0 +1,203 @@
+package deathmaze;
+
+import java.util.function.IntConsumer;
+
+/**
+ * <h1>CorridorIndex</h1>
+ * This class holds, for every room of a maze and every direction, the length of the straight
+ * corridor leaving the room in that direction: the number of passages in a row before a wall. The
+ * passages of a maze don't change once it's carved, so the lengths are computed once, in one sweep
+ * of the grid per direction.
+ * <p>
+ * Characters see in straight lines along the passages, so whether one room can be seen from
+ * another is a matter of comparing their distance with the length of a corridor, and the rooms
+ * visible from a room are listed into a reused buffer, or handed to a callback, without
+ * allocating.
+ *
+ * @author Fred Erlenbusch
+ * @version 1.0
+ * @since 2026-10-17
+ */
+public class CorridorIndex {
+
+    /**
+     * The grid of the maze.
+     */
+    private final PackedGrid grid;
+    /**
+     * The length of the corridor leaving every room in every direction, at
+     * <code>4 * index + direction</code>. Lengths of Character.MAX_VALUE or more are capped, and
+     * completed by getRun from the lengths of the rooms further down the corridor.
+     */
+    private final char[] runs;
+
+    /**
+     * The constructor for this class.
+     *
+     * @param	grid	The grid of a carved maze, of less than 2^29 rooms, four lengths per room.
+     */
+    public CorridorIndex(PackedGrid grid) {
+        int width = grid.getWidth();
+        int height = grid.getHeight();
+
+        if ((long) grid.size() * 4 > Integer.MAX_VALUE - 8) {
+            throw new IllegalArgumentException("Grid too large for a corridor index: " + width + "x" + height);
+        }
+
+        this.grid = grid;
+        this.runs = new char[grid.size() * 4];
+
+        for (int y = 0; y < height; y++) {
+            int first = y * width;
+
+            for (int x = 1; x < width; x++) {
+                if (grid.isPassage(first + x, PackedGrid.WEST)) {
+                    runs[4 * (first + x) + PackedGrid.WEST] = extend(runs[4 * (first + x - 1) + PackedGrid.WEST]);
+                }
+            }
+
+            for (int x = width - 2; x >= 0; x--) {
+                if (grid.isPassage(first + x, PackedGrid.EAST)) {
+                    runs[4 * (first + x) + PackedGrid.EAST] = extend(runs[4 * (first + x + 1) + PackedGrid.EAST]);
+                }
+            }
+        }
+
+        for (int room = width; room < grid.size(); room++) {
+            if (grid.isPassage(room, PackedGrid.NORTH)) {
+                runs[4 * room + PackedGrid.NORTH] = extend(runs[4 * (room - width) + PackedGrid.NORTH]);
+            }
+        }
+
+        for (int room = grid.size() - width - 1; room >= 0; room--) {
+            if (grid.isPassage(room, PackedGrid.SOUTH)) {
+                runs[4 * room + PackedGrid.SOUTH] = extend(runs[4 * (room + width) + PackedGrid.SOUTH]);
+            }
+        }
+    }
+
+    /**
+     * @param	run	The length of a corridor.
+     * @return	The length of the corridor one room longer, capped at Character.MAX_VALUE.
+     */
+    private static char extend(char run) {
+        return run == Character.MAX_VALUE ? run : (char) (run + 1);
+    }
+
+    /**
+     * Gets the length of the corridor leaving a room in a direction. A length capped at
+     * Character.MAX_VALUE is completed with the length of the corridor leaving the room that far
+     * down the corridor, so a corridor of any length takes one step per Character.MAX_VALUE rooms.
+     *
+     * @param	room	The index of a room.
+     * @param	direction	A direction.
+     * @return	The number of passages in a straight line from the room in the direction.
+     */
+    public int getRun(int room, int direction) {
+        int run = runs[4 * room + direction];
+
+        if (run == Character.MAX_VALUE) {
+            int step = step(direction);
+            int end = room;
+            int more = run;
+
+            do {
+                end += more * step;
+                more = runs[4 * end + direction];
+                run += more;
+            } while (more == Character.MAX_VALUE);
+        }
+
+        return run;
+    }
+
+    /**
+     * Determines if a room can be seen from another: they're in the same row or column, with a
+     * straight line of passages between them no longer than the visibility range.
+     *
+     * @param	from	The index of the room seen from.
+     * @param	to	The index of the room to be seen.
+     * @param	visRange	How far a character can see.
+     * @return	True if the room can be seen.
+     */
+    public boolean canSee(int from, int to, int visRange) {
+        int dx = grid.getX(to) - grid.getX(from);
+        int dy = grid.getY(to) - grid.getY(from);
+
+        if (dy == 0) {
+            int direction = dx < 0 ? PackedGrid.WEST : PackedGrid.EAST;
+            return Math.abs(dx) <= visRange && Math.abs(dx) <= getRun(from, direction);
+        } else if (dx == 0) {
+            int direction = dy < 0 ? PackedGrid.NORTH : PackedGrid.SOUTH;
+            return Math.abs(dy) <= visRange && Math.abs(dy) <= getRun(from, direction);
+        } else {
+            return false;
+        }
+    }
+
+    /**
+     * Lists the rooms visible from a given room, in a straight line in each direction up to the
+     * visibility range.
+     *
+     * @param	room	The index of the room.
+     * @param	visRange	How far a character can see.
+     * @param	rooms	The array the indices of the visible rooms are written to, of length
+     * <code>4 * visRange + 1</code> or more.
+     * @return	The number of visible rooms, including the given room.
+     */
+    public int getVisibleRooms(int room, int visRange, int[] rooms) {
+        int cnt = 0;
+
+        rooms[cnt++] = room;
+
+        for (int direction = PackedGrid.NORTH; direction <= PackedGrid.EAST; direction++) {
+            int length = Math.min(visRange, getRun(room, direction));
+            int step = step(direction);
+
+            for (int i = 1; i <= length; i++) {
+                rooms[cnt++] = room + i * step;
+            }
+        }
+
+        return cnt;
+    }
+
+    /**
+     * Hands the rooms visible from a given room to an action, in the same order as
+     * getVisibleRooms.
+     *
+     * @param	room	The index of the room.
+     * @param	visRange	How far a character can see.
+     * @param	action	The action given the index of every visible room, including the given room.
+     */
+    public void forEachVisibleRoom(int room, int visRange, IntConsumer action) {
+        action.accept(room);
+
+        for (int direction = PackedGrid.NORTH; direction <= PackedGrid.EAST; direction++) {
+            int length = Math.min(visRange, getRun(room, direction));
+            int step = step(direction);
+
+            for (int i = 1; i <= length; i++) {
+                action.accept(room + i * step);
+            }
+        }
+    }
+
+    /**
+     * @param	direction	A direction.
+     * @return	The difference between the index of a room and the index of its neighbour in the
+     * direction.
+     */
+    private int step(int direction) {
+        switch (direction) {
+            case PackedGrid.NORTH:
+                return -grid.getWidth();
+            case PackedGrid.WEST:
+                return -1;
+            case PackedGrid.SOUTH:
+                return grid.getWidth();
+            default:
+                return 1;
+        }
+    }
+}
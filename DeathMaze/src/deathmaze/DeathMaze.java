@@ -4,6 +4,7 @@ import java.util.ArrayList;
 import java.util.List;
 
 import javafx.application.Application;
+import javafx.application.Platform;
 import javafx.beans.value.ObservableValue;
 import javafx.geometry.HPos;
 import javafx.geometry.Insets;
@@ -11,6 +12,7 @@ import javafx.geometry.Pos;
 import javafx.scene.Node;
 import javafx.scene.Scene;
 import javafx.scene.control.Button;
+import javafx.scene.control.ChoiceBox;
 import javafx.scene.control.ContentDisplay;
 import javafx.scene.control.Label;
 import javafx.scene.control.Slider;
@@ -51,13 +53,49 @@ public class DeathMaze extends Application {
      */
     private static final String TITLE = "title";
     /**
-     * The data for the maze used in this game.
+     * The algorithms the player can pick from to generate a new maze.
+     */
+    private static final MazeGenerator[] GENERATORS = {new PrimGenerator(), new KruskalGenerator(),
+        new WilsonGenerator(), new BacktrackerGenerator(), new EllerGenerator()};
+    /**
+     * The number of mazes kept ready for the next game.
+     */
+    private static final int POOL_SIZE = 2;
+    /**
+     * The most monsters the player can pick, for a horde. A smaller map lowers it to the monsters
+     * the maze has room for.
+     */
+    private static final int MAX_MOBS = 500;
+    /**
+     * The mazes generated in the background for the next games.
+     */
+    private final MazePool mazePool = new MazePool(POOL_SIZE);
+    /**
+     * The data for the maze used in this game, or null until the first maze is generated.
      */
     private Maze deathMaze;
+    /**
+     * The number of mazes requested, so a maze generated for a request that was replaced by a
+     * newer one is dropped.
+     */
+    private int mazeRequests;
     /**
      * The Pane for the map of the maze. This is declared globally to enable it to be refreshed.
      */
     private GridPane map;
+    /**
+     * The tiles of the map, indexed by their column and row in the map pane. Every room is drawn
+     * on the 3 by 3 tiles around (3 * x + 1, 3 * y + 1).
+     */
+    private Rectangle[][] tiles;
+    /**
+     * The rooms in sight of the player when the map was last painted.
+     */
+    private int[] sight;
+    /**
+     * The number of rooms in sight of the player when the map was last painted.
+     */
+    private int sightCount;
     /**
      * The Label used to give notifications to the users on the current status of their game or when
      * events happen.
@@ -79,6 +117,10 @@ public class DeathMaze extends Application {
      * The chosen visibility range of the characters in this game.
      */
     private int visRange = 3;
+    /**
+     * The chosen algorithm used to generate the maze of this game.
+     */
+    private MazeGenerator generator = GENERATORS[0];
     /**
      * The Primary Stage for this applications.
      */
@@ -112,15 +154,50 @@ public class DeathMaze extends Application {
 
         primaryStage.setScene(scene);
         primaryStage.show();
+
+        requestMaze();
     }
 
     /**
      * Initializes the map used by the UI
      */
     private void initMap() {
-        deathMaze = new Maze(width, height, mobCnt, visRange);
         map = new GridPane();
-        paintMap();
+    }
+
+    /**
+     * Requests a maze with the chosen settings from the pool. A maze that isn't ready is generated
+     * in the background, off the JavaFX thread, and the map is painted once it's handed back.
+     */
+    private void requestMaze() {
+        int request = ++mazeRequests;
+
+        deathMaze = null;
+        notification.setText("Generating the maze...");
+
+        mazePool.request(width, height, Math.min(mobCnt, getMaxMobs()), visRange, generator).whenComplete((maze, error)
+                -> Platform.runLater(() -> {
+            if (request != mazeRequests) {
+                return;
+            }
+
+            if (error != null) {
+                notification.setText("The maze couldn't be generated: " + error.getMessage());
+                return;
+            }
+
+            deathMaze = maze;
+            notification.setText("");
+            paintMap();
+            primaryStage.sizeToScene();
+        }));
+    }
+
+    /**
+     * @return	The most monsters the player can pick for the chosen size of the map.
+     */
+    private int getMaxMobs() {
+        return Math.min(MAX_MOBS, Maze.getMaxMobs(width, height));
     }
 
     /**
@@ -351,6 +428,7 @@ public class DeathMaze extends Application {
         final int oldHeight = height;
         final int oldMobCnt = mobCnt;
         final int oldVisRange = visRange;
+        final MazeGenerator oldGenerator = generator;
 
         GridPane settings = new GridPane();
         settings.setAlignment(Pos.CENTER);
@@ -399,7 +477,7 @@ public class DeathMaze extends Application {
         Label mobValue = new Label("# of Monsters: " + mobCnt);
         GridPane.setHalignment(mobValue, HPos.CENTER);
 
-        Slider mobSlider = new Slider(1, 10, mobCnt);
+        Slider mobSlider = new Slider(1, getMaxMobs(), mobCnt);
         mobSlider.setBlockIncrement(1);
         GridPane.setHalignment(mobSlider, HPos.CENTER);
 
@@ -409,6 +487,10 @@ public class DeathMaze extends Application {
             mobValue.setText("# of Monsters: " + mobCnt);
         });
 
+// Lowering the max of the slider moves its value down with it
+        widthSlider.valueProperty().addListener(ov -> mobSlider.setMax(getMaxMobs()));
+        heightSlider.valueProperty().addListener(ov -> mobSlider.setMax(getMaxMobs()));
+
         settings.add(mobValue, 0, 3);
         settings.add(mobSlider, 1, 3);
 
@@ -428,11 +510,31 @@ public class DeathMaze extends Application {
         settings.add(visValue, 0, 4);
         settings.add(visSlider, 1, 4);
 
+        Label generatorValue = new Label("Algorithm: ");
+        GridPane.setHalignment(generatorValue, HPos.CENTER);
+
+        ChoiceBox<String> generatorChoice = new ChoiceBox<>();
+
+        for (MazeGenerator option : GENERATORS) {
+            generatorChoice.getItems().add(option.getName());
+        }
+
+        generatorChoice.getSelectionModel().select(generator.getName());
+        GridPane.setHalignment(generatorChoice, HPos.CENTER);
+
+        generatorChoice.getSelectionModel().selectedIndexProperty().addListener((ObservableValue<? extends Number> ov,
+                Number oldVal, Number newVal) -> {
+            generator = GENERATORS[newVal.intValue()];
+        });
+
+        settings.add(generatorValue, 0, 5);
+        settings.add(generatorChoice, 1, 5);
+
         Button escBtn = new Button("Close");
         escBtn.setTooltip(new Tooltip("Esc"));
         escBtn.setOnAction(e
                 -> {
-            resetValues(oldWidth, oldHeight, oldMobCnt, oldVisRange);
+            resetValues(oldWidth, oldHeight, oldMobCnt, oldVisRange, oldGenerator);
             newMazeSettingsStage.close();
         });
         escBtn.getTooltip().setContentDisplay(ContentDisplay.BOTTOM);
@@ -448,12 +550,12 @@ public class DeathMaze extends Application {
         startBtn.getTooltip().setContentDisplay(ContentDisplay.BOTTOM);
         GridPane.setHalignment(startBtn, HPos.CENTER);
 
-        settings.add(escBtn, 0, 5);
-        settings.add(startBtn, 1, 5);
+        settings.add(escBtn, 0, 6);
+        settings.add(startBtn, 1, 6);
 
         settings.addEventFilter(KeyEvent.KEY_RELEASED, keyEvent -> {
             if (keyEvent.getCode() == KeyCode.ESCAPE) {
-                resetValues(oldWidth, oldHeight, oldMobCnt, oldVisRange);
+                resetValues(oldWidth, oldHeight, oldMobCnt, oldVisRange, oldGenerator);
                 newMazeSettingsStage.close();
             }
 
@@ -540,16 +642,19 @@ public class DeathMaze extends Application {
      * @param height	What the current height should be.
      * @param mobCnt	What the current mobCnt should be.
      * @param visRange	What the current visRange should be.
+     * @param generator	What the current generator should be.
      */
-    private void resetValues(int width, int height, int mobCnt, int visRange) {
+    private void resetValues(int width, int height, int mobCnt, int visRange, MazeGenerator generator) {
         this.width = width;
         this.height = height;
         this.mobCnt = mobCnt;
         this.visRange = visRange;
+        this.generator = generator;
     }
 
     /**
-     * Paints the current map to the pane containing the map.
+     * Paints the current map to the pane containing the map. Every room, wall, and corner of the map
+     * gets a tile of its own, kept to be repainted by paintTurn.
      */
     private void paintMap() {
         map.getChildren().clear();
@@ -558,127 +663,154 @@ public class DeathMaze extends Application {
         map.setVgap(0);
         map.setPadding(new Insets(10, 10, 10, 10));
 
-        Cell[][] grid = deathMaze.getGrid();
-        List<Cell> visibleRooms = deathMaze.getVisibleRooms(deathMaze.getPlayer());
+        int mapWidth = deathMaze.getWidth();
+        int mapHeight = deathMaze.getHeight();
 
-        for (int y = 0; y < height * 3; y++) {
+        tiles = new Rectangle[mapWidth * 3][mapHeight * 3];
 
-            if (y % 3 == 0 || y % 3 == 2) {
-                paintNorthSouthWalls(grid, y);
-            } else if (y % 3 == 1) {
-                paintRoomsAndWalls(visibleRooms, grid, y);
+        for (int y = 0; y < mapHeight * 3; y++) {
+            for (int x = 0; x < mapWidth * 3; x++) {
+                Rectangle tile = new Rectangle(x % 3 == 1 ? ROOM_SIZE : WALL_SIZE, y % 3 == 1 ? ROOM_SIZE : WALL_SIZE);
+
+                tile.setFill(Color.BLACK);
+                tiles[x][y] = tile;
+                map.add(tile, x, y);
             }
         }
 
-    }
+        Cell[][] grid = deathMaze.getGrid();
+        sight = new int[4 * deathMaze.getVisRange() + 1];
 
-    /**
-     * Paints the rooms, and the walls to the East and West of the rooms in a given row.
-     *
-     * @param visibleRooms	The rooms visible to the player.
-     * @param grid	The current map's grid.
-     * @param y	The y coordinate of the row to be generated.
-     */
-    private void paintRoomsAndWalls(List<Cell> visibleRooms, Cell[][] grid, int y) {
-        for (int x = 0; x < width * 3; x++) {
-            Cell room = grid[x / 3][y / 3];
-
-            if ((x % 3 == 0 || x % 3 == 2)) {
-                paintEastWestWalls(room, x, y);
-            } else if (x % 3 == 1) {
-                paintRoom(visibleRooms, room, x, y);
+        for (int y = 0; y < mapHeight; y++) {
+            for (int x = 0; x < mapWidth; x++) {
+                paintRoom(grid[x][y]);
             }
         }
+
+        sightCount = deathMaze.getCorridorIndex().getVisibleRooms(playerIndex(), deathMaze.getVisRange(), sight);
     }
 
     /**
-     * Paints the walls to the North and South of a given row their appropriate colors.
-     *
-     * @param grid	The current map's grid.
-     * @param y	The y coordinate of the row to be generated.
+     * Repaints the tiles changed by the last turn: the rooms in sight of the player before and after
+     * the turn, where the player and the monsters seen may have moved, and the rooms revealed by the
+     * turn with their neighbours, whose walls may have opened. The cost of a turn is bounded by the
+     * visibility range, not the size of the map.
      */
-    private void paintNorthSouthWalls(Cell[][] grid, int y) {
-        for (int x = 0; x < width * 3; x++) {
-            Cell room = grid[x / 3][y / 3];
-            Rectangle wall = new Rectangle(WALL_SIZE, WALL_SIZE);
+    private void paintTurn() {
+        Cell[][] grid = deathMaze.getGrid();
+        PackedGrid packedGrid = deathMaze.getPackedGrid();
+
+        for (int i = 0; i < sightCount; i++) {
+            paintRoom(grid[packedGrid.getX(sight[i])][packedGrid.getY(sight[i])]);
+        }
 
-            wall.setFill(Color.BLACK);
+        for (int i = 0; i < deathMaze.getRevealedCount(); i++) {
+            int room = deathMaze.getRevealedRoom(i);
 
-            if (x % 3 == 1) {
-                wall.setWidth(ROOM_SIZE);
+            for (int direction = PackedGrid.NORTH; direction <= PackedGrid.EAST; direction++) {
+                int other = packedGrid.neighbour(room, direction);
 
-                if (((y % 3 == 0 && room.getNorth().isPassage() && room.getNorth().getOther(room).isVisited())
-                        || (y % 3 == 2 && room.getSouth().isPassage() && room.getSouth().getOther(room).isVisited()))
-                        && room.isVisited()) {
-                    wall.setFill(Color.WHITE);
+                if (other != -1) {
+                    paintRoom(grid[packedGrid.getX(other)][packedGrid.getY(other)]);
                 }
             }
 
-            map.add(wall, x, y);
+            paintRoom(grid[packedGrid.getX(room)][packedGrid.getY(room)]);
+        }
+
+        sightCount = deathMaze.getCorridorIndex().getVisibleRooms(playerIndex(), deathMaze.getVisRange(), sight);
+
+        for (int i = 0; i < sightCount; i++) {
+            paintRoom(grid[packedGrid.getX(sight[i])][packedGrid.getY(sight[i])]);
         }
     }
 
     /**
-     * Paints a given wall determined by it's x and y coordinate the appropriate color if it's an
-     * wall to the East or West of a room.
+     * @return	The index of the player's room in the packed grid.
+     */
+    private int playerIndex() {
+        return deathMaze.getPackedGrid().index(deathMaze.getPlayer().getX(), deathMaze.getPlayer().getY());
+    }
+
+    /**
+     * Paints the tiles of a room: the room itself, and its walls to the North, South, West, and
+     * East.
      *
-     * @param room	The room of the given wall.
-     * @param x	The x coordinate of the wall.
-     * @param y	The y coordinate of the wall.
+     * @param room	The room to be painted.
      */
-    private void paintEastWestWalls(Cell room, int x, int y) {
-        Rectangle wall = new Rectangle(WALL_SIZE, ROOM_SIZE);
+    private void paintRoom(Cell room) {
+        int x = room.getX() * 3 + 1;
+        int y = room.getY() * 3 + 1;
+
+        tiles[x][y - 1].setFill(wallColor(room, PackedGrid.NORTH));
+        tiles[x][y + 1].setFill(wallColor(room, PackedGrid.SOUTH));
+        tiles[x - 1][y].setFill(wallColor(room, PackedGrid.WEST));
+        tiles[x + 1][y].setFill(wallColor(room, PackedGrid.EAST));
+        paintRoomTile(room, tiles[x][y]);
+    }
 
-        wall.setFill(Color.BLACK);
+    /**
+     * Determines the color of a wall of a room, white if it's a passage between two visited rooms.
+     *
+     * @param room	The room of the wall.
+     * @param direction	The direction of the wall.
+     * @return	The color of the wall.
+     */
+    private Color wallColor(Cell room, int direction) {
+        return room.isVisited() && isPassageToVisited(room, direction) ? Color.WHITE : Color.BLACK;
+    }
 
-        if (((x % 3 == 0 && room.getWest().isPassage() && room.getWest().getOther(room).isVisited())
-                || (x % 3 == 2 && room.getEast().isPassage() && room.getEast().getOther(room).isVisited()))
-                && room.isVisited()) {
-            wall.setFill(Color.WHITE);
-        }
+    /**
+     * Determines if a wall of a room is a passage to a visited room, from the passage mask of the
+     * room and the flags of the packed grid, without allocating walls or rooms.
+     *
+     * @param room	The room of the wall.
+     * @param direction	The direction of the wall.
+     * @return	True if the wall is a passage and the room behind it has been visited.
+     */
+    private boolean isPassageToVisited(Cell room, int direction) {
+        PackedGrid packedGrid = deathMaze.getPackedGrid();
 
-        map.add(wall, x, y);
+        return (room.getPassageMask() & 1 << direction) != 0
+                && packedGrid.hasFlag(packedGrid.neighbour(packedGrid.index(room.getX(), room.getY()), direction),
+                        PackedGrid.VISITED);
     }
 
     /**
-     * Paints a given room the appropriate color.
+     * Paints the tile of a given room the appropriate color.
      *
-     * @param visableRooms	Rooms visible to the player.
      * @param cRoom	The room to be painted.
-     * @param x	The x coordinate of the room.
-     * @param y	The y coordinate of the room.
+     * @param rRoom	The tile of the room.
      */
-    private void paintRoom(List<Cell> visableRooms, Cell cRoom, int x, int y) {
-        Rectangle rRoom = new Rectangle(x, y, ROOM_SIZE, ROOM_SIZE);
+    private void paintRoomTile(Cell cRoom, Rectangle rRoom) {
+        int occupants = deathMaze.getOccupancy().getBits(deathMaze.getPackedGrid().index(cRoom.getX(), cRoom.getY()));
 
         rRoom.setFill(Color.BLACK);
 
-        if (cRoom.isPartOfMaze() && !deathMaze.isRoomEmpty(cRoom)) {
-            if (deathMaze.getMobs().contains(cRoom) && visableRooms.contains(cRoom)) {
-                rRoom = setMobColors(rRoom, cRoom);
-            } else if (deathMaze.getPlayer().equals(cRoom)) {
+        if (cRoom.isPartOfMaze() && occupants != 0) {
+            if ((occupants & Occupancy.MOB) != 0 && deathMaze.canSee(deathMaze.getPlayer(), cRoom)) {
+                setMobColors(rRoom, occupants);
+            } else if ((occupants & Occupancy.PLAYER) != 0) {
                 rRoom.setFill(Color.BLUE);
             } else if (cRoom.isVisited()) {
-                rRoom = setGoalColors(rRoom, cRoom);
+                setGoalColors(rRoom, occupants);
             }
         } else if (cRoom.isPartOfMaze() && cRoom.isVisited()) {
             rRoom.setFill(Color.WHITE);
         }
-
-        map.add(rRoom, x, y);
     }
 
     /**
      * Sets a room to the appropriate Monster color.
      *
      * @param rRoom	The UI element to be colored.
-     * @param cRoom	The room being represented.
+     * @param occupants	The occupancy bits of the room being represented.
      * @return	The colored UI element.
      */
-    private Rectangle setMobColors(Rectangle rRoom, Cell cRoom) {
-        if (deathMaze.getKey().equals(cRoom)) {
+    private Rectangle setMobColors(Rectangle rRoom, int occupants) {
+        if ((occupants & Occupancy.KEY) != 0) {
             rRoom.setFill(Color.DARKORANGE);
-        } else if (deathMaze.getExit().equals(cRoom)) {
+        } else if ((occupants & Occupancy.EXIT) != 0) {
             rRoom.setFill(Color.LIGHTSALMON);
         } else {
             rRoom.setFill(Color.FIREBRICK);
@@ -691,13 +823,13 @@ public class DeathMaze extends Application {
      * Sets a room to the appropriate goal color.
      *
      * @param rRoom	The UI element to be colored.
-     * @param cRoom	The room being represented.
+     * @param occupants	The occupancy bits of the room being represented.
      * @return	The colored UI element.
      */
-    private Rectangle setGoalColors(Rectangle rRoom, Cell cRoom) {
-        if (deathMaze.getKey().equals(cRoom)) {
+    private Rectangle setGoalColors(Rectangle rRoom, int occupants) {
+        if ((occupants & Occupancy.KEY) != 0) {
             rRoom.setFill(Color.GOLD);
-        } else if (deathMaze.getExit().equals(cRoom)) {
+        } else if ((occupants & Occupancy.EXIT) != 0) {
             rRoom.setFill(Color.GREENYELLOW);
         } else {
             rRoom.setFill(Color.WHITE);
@@ -713,8 +845,12 @@ public class DeathMaze extends Application {
      * @param dir	The direction to move the player.
      */
     private void move(String dir) {
+        if (deathMaze == null) {
+            return;
+        }
+
         deathMaze.movePlayer(dir);
-        paintMap();
+        paintTurn();
         notification.setText(deathMaze.getMsg());
     }
 }
@@ -0,0 +1,248 @@
+package deathmaze;
+
+import java.util.Iterator;
+import java.util.Random;
+
+/**
+ * <h1>DescentMaze</h1>
+ * This class is a view of a maze with no bottom, used by the endless descent mode. The rows of the
+ * maze are pulled from an EllerRows generator only when the player's visibility range reaches
+ * them, and rows far enough behind the player are dropped. Only a window of rows around the player
+ * is kept, so the memory used doesn't grow with the depth the player reaches. The player can't
+ * climb back into rows that have been dropped.
+ *
+ * @author Fred Erlenbusch
+ * @version 1.0
+ * @since 2026-10-17
+ */
+public class DescentMaze {
+
+    /**
+     * The number of rooms wide of the maze.
+     */
+    private final int width;
+    /**
+     * The visibility range of the player.
+     */
+    private final int visRange;
+    /**
+     * The number of rows kept above the player.
+     */
+    private final int keepBehind;
+    /**
+     * The generator of the rows.
+     */
+    private final Iterator<MazeRow> rows;
+    /**
+     * The rows kept in memory, row y is kept at index <code>y % window.length</code>.
+     */
+    private final MazeRow[] window;
+    /**
+     * The y coordinate of the oldest row kept.
+     */
+    private long top;
+    /**
+     * The y coordinate of the next row to be generated.
+     */
+    private long bottom;
+    /**
+     * The x coordinate of the player.
+     */
+    private int playerX;
+    /**
+     * The y coordinate of the player.
+     */
+    private long playerY;
+
+    /**
+     * The constructor for this class. The player starts in a random room of the first row.
+     *
+     * @param	width	# of rooms width wise
+     * @param	visRange	How far the player can see from their current location
+     * @param	keepBehind	# of rows kept above the player
+     * @param	rand	The random number generator used to generate the maze
+     */
+    public DescentMaze(int width, int visRange, int keepBehind, Random rand) {
+        this.width = width;
+        this.visRange = visRange;
+        this.keepBehind = keepBehind;
+        this.playerX = rand.nextInt(width);
+        this.playerY = 0;
+        this.rows = new EllerRows(width, rand);
+        this.window = new MazeRow[keepBehind + visRange + 1];
+        this.top = 0;
+        this.bottom = 0;
+
+        advance();
+    }
+
+    /**
+     * Moves the player in a given direction, if there's a passage in that direction.
+     *
+     * @param	direction	The direction to move the player.
+     * @return	True if the player moved.
+     */
+    public boolean movePlayer(String direction) {
+        int dir = toDirection(direction);
+
+        if (!isPassage(playerX, playerY, dir)) {
+            return false;
+        }
+
+        if (dir == PackedGrid.NORTH) {
+            playerY--;
+        } else if (dir == PackedGrid.SOUTH) {
+            playerY++;
+        } else if (dir == PackedGrid.WEST) {
+            playerX--;
+        } else {
+            playerX++;
+        }
+
+        advance();
+
+        return true;
+    }
+
+    /**
+     * Drops the rows too far behind the player, and generates the rows up to the player's
+     * visibility range.
+     */
+    private void advance() {
+        while (top < playerY - keepBehind) {
+            window[(int) (top++ % window.length)] = null;
+        }
+
+        while (bottom <= playerY + visRange) {
+            window[(int) (bottom % window.length)] = rows.next();
+            bottom++;
+        }
+    }
+
+    /**
+     * Gets a row of the maze.
+     *
+     * @param	y	The y coordinate of the row.
+     * @return	The row, or null if it has been dropped or isn't generated yet.
+     */
+    public MazeRow getRow(long y) {
+        return y >= top && y < bottom ? window[(int) (y % window.length)] : null;
+    }
+
+    /**
+     * Determines if the wall of a room in a given direction is a passage. Walls of rows that have
+     * been dropped or aren't generated yet are closed.
+     *
+     * @param	x	The x coordinate of the room.
+     * @param	y	The y coordinate of the room.
+     * @param	direction	The direction of the wall.
+     * @return	True if the wall is a passage.
+     */
+    public boolean isPassage(int x, long y, int direction) {
+        MazeRow row;
+
+        switch (direction) {
+            case PackedGrid.NORTH:
+                row = getRow(y - 1);
+                return row != null && getRow(y) != null && row.isSouthPassage(x);
+            case PackedGrid.WEST:
+                row = getRow(y);
+                return row != null && x > 0 && row.isEastPassage(x - 1);
+            case PackedGrid.SOUTH:
+                row = getRow(y);
+                return row != null && getRow(y + 1) != null && row.isSouthPassage(x);
+            case PackedGrid.EAST:
+                row = getRow(y);
+                return row != null && x < width - 1 && row.isEastPassage(x);
+            default:
+                throw new IllegalArgumentException("Invalid direction: " + direction);
+        }
+    }
+
+    /**
+     * Counts the rooms the player can see in a straight line in a given direction.
+     *
+     * @param	direction	The direction the player is looking.
+     * @return	The number of rooms visible, up to the visibility range.
+     */
+    public int getSightLength(int direction) {
+        int x = playerX;
+        long y = playerY;
+        int cnt = 0;
+
+        while (cnt < visRange && isPassage(x, y, direction)) {
+            x += direction == PackedGrid.WEST ? -1 : direction == PackedGrid.EAST ? 1 : 0;
+            y += direction == PackedGrid.NORTH ? -1 : direction == PackedGrid.SOUTH ? 1 : 0;
+            cnt++;
+        }
+
+        return cnt;
+    }
+
+    /**
+     * Converts one of the player's move directions ("N", "W", "S", "E") to a direction of the
+     * grid.
+     *
+     * @param	direction	The move direction.
+     * @return	The grid direction.
+     */
+    private static int toDirection(String direction) {
+        switch (direction) {
+            case "N":
+                return PackedGrid.NORTH;
+            case "W":
+                return PackedGrid.WEST;
+            case "S":
+                return PackedGrid.SOUTH;
+            case "E":
+                return PackedGrid.EAST;
+            default:
+                throw new IllegalArgumentException("Invalid direction: " + direction);
+        }
+    }
+
+    /*
+* ------------------------- Getters and Setters -------------------------
+     */
+    /**
+     * @return the width
+     */
+    public int getWidth() {
+        return width;
+    }
+
+    /**
+     * @return the visRange
+     */
+    public int getVisRange() {
+        return visRange;
+    }
+
+    /**
+     * @return the x coordinate of the player
+     */
+    public int getPlayerX() {
+        return playerX;
+    }
+
+    /**
+     * @return the y coordinate of the player
+     */
+    public long getPlayerY() {
+        return playerY;
+    }
+
+    /**
+     * @return the y coordinate of the oldest row kept
+     */
+    public long getTop() {
+        return top;
+    }
+
+    /**
+     * @return the y coordinate of the next row to be generated
+     */
+    public long getBottom() {
+        return bottom;
+    }
+}
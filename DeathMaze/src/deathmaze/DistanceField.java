@@ -0,0 +1,148 @@
+package deathmaze;
+
+import java.util.Arrays;
+
+/**
+ * <h1>DistanceField</h1>
+ * This class holds the length of the path from a source room to every room of a maze, found with a
+ * breadth first search over the passages of the grid. A search takes time linear in the number of
+ * rooms, and a field can be computed again from another source reusing its arrays.
+ * <p>
+ * The lengths of the paths are also counted in a histogram, so the length at a given percentile
+ * of all the rooms reached is found in time linear in the longest path.
+ *
+ * @author Fred Erlenbusch
+ * @version 1.0
+ * @since 2026-10-17
+ */
+public class DistanceField {
+
+    /**
+     * The grid of the maze.
+     */
+    private final PackedGrid grid;
+    /**
+     * The length of the path from the source to every room, or -1 if the room can't be reached.
+     */
+    private final int[] distances;
+    /**
+     * The queue of rooms of the search.
+     */
+    private final int[] queue;
+    /**
+     * The number of rooms reached at every path length, up to the longest path.
+     */
+    private int[] histogram;
+    /**
+     * The number of rooms reached.
+     */
+    private int reached;
+    /**
+     * The length of the longest path.
+     */
+    private int maxDistance;
+
+    /**
+     * The constructor for this class. The field is computed from a source room.
+     *
+     * @param	grid	The grid of the maze.
+     * @param	source	The index of the source room.
+     */
+    public DistanceField(PackedGrid grid, int source) {
+        this.grid = grid;
+        this.distances = new int[grid.size()];
+        this.queue = new int[grid.size()];
+        this.histogram = new int[64];
+
+        compute(source);
+    }
+
+    /**
+     * Computes the field again from a new source room.
+     *
+     * @param	source	The index of the source room.
+     */
+    public void compute(int source) {
+        Arrays.fill(distances, -1);
+        Arrays.fill(histogram, 0);
+
+        int head = 0;
+        int tail = 0;
+        distances[source] = 0;
+        queue[tail++] = source;
+
+        while (head < tail) {
+            int room = queue[head++];
+            int next = distances[room] + 1;
+
+            for (int direction = PackedGrid.NORTH; direction <= PackedGrid.EAST; direction++) {
+                if (grid.isPassage(room, direction)) {
+                    int other = grid.neighbour(room, direction);
+
+                    if (distances[other] < 0) {
+                        distances[other] = next;
+                        queue[tail++] = other;
+                    }
+                }
+            }
+        }
+
+        reached = tail;
+        maxDistance = distances[queue[tail - 1]];
+
+        if (histogram.length <= maxDistance) {
+            histogram = new int[Math.max(maxDistance + 1, histogram.length * 2)];
+        }
+
+        for (int i = 0; i < tail; i++) {
+            histogram[distances[queue[i]]]++;
+        }
+    }
+
+    /**
+     * @param	room	The index of a room.
+     * @return	The length of the path from the source to the room, or -1 if it can't be reached.
+     */
+    public int getDistance(int room) {
+        return distances[room];
+    }
+
+    /**
+     * Determines the length of path at a percentile of the rooms reached, i.e. the shortest length
+     * such that at least the given fraction of the rooms are that close to the source.
+     *
+     * @param	fraction	The percentile, between 0 and 1.
+     * @return	The length of path at the percentile.
+     */
+    public int percentile(double fraction) {
+        long target = (long) Math.ceil(fraction * reached);
+        long cnt = 0;
+
+        for (int distance = 0; distance < maxDistance; distance++) {
+            cnt += histogram[distance];
+
+            if (cnt >= target) {
+                return distance;
+            }
+        }
+
+        return maxDistance;
+    }
+
+    /*
+* ------------------------- Getters and Setters -------------------------
+     */
+    /**
+     * @return the number of rooms reached
+     */
+    public int getReached() {
+        return reached;
+    }
+
+    /**
+     * @return the maxDistance
+     */
+    public int getMaxDistance() {
+        return maxDistance;
+    }
+}
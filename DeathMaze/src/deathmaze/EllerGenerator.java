@@ -0,0 +1,52 @@
+package deathmaze;
+
+import java.util.Random;
+
+/**
+ * <h1>EllerGenerator</h1>
+ * This class carves a maze with Eller's algorithm, one row at a time.
+ *
+ * @author Fred Erlenbusch
+ * @version 1.0
+ * @since 2026-10-17
+ * @see	EllerRows
+ */
+public class EllerGenerator implements MazeGenerator {
+
+    /**
+     * @return	The name of the algorithm.
+     */
+    @Override
+    public String getName() {
+        return "Eller";
+    }
+
+    /**
+     * Carves the passages into the grid.
+     *
+     * @param	grid	The grid to be carved.
+     * @param	start	Not used by this algorithm.
+     * @param	rand	The random number generator used to join and carry down the sets.
+     */
+    @Override
+    public void generate(PackedGrid grid, int start, Random rand) {
+        EllerRows rows = new EllerRows(grid.getWidth(), grid.getHeight(), rand);
+
+        while (rows.hasNext()) {
+            MazeRow row = rows.next();
+            int first = grid.index(0, (int) row.getY());
+
+            for (int x = 0; x < grid.getWidth(); x++) {
+                grid.setFlag(first + x, PackedGrid.PART_OF_MAZE, true);
+
+                if (row.isEastPassage(x)) {
+                    grid.setPassage(first + x, PackedGrid.EAST, true);
+                }
+
+                if (row.isSouthPassage(x)) {
+                    grid.setPassage(first + x, PackedGrid.SOUTH, true);
+                }
+            }
+        }
+    }
+}
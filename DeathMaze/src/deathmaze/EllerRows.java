@@ -0,0 +1,195 @@
+package deathmaze;
+
+import java.util.Arrays;
+import java.util.Iterator;
+import java.util.NoSuchElementException;
+import java.util.Random;
+
+/**
+ * <h1>EllerRows</h1>
+ * This class generates the rows of a maze one at a time with Eller's algorithm. The rooms of the
+ * current row are labelled with the set of rooms they're connected to through the rows above.
+ * Adjacent rooms of different sets are randomly joined, then every set is carried down to the next
+ * row through at least one passage to the South. When the maze has a height the last row joins all
+ * the sets left, otherwise rows are generated forever. Only the current row is tracked, so the
+ * generator needs memory proportional to the width of the maze.
+ *
+ * @author Fred Erlenbusch
+ * @version 1.0
+ * @since 2026-10-17
+ */
+public class EllerRows implements Iterator<MazeRow> {
+
+    /**
+     * The number of rooms in a row.
+     */
+    private final int width;
+    /**
+     * The number of rows in the maze, or -1 if the maze has no end.
+     */
+    private final long height;
+    /**
+     * The random number generator used to join and carry down the sets.
+     */
+    private final Random rand;
+    /**
+     * The set of each room of the next row.
+     */
+    private final int[] sets;
+    /**
+     * The parent of each room of the current row in the union find of its sets.
+     */
+    private final int[] parents;
+    /**
+     * Scratch space for the first room and the size of each set.
+     */
+    private final int[] remaining;
+    /**
+     * Flags for the sets carried down to the next row.
+     */
+    private final boolean[] carried;
+    /**
+     * The y coordinate of the next row.
+     */
+    private long y;
+
+    /**
+     * The constructor for a maze that has no end.
+     *
+     * @param	width	The number of rooms in a row.
+     * @param	rand	The random number generator used to join and carry down the sets.
+     */
+    public EllerRows(int width, Random rand) {
+        this(width, -1, rand);
+    }
+
+    /**
+     * The constructor for this class.
+     *
+     * @param	width	The number of rooms in a row.
+     * @param	height	The number of rows in the maze, or -1 if the maze has no end.
+     * @param	rand	The random number generator used to join and carry down the sets.
+     */
+    public EllerRows(int width, long height, Random rand) {
+        this.width = width;
+        this.height = height;
+        this.rand = rand;
+        this.sets = new int[width];
+        this.parents = new int[width];
+        this.remaining = new int[width];
+        this.carried = new boolean[width];
+        this.y = 0;
+
+        for (int x = 0; x < width; x++) {
+            sets[x] = x;
+        }
+    }
+
+    /**
+     * @return	True if there are more rows in the maze.
+     */
+    @Override
+    public boolean hasNext() {
+        return height < 0 || y < height;
+    }
+
+    /**
+     * Generates the next row of the maze.
+     *
+     * @return	The next row.
+     */
+    @Override
+    public MazeRow next() {
+        if (!hasNext()) {
+            throw new NoSuchElementException();
+        }
+
+        MazeRow row = new MazeRow(y, width);
+        boolean last = y == height - 1;
+
+// Rooms of the same set start joined, each set is rooted at its first room
+        Arrays.fill(remaining, -1);
+
+        for (int x = 0; x < width; x++) {
+            if (remaining[sets[x]] == -1) {
+                remaining[sets[x]] = x;
+            }
+
+            parents[x] = remaining[sets[x]];
+        }
+
+        for (int x = 0; x < width - 1; x++) {
+            int a = find(x);
+            int b = find(x + 1);
+
+            if (a != b && (last || rand.nextBoolean())) {
+                row.openEast(x);
+                parents[Math.max(a, b)] = Math.min(a, b);
+            }
+        }
+
+        y++;
+
+        if (!last) {
+            carryDown(row);
+        }
+
+        return row;
+    }
+
+    /**
+     * Carries every set of the current row down at least once, the rooms not carried down start
+     * new sets.
+     *
+     * @param	row	The current row.
+     */
+    private void carryDown(MazeRow row) {
+        Arrays.fill(remaining, 0);
+        Arrays.fill(carried, false);
+
+        for (int x = 0; x < width; x++) {
+            remaining[find(x)]++;
+        }
+
+        for (int x = 0; x < width; x++) {
+            int root = find(x);
+            boolean lastOfSet = --remaining[root] == 0;
+
+            if (rand.nextBoolean() || (lastOfSet && !carried[root])) {
+                row.openSouth(x);
+                carried[root] = true;
+                sets[x] = root;
+            } else {
+                sets[x] = -1;
+            }
+        }
+
+        int free = 0;
+
+        for (int x = 0; x < width; x++) {
+            if (sets[x] == -1) {
+                while (carried[free]) {
+                    free++;
+                }
+
+                sets[x] = free;
+                carried[free] = true;
+            }
+        }
+    }
+
+    /**
+     * Finds the room at the root of a set of the current row.
+     *
+     * @param	x	The room in the row.
+     * @return	The root of the room's set.
+     */
+    private int find(int x) {
+        while (parents[x] != x) {
+            parents[x] = parents[parents[x]];
+            x = parents[x];
+        }
+
+        return x;
+    }
+}
@@ -0,0 +1,181 @@
+package deathmaze;
+
+import java.util.Arrays;
+
+/**
+ * <h1>FlowField</h1>
+ * This class is a breadth first search over the passages of a maze from one room, bounded to the
+ * rooms at most a given number of steps away. Every room reached points to its neighbour one step
+ * closer to the source, so any number of monsters chasing the player read their next room from one
+ * search per turn, in constant time each.
+ * <p>
+ * A search only reaches rooms within the square of the radius around the source, so the field is
+ * kept in arrays the size of that square, not the size of the maze, and a search costs time
+ * proportional to the square no matter how large the maze is.
+ *
+ * @author Fred Erlenbusch
+ * @version 1.0
+ * @since 2026-10-17
+ */
+public class FlowField {
+
+    /**
+     * The grid of the maze.
+     */
+    private final PackedGrid grid;
+    /**
+     * The maximum number of steps from the source.
+     */
+    private final int radius;
+    /**
+     * The number of rooms wide and tall of the square around the source.
+     */
+    private final int side;
+    /**
+     * The number of steps from the source to every room of the square, or -1 if it wasn't reached.
+     */
+    private final int[] distances;
+    /**
+     * The index of the room one step closer to the source for every room of the square.
+     */
+    private final int[] nextHops;
+    /**
+     * The queue of rooms of the search, as positions in the square.
+     */
+    private final int[] queue;
+    /**
+     * The source of the search.
+     */
+    private int source;
+    /**
+     * The x coordinate of the West side of the square.
+     */
+    private int left;
+    /**
+     * The y coordinate of the North side of the square.
+     */
+    private int top;
+
+    /**
+     * The constructor for this class. No room is reached until the field is computed.
+     *
+     * @param	grid	The grid of the maze.
+     * @param	radius	The maximum number of steps from the source.
+     */
+    public FlowField(PackedGrid grid, int radius) {
+        this.grid = grid;
+        this.radius = radius;
+        this.side = 2 * radius + 1;
+        this.distances = new int[side * side];
+        this.nextHops = new int[side * side];
+        this.queue = new int[side * side];
+        this.source = -1;
+
+        Arrays.fill(distances, -1);
+    }
+
+    /**
+     * Computes the field from a source room.
+     *
+     * @param	source	The index of the source room.
+     */
+    public void compute(int source) {
+        Arrays.fill(distances, -1);
+
+        this.source = source;
+        this.left = grid.getX(source) - radius;
+        this.top = grid.getY(source) - radius;
+
+        int head = 0;
+        int tail = 0;
+        int start = position(source);
+        distances[start] = 0;
+        nextHops[start] = source;
+        queue[tail++] = start;
+
+        while (head < tail) {
+            int position = queue[head++];
+            int room = grid.index(left + position % side, top + position / side);
+            int next = distances[position] + 1;
+
+            if (next > radius) {
+                continue;
+            }
+
+            for (int direction = PackedGrid.NORTH; direction <= PackedGrid.EAST; direction++) {
+                if (grid.isPassage(room, direction)) {
+                    int other = grid.neighbour(room, direction);
+                    int otherPosition = position(other);
+
+                    if (distances[otherPosition] < 0) {
+                        distances[otherPosition] = next;
+                        nextHops[otherPosition] = room;
+                        queue[tail++] = otherPosition;
+                    }
+                }
+            }
+        }
+    }
+
+    /**
+     * @param	room	The index of a room.
+     * @return	The number of steps from the source to the room, or -1 if it wasn't reached.
+     */
+    public int getDistance(int room) {
+        int position = position(room);
+        return position < 0 ? -1 : distances[position];
+    }
+
+    /**
+     * @param	room	The index of a room.
+     * @return	The index of the room one step closer to the source, the source itself for the
+     * source, or -1 if the room wasn't reached.
+     */
+    public int nextHop(int room) {
+        int position = position(room);
+        return position < 0 || distances[position] < 0 ? -1 : nextHops[position];
+    }
+
+    /**
+     * Determines if a room is in sight of the source: in the same row or column, with a straight
+     * line of passages between them. A path as short as the straight line between two rooms of a
+     * row or column can only be that line.
+     *
+     * @param	room	The index of a room.
+     * @return	True if the room was reached and is in sight of the source.
+     */
+    public boolean isInSight(int room) {
+        int dx = Math.abs(grid.getX(room) - grid.getX(source));
+        int dy = Math.abs(grid.getY(room) - grid.getY(source));
+        return (dx == 0 || dy == 0) && getDistance(room) == dx + dy;
+    }
+
+    /**
+     * Determines the position of a room in the square around the source.
+     *
+     * @param	room	The index of the room.
+     * @return	The position of the room, or -1 if it's outside the square.
+     */
+    private int position(int room) {
+        int x = grid.getX(room) - left;
+        int y = grid.getY(room) - top;
+        return x < 0 || y < 0 || x >= side || y >= side ? -1 : y * side + x;
+    }
+
+    /*
+* ------------------------- Getters and Setters -------------------------
+     */
+    /**
+     * @return the source
+     */
+    public int getSource() {
+        return source;
+    }
+
+    /**
+     * @return the radius
+     */
+    public int getRadius() {
+        return radius;
+    }
+}
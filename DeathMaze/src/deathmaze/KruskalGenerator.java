@@ -0,0 +1,71 @@
+package deathmaze;
+
+import java.util.Random;
+
+/**
+ * <h1>KruskalGenerator</h1>
+ * This class carves a maze with Kruskal's minimum spanning tree algorithm. The interior walls are
+ * shuffled, and each wall is opened if the rooms on its sides aren't connected yet, which is
+ * tracked with a union find over the rooms.
+ *
+ * @author Fred Erlenbusch
+ * @version 1.0
+ * @since 2026-10-17
+ */
+public class KruskalGenerator implements MazeGenerator {
+
+    /**
+     * @return	The name of the algorithm.
+     */
+    @Override
+    public String getName() {
+        return "Kruskal";
+    }
+
+    /**
+     * Carves the passages into the grid.
+     *
+     * @param	grid	The grid to be carved.
+     * @param	start	Not used by this algorithm.
+     * @param	rand	The random number generator used to shuffle the walls.
+     */
+    @Override
+    public void generate(PackedGrid grid, int start, Random rand) {
+        int width = grid.getWidth();
+        int height = grid.getHeight();
+        int[] walls = new int[(width - 1) * height + width * (height - 1)];
+        int cnt = 0;
+
+        for (int room = 0; room < grid.size(); room++) {
+            grid.setFlag(room, PackedGrid.PART_OF_MAZE, true);
+
+            if (grid.neighbour(room, PackedGrid.EAST) != -1) {
+                walls[cnt++] = WallFrontier.wallId(room, PackedGrid.EAST);
+            }
+
+            if (grid.neighbour(room, PackedGrid.SOUTH) != -1) {
+                walls[cnt++] = WallFrontier.wallId(room, PackedGrid.SOUTH);
+            }
+        }
+
+        for (int i = walls.length - 1; i > 0; i--) {
+            int j = rand.nextInt(i + 1);
+            int temp = walls[i];
+            walls[i] = walls[j];
+            walls[j] = temp;
+        }
+
+        UnionFind rooms = new UnionFind(grid.size());
+        int passages = 0;
+
+        for (int i = 0; i < walls.length && passages < grid.size() - 1; i++) {
+            int side1 = WallFrontier.room(walls[i]);
+            int direction = WallFrontier.direction(walls[i]);
+
+            if (rooms.union(side1, grid.neighbour(side1, direction))) {
+                grid.setPassage(side1, direction, true);
+                passages++;
+            }
+        }
+    }
+}
@@ -0,0 +1,259 @@
+package deathmaze;
+
+import java.util.Arrays;
+
+/**
+ * <h1>LineOfSightIndex</h1>
+ * This class finds the monsters that can see a room without looking at every monster. Characters
+ * see along the straight corridors of the maze, the maximal runs of passages in a row or a column,
+ * so a monster sees a room only if it's in the row or the column corridor of the room, within the
+ * visibility range.
+ * <p>
+ * The index keeps a list of the monsters in every room, linked through arrays indexed by the
+ * monsters' numbers. A query walks the rooms of the two corridors of the room up to the visibility
+ * range, as far as the corridors go, so it takes time proportional to the visibility range plus
+ * the number of monsters found, no matter how many monsters are in the corridors or in the maze.
+ * A step moves the monster between the lists of two rooms, in constant time.
+ * <p>
+ * The index can be forked with its maze. The first monsters of the rooms are kept in a
+ * PagedIntArray, so the index and its fork only copy the pages of the rooms they relink. The
+ * arrays indexed by the monsters are plain arrays, shared until either index relinks a monster:
+ * the first relink after a fork copies them whole, in time proportional to the number of monsters.
+ * A turn moves most of the monsters, so it takes that time anyway, and paging the arrays would
+ * slow down every turn of the games never forked.
+ *
+ * @author Fred Erlenbusch
+ * @version 1.0
+ * @since 2026-10-17
+ */
+public class LineOfSightIndex {
+
+    /**
+     * The grid of the maze.
+     */
+    private final PackedGrid grid;
+    /**
+     * The straight corridors of the maze.
+     */
+    private final CorridorIndex corridors;
+    /**
+     * The first monster of the list of every room, or -1 if there is none.
+     */
+    private final PagedIntArray heads;
+    /**
+     * The next monster in the list of the room of every monster, or -1.
+     */
+    private int[] nexts;
+    /**
+     * The previous monster in the list of the room of every monster, or -1.
+     */
+    private int[] previous;
+    /**
+     * The room of every monster.
+     */
+    private int[] rooms;
+    /**
+     * True if the arrays indexed by the monsters are shared with a fork.
+     */
+    private boolean shared;
+
+    /**
+     * The constructor for this class. There are no monsters in the index.
+     *
+     * @param	grid	The grid of a carved maze.
+     * @param	corridors	The straight corridors of the maze.
+     * @param	capacity	The number of monsters expected, the index grows if there are more.
+     */
+    public LineOfSightIndex(PackedGrid grid, CorridorIndex corridors, int capacity) {
+        this.grid = grid;
+        this.corridors = corridors;
+        this.heads = new PagedIntArray(grid.size(), -1);
+        this.nexts = new int[Math.max(1, capacity)];
+        this.previous = new int[Math.max(1, capacity)];
+        this.rooms = new int[Math.max(1, capacity)];
+    }
+
+    /**
+     * The constructor for a fork of an index.
+     *
+     * @param	index	The index forked.
+     * @param	grid	The grid of the fork of the maze.
+     */
+    private LineOfSightIndex(LineOfSightIndex index, PackedGrid grid) {
+        this.grid = grid;
+        this.corridors = index.corridors;
+        this.heads = index.heads.fork();
+        this.nexts = index.nexts;
+        this.previous = index.previous;
+        this.rooms = index.rooms;
+        this.shared = true;
+    }
+
+    /**
+     * Forks the index. Neither index sees the monsters moved in the other afterwards.
+     *
+     * @param	grid	The grid of the fork of the maze.
+     * @return	The fork.
+     */
+    public LineOfSightIndex fork(PackedGrid grid) {
+        shared = true;
+        return new LineOfSightIndex(this, grid);
+    }
+
+    /**
+     * Copies the arrays indexed by the monsters shared with a fork, so the index can change them.
+     */
+    private void unshare() {
+        nexts = nexts.clone();
+        previous = previous.clone();
+        rooms = rooms.clone();
+        shared = false;
+    }
+
+    /**
+     * Adds a monster to a room.
+     *
+     * @param	mob	The number of the monster.
+     * @param	room	The index of the room.
+     */
+    public void add(int mob, int room) {
+        if (shared) {
+            unshare();
+        }
+
+        if (mob >= rooms.length) {
+            int capacity = (int) Math.max(mob + 1, Math.min(Integer.MAX_VALUE - 8, rooms.length * 2L));
+
+            nexts = Arrays.copyOf(nexts, capacity);
+            previous = Arrays.copyOf(previous, capacity);
+            rooms = Arrays.copyOf(rooms, capacity);
+        }
+
+        link(room, mob);
+    }
+
+    /**
+     * Removes a monster from the index.
+     *
+     * @param	mob	The number of the monster.
+     */
+    public void remove(int mob) {
+        if (shared) {
+            unshare();
+        }
+
+        unlink(mob);
+    }
+
+    /**
+     * Moves a monster to another room.
+     *
+     * @param	mob	The number of the monster.
+     * @param	room	The index of the room the monster enters.
+     */
+    public void move(int mob, int room) {
+        if (shared) {
+            unshare();
+        }
+
+        if (room != rooms[mob]) {
+            unlink(mob);
+            link(room, mob);
+        }
+    }
+
+    /**
+     * Lists the monsters that can see a room, including the monsters in the room.
+     *
+     * @param	room	The index of the room.
+     * @param	visRange	How far a character can see.
+     * @param	mobs	The array the numbers of the monsters are written to, long enough for all
+     * the monsters found.
+     * @return	The number of monsters found.
+     */
+    public int getMobsInSight(int room, int visRange, int[] mobs) {
+        int cnt = collect(room, mobs, 0);
+
+        for (int direction = PackedGrid.NORTH; direction <= PackedGrid.EAST; direction++) {
+            int length = Math.min(visRange, corridors.getRun(room, direction));
+            int seen = room;
+
+            for (int i = 0; i < length; i++) {
+                seen = grid.neighbour(seen, direction);
+                cnt = collect(seen, mobs, cnt);
+            }
+        }
+
+        return cnt;
+    }
+
+    /**
+     * @param	mob	The number of a monster.
+     * @return	The index of the room of the monster.
+     */
+    public int getRoom(int mob) {
+        return rooms[mob];
+    }
+
+    /**
+     * Writes the monsters in a room after the monsters already found.
+     *
+     * @param	room	The index of the room.
+     * @param	mobs	The array the numbers of the monsters are written to.
+     * @param	cnt	The number of monsters already found.
+     * @return	The number of monsters found, with the monsters of the room.
+     */
+    private int collect(int room, int[] mobs, int cnt) {
+        for (int mob = heads.get(room); mob >= 0; mob = nexts[mob]) {
+            mobs[cnt++] = mob;
+        }
+
+        return cnt;
+    }
+
+    /**
+     * Adds a monster at the head of the list of a room.
+     *
+     * @param	room	The index of the room.
+     * @param	mob	The number of the monster.
+     */
+    private void link(int room, int mob) {
+        int head = heads.getAndSet(room, mob);
+
+        rooms[mob] = room;
+        nexts[mob] = head;
+        previous[mob] = -1;
+
+        if (head >= 0) {
+            previous[head] = mob;
+        }
+    }
+
+    /**
+     * Removes a monster from the list of its room.
+     *
+     * @param	mob	The number of the monster.
+     */
+    private void unlink(int mob) {
+        int next = nexts[mob];
+        int prev = previous[mob];
+
+        if (prev >= 0) {
+            nexts[prev] = next;
+        } else {
+            heads.set(rooms[mob], next);
+        }
+
+        if (next >= 0) {
+            previous[next] = prev;
+        }
+    }
+
+    /**
+     * @return	The number of pages of the first monsters of the rooms owned by the index,
+     * written since it was created or last forked.
+     */
+    int getOwnedPages() {
+        return heads.getOwnedPages();
+    }
+}
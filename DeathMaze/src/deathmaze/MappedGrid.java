@@ -0,0 +1,471 @@
+package deathmaze;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.Random;
+
+/**
+ * <h1>MappedGrid</h1>
+ * This class is a PackedGrid kept in a memory mapped file instead of the heap, for mazes too large
+ * for the heap such as 50000x50000. The file holds a small header followed by the passage bits (two
+ * bits per room, for the passages to the East and to the South) and the flags (one byte per room),
+ * laid out like a PackedGrid but addressed with long indices.
+ * <p>
+ * Generation, neighbour queries, and visibility all read and write the mapped file directly, and
+ * opening an existing file only reads its header, so nothing is ever copied into or deserialized
+ * on the heap.
+ *
+ * @author Fred Erlenbusch
+ * @version 1.0
+ * @since 2026-10-17
+ */
+public class MappedGrid implements Closeable {
+
+    /**
+     * The magic number at the start of a mapped grid's file.
+     */
+    private static final int MAGIC = 0x444d4d47;
+    /**
+     * The version of the file format.
+     */
+    private static final int VERSION = 1;
+    /**
+     * The size of the file's header in bytes.
+     */
+    private static final int HEADER_SIZE = 16;
+    /**
+     * The default log2 of the size of the mapped segments of the file, the size of a mapping is
+     * limited to 2GB.
+     */
+    private static final int SEGMENT_BITS = 30;
+
+    /**
+     * The number of rooms wide of the grid.
+     */
+    private final int width;
+    /**
+     * The number of rooms tall of the grid.
+     */
+    private final int height;
+    /**
+     * The number of rooms in the grid.
+     */
+    private final long size;
+    /**
+     * The position in the file of the flags.
+     */
+    private final long flagsOffset;
+    /**
+     * The log2 of the size of the mapped segments.
+     */
+    private final int segmentBits;
+    /**
+     * The mapped segments of the file.
+     */
+    private final MappedByteBuffer[] segments;
+    /**
+     * The channel of the file.
+     */
+    private final FileChannel channel;
+
+    /**
+     * The constructor for this class.
+     *
+     * @param	channel	The channel of the file.
+     * @param	width	The number of rooms wide of the grid.
+     * @param	height	The number of rooms tall of the grid.
+     * @param	segmentBits	The log2 of the size of the mapped segments.
+     * @throws	IOException	If the file can't be mapped.
+     */
+    private MappedGrid(FileChannel channel, int width, int height, int segmentBits) throws IOException {
+        this.channel = channel;
+        this.width = width;
+        this.height = height;
+        this.size = (long) width * height;
+        this.flagsOffset = HEADER_SIZE + ((size * 2 + 63) >>> 6) * 8;
+        this.segmentBits = segmentBits;
+
+        long length = fileLength(width, height);
+        long segmentSize = 1L << segmentBits;
+        this.segments = new MappedByteBuffer[(int) ((length + segmentSize - 1) >>> segmentBits)];
+
+        for (int i = 0; i < segments.length; i++) {
+            long position = (long) i << segmentBits;
+            segments[i] = channel.map(FileChannel.MapMode.READ_WRITE, position, Math.min(segmentSize, length - position));
+        }
+    }
+
+    /**
+     * Determines the length of the file of a grid: the header, the passage bits, and the flags.
+     *
+     * @param	width	The number of rooms wide of the grid.
+     * @param	height	The number of rooms tall of the grid.
+     * @return	The length of the file in bytes.
+     */
+    private static long fileLength(int width, int height) {
+        long size = (long) width * height;
+        return HEADER_SIZE + ((size * 2 + 63) >>> 6) * 8 + size;
+    }
+
+    /**
+     * Creates a new file holding a grid with all its walls closed and no flags set. An existing
+     * file is overwritten.
+     *
+     * @param	path	The path of the file.
+     * @param	width	The number of rooms wide of the grid.
+     * @param	height	The number of rooms tall of the grid.
+     * @return	The grid mapped from the file.
+     * @throws	IOException	If the file can't be created.
+     */
+    public static MappedGrid create(Path path, int width, int height) throws IOException {
+        return create(path, width, height, SEGMENT_BITS);
+    }
+
+    /**
+     * Creates a new file holding a grid, mapped in segments of the given size.
+     *
+     * @param	path	The path of the file.
+     * @param	width	The number of rooms wide of the grid.
+     * @param	height	The number of rooms tall of the grid.
+     * @param	segmentBits	The log2 of the size of the mapped segments.
+     * @return	The grid mapped from the file.
+     * @throws	IOException	If the file can't be created or mapped, the file is then closed.
+     */
+    static MappedGrid create(Path path, int width, int height, int segmentBits) throws IOException {
+        if (width < 1 || height < 1) {
+            throw new IllegalArgumentException("Invalid grid size: " + width + "x" + height);
+        }
+
+        FileChannel channel = FileChannel.open(path, StandardOpenOption.CREATE, StandardOpenOption.TRUNCATE_EXISTING,
+                StandardOpenOption.READ, StandardOpenOption.WRITE);
+
+        try {
+            ByteBuffer header = ByteBuffer.allocate(HEADER_SIZE);
+
+            header.putInt(MAGIC).putInt(VERSION).putInt(width).putInt(height).flip();
+            channel.write(header, 0);
+
+            return new MappedGrid(channel, width, height, segmentBits);
+        } catch (IOException | RuntimeException e) {
+            channel.close();
+            throw e;
+        }
+    }
+
+    /**
+     * Opens an existing file holding a grid. Only the header is read, the rest of the file is
+     * mapped.
+     *
+     * @param	path	The path of the file.
+     * @return	The grid mapped from the file.
+     * @throws	IOException	If the file can't be read or isn't a mapped grid.
+     */
+    public static MappedGrid open(Path path) throws IOException {
+        return open(path, SEGMENT_BITS);
+    }
+
+    /**
+     * Opens an existing file holding a grid, mapped in segments of the given size. The size of the
+     * grid in the header is checked against the length of the file before anything is mapped, so
+     * a truncated or corrupt file is rejected rather than grown to the length the header claims.
+     *
+     * @param	path	The path of the file.
+     * @param	segmentBits	The log2 of the size of the mapped segments.
+     * @return	The grid mapped from the file.
+     * @throws	IOException	If the file can't be read or isn't a mapped grid.
+     */
+    static MappedGrid open(Path path, int segmentBits) throws IOException {
+        FileChannel channel = FileChannel.open(path, StandardOpenOption.READ, StandardOpenOption.WRITE);
+
+        try {
+            ByteBuffer header = ByteBuffer.allocate(HEADER_SIZE);
+
+            channel.read(header, 0);
+            header.flip();
+
+            if (header.remaining() < HEADER_SIZE || header.getInt() != MAGIC || header.getInt() != VERSION) {
+                throw new IOException("Not a mapped grid: " + path);
+            }
+
+            int width = header.getInt();
+            int height = header.getInt();
+
+            if (width < 1 || height < 1) {
+                throw new IOException("Invalid mapped grid size " + width + "x" + height + ": " + path);
+            } else if (channel.size() != fileLength(width, height)) {
+                throw new IOException("Corrupt mapped grid, " + channel.size() + " bytes instead of "
+                        + fileLength(width, height) + ": " + path);
+            }
+
+            return new MappedGrid(channel, width, height, segmentBits);
+        } catch (IOException | RuntimeException e) {
+            channel.close();
+            throw e;
+        }
+    }
+
+    /**
+     * Carves the passages into the grid with Eller's algorithm, writing each row into the file as
+     * it's generated, so only memory proportional to the width of the grid is used.
+     *
+     * @param	rand	The random number generator used to join and carry down the sets.
+     */
+    public void generate(Random rand) {
+        EllerRows rows = new EllerRows(width, height, rand);
+
+        while (rows.hasNext()) {
+            MazeRow row = rows.next();
+            long first = index(0, (int) row.getY());
+
+            for (int x = 0; x < width; x++) {
+                setFlag(first + x, PackedGrid.PART_OF_MAZE, true);
+
+                if (row.isEastPassage(x)) {
+                    setPassage(first + x, PackedGrid.EAST, true);
+                }
+
+                if (row.isSouthPassage(x)) {
+                    setPassage(first + x, PackedGrid.SOUTH, true);
+                }
+            }
+        }
+    }
+
+    /**
+     * Determines the index of a room from its coordinates.
+     *
+     * @param	x	The x coordinate of the room.
+     * @param	y	The y coordinate of the room.
+     * @return	The index of the room.
+     */
+    public long index(int x, int y) {
+        return (long) y * width + x;
+    }
+
+    /**
+     * @param	index	The index of a room.
+     * @return	The x coordinate of the room.
+     */
+    public int getX(long index) {
+        return (int) (index % width);
+    }
+
+    /**
+     * @param	index	The index of a room.
+     * @return	The y coordinate of the room.
+     */
+    public int getY(long index) {
+        return (int) (index / width);
+    }
+
+    /**
+     * Determines the index of the room next to a given room.
+     *
+     * @param	index	The index of the room.
+     * @param	direction	The direction of the neighbour.
+     * @return	The index of the neighbour, or -1 if the room is on the border of the grid.
+     */
+    public long neighbour(long index, int direction) {
+        switch (direction) {
+            case PackedGrid.NORTH:
+                return index >= width ? index - width : -1;
+            case PackedGrid.WEST:
+                return index % width != 0 ? index - 1 : -1;
+            case PackedGrid.SOUTH:
+                return index < size - width ? index + width : -1;
+            case PackedGrid.EAST:
+                return index % width != width - 1 ? index + 1 : -1;
+            default:
+                throw new IllegalArgumentException("Invalid direction: " + direction);
+        }
+    }
+
+    /**
+     * Determines if the wall of a room in a given direction is a passage.
+     *
+     * @param	index	The index of the room.
+     * @param	direction	The direction of the wall.
+     * @return	True if the wall is a passage.
+     */
+    public boolean isPassage(long index, int direction) {
+        long bit = passageBit(index, direction);
+        return bit >= 0 && (getByte(HEADER_SIZE + (bit >>> 3)) & (1 << (bit & 7))) != 0;
+    }
+
+    /**
+     * Opens or closes the wall of a room in a given direction. Walls on the border of the grid can
+     * not be opened.
+     *
+     * @param	index	The index of the room.
+     * @param	direction	The direction of the wall.
+     * @param	passage	True to open the wall, false to close it.
+     */
+    public void setPassage(long index, int direction, boolean passage) {
+        long bit = passageBit(index, direction);
+
+        if (bit < 0) {
+            if (passage) {
+                throw new IllegalArgumentException("Can't open a border wall");
+            }
+        } else {
+            long position = HEADER_SIZE + (bit >>> 3);
+            int mask = 1 << (bit & 7);
+            int value = getByte(position);
+            putByte(position, passage ? value | mask : value & ~mask);
+        }
+    }
+
+    /**
+     * Determines the bit holding the passage of a room's wall.
+     *
+     * @param	index	The index of the room.
+     * @param	direction	The direction of the wall.
+     * @return	The bit of the wall in the passage bits, or -1 if it's a border wall.
+     */
+    private long passageBit(long index, int direction) {
+        long other = neighbour(index, direction);
+
+        if (other == -1) {
+            return -1;
+        } else if (direction == PackedGrid.NORTH || direction == PackedGrid.WEST) {
+            return (other << 1) + (direction == PackedGrid.NORTH ? 1 : 0);
+        } else {
+            return (index << 1) + (direction == PackedGrid.SOUTH ? 1 : 0);
+        }
+    }
+
+    /**
+     * @param	index	The index of a room.
+     * @param	flag	The flag to be tested.
+     * @return	True if the flag is set for the room.
+     */
+    public boolean hasFlag(long index, int flag) {
+        return (getByte(flagsOffset + index) & flag) != 0;
+    }
+
+    /**
+     * @param	index	The index of a room.
+     * @param	flag	The flag to be set or cleared.
+     * @param	value	True to set the flag, false to clear it.
+     */
+    public void setFlag(long index, int flag, boolean value) {
+        int flags = getByte(flagsOffset + index);
+        putByte(flagsOffset + index, value ? flags | flag : flags & ~flag);
+    }
+
+    /**
+     * Lists the rooms a character can move to from a given room.
+     *
+     * @param	index	The index of the room.
+     * @param	rooms	The array the indices of the adjacent rooms are written to, of length 4 or
+     * more.
+     * @return	The number of adjacent rooms.
+     */
+    public int getAdjRooms(long index, long[] rooms) {
+        int cnt = 0;
+
+        for (int direction = PackedGrid.NORTH; direction <= PackedGrid.EAST; direction++) {
+            if (isPassage(index, direction)) {
+                rooms[cnt++] = neighbour(index, direction);
+            }
+        }
+
+        return cnt;
+    }
+
+    /**
+     * Lists the rooms visible from a given room, in a straight line in each direction up to the
+     * visibility range.
+     *
+     * @param	index	The index of the room.
+     * @param	visRange	How far a character can see.
+     * @param	rooms	The array the indices of the visible rooms are written to, of length
+     * <code>4 * visRange + 1</code> or more.
+     * @return	The number of visible rooms, including the given room.
+     */
+    public int getVisibleRooms(long index, int visRange, long[] rooms) {
+        int cnt = 0;
+
+        rooms[cnt++] = index;
+
+        for (int direction = PackedGrid.NORTH; direction <= PackedGrid.EAST; direction++) {
+            long current = index;
+
+            for (int i = 0; i < visRange && isPassage(current, direction); i++) {
+                current = neighbour(current, direction);
+                rooms[cnt++] = current;
+            }
+        }
+
+        return cnt;
+    }
+
+    /**
+     * Reads a byte of the file.
+     *
+     * @param	position	The position of the byte in the file.
+     * @return	The byte.
+     */
+    private int getByte(long position) {
+        return segments[(int) (position >>> segmentBits)].get((int) (position & ((1L << segmentBits) - 1)));
+    }
+
+    /**
+     * Writes a byte of the file.
+     *
+     * @param	position	The position of the byte in the file.
+     * @param	value	The byte.
+     */
+    private void putByte(long position, int value) {
+        segments[(int) (position >>> segmentBits)].put((int) (position & ((1L << segmentBits) - 1)), (byte) value);
+    }
+
+    /**
+     * Writes the changes made to the grid to the file.
+     */
+    public void force() {
+        for (MappedByteBuffer segment : segments) {
+            segment.force();
+        }
+    }
+
+    /**
+     * Writes the changes made to the grid to the file and closes it.
+     *
+     * @throws	IOException	If the file can't be closed.
+     */
+    @Override
+    public void close() throws IOException {
+        force();
+        channel.close();
+    }
+
+    /*
+* ------------------------- Getters and Setters -------------------------
+     */
+    /**
+     * @return the width
+     */
+    public int getWidth() {
+        return width;
+    }
+
+    /**
+     * @return the height
+     */
+    public int getHeight() {
+        return height;
+    }
+
+    /**
+     * @return the number of rooms
+     */
+    public long size() {
+        return size;
+    }
+}
@@ -1,5 +1,7 @@
 package deathmaze;
 
+import java.io.IOException;
+import java.nio.file.Path;
 import java.util.ArrayList;
 import java.util.List;
 import java.util.Random;
@@ -7,7 +9,8 @@ import java.util.Random;
 /**
  * <h1>Maze</h1>
  * This Class organizes the graph based maze composed of Cells (nodes) and Walls (edges), and keeps
- * track of the appropriate values for the logic of the Death Maze game.
+ * track of the appropriate values for the logic of the Death Maze game. The rooms and walls are
+ * stored in a PackedGrid, and the Cells and Walls handed out by the maze are views of it.
  *
  * @author Fred Erlenbusch
  * @version 1.0
@@ -15,6 +18,17 @@ import java.util.Random;
  */
 public class Maze {
 
+    /**
+     * The percentile of the lengths of the paths from the player the path to the exit is at least
+     * as long as.
+     */
+    private static final double EXIT_PERCENTILE = 0.75;
+    /**
+     * The percentile of the lengths of the paths from the exit the path to the key is at least as
+     * long as.
+     */
+    private static final double KEY_PERCENTILE = 0.5;
+
     /**
      * The width of the game. The number of rooms wide in the maze.
      */
@@ -40,13 +54,59 @@ public class Maze {
      */
     private Cell exit;
     /**
-     * The grid (graph) of the rooms in the maze.
+     * The packed grid holding the rooms, walls, and flags of the maze.
+     */
+    private PackedGrid packedGrid;
+    /**
+     * What occupies every room of the maze: the player, the monsters, the key, and the exit.
+     */
+    private Occupancy occupancy;
+    /**
+     * The flow field from the player's room used by the monsters to chase the player.
+     */
+    private FlowField flowField;
+    /**
+     * The index of the paths of the maze. Only built when it's requested.
+     */
+    private TreeIndex treeIndex;
+    /**
+     * The lengths of the straight corridors of the maze. Only built when it's requested.
+     */
+    private CorridorIndex corridorIndex;
+    /**
+     * The buffer the rooms visible from a room are listed into.
+     */
+    private int[] visibleBuffer;
+    /**
+     * The rooms the player saw for the first time in the last turn, the fog of war lifted by the
+     * turn.
+     */
+    private int[] revealed;
+    /**
+     * The number of rooms revealed in the last turn.
+     */
+    private int revealedCount;
+    /**
+     * The events of the last turn.
+     */
+    private TurnEvents events;
+    /**
+     * The index of the monsters in the straight corridors of the maze. Only built when it's
+     * requested, and dropped when the monsters are replaced.
+     */
+    private LineOfSightIndex lineOfSightIndex;
+    /**
+     * The buffer the monsters that see the player are listed into.
+     */
+    private int[] sightBuffer;
+    /**
+     * The grid (graph) of views of the rooms in the maze. Only built when it's requested.
      */
     private Cell[][] grid;
     /**
-     * A list of all the monsters in the maze.
+     * All the monsters in the maze.
      */
-    private List<Cell> mobs;
+    private MobHorde horde;
     /**
      * A flag for is the player is alive.
      */
@@ -56,16 +116,33 @@ public class Maze {
      */
     private Boolean escaped;
     /**
-     * The Random number generator used by the maze.
+     * The seed of the random number generators used by the maze. Two mazes built with the same
+     * seed and settings, and played with the same moves, are identical.
+     */
+    private long seed;
+    /**
+     * The random number generator used to place the player, the monsters, the exit, and the key.
+     */
+    private Random placeRand;
+    /**
+     * The random number generator used to move the monsters.
      */
-    private Random rand;
+    private MazeRandom mobRand;
     /**
      * The message picked up by the UI to output to the user.
      */
     private String msg;
+    /**
+     * The algorithm used to carve the passages of the maze.
+     */
+    private MazeGenerator generator;
+    /**
+     * The log recording the moves of the game, or null if the game isn't recorded.
+     */
+    private ReplayLog replayLog;
 
     /**
-     * Constructor for the Maze.
+     * Constructor for the Maze. The passages are carved with Prim's MST algorithm.
      *
      * @param	width	# of rooms width wise
      * @param height # of rooms height wise
@@ -74,259 +151,356 @@ public class Maze {
      *
      */
     public Maze(int width, int height, int mobCnt, int visRange) {
+        this(width, height, mobCnt, visRange, new PrimGenerator());
+    }
+
+    /**
+     * Constructor for the Maze.
+     *
+     * @param	width	# of rooms width wise
+     * @param height # of rooms height wise
+     * @param mobCnt	# of monsters in the maze
+     * @param	visRange	How far character's can see from their current location
+     * @param	generator	The algorithm used to carve the passages of the maze
+     *
+     */
+    public Maze(int width, int height, int mobCnt, int visRange, MazeGenerator generator) {
+        this(width, height, mobCnt, visRange, generator, new Random().nextLong());
+    }
+
+    /**
+     * Constructor for the Maze.
+     * <p>
+     * The seed feeds three separate streams of random numbers: one to carve the passages, one to
+     * place the characters, the exit, and the key, and one to move the monsters. Changing how one
+     * of them is used doesn't change the others.
+     *
+     * @param	width	# of rooms width wise
+     * @param height # of rooms height wise
+     * @param mobCnt	# of monsters in the maze
+     * @param	visRange	How far character's can see from their current location
+     * @param	generator	The algorithm used to carve the passages of the maze
+     * @param	seed	The seed of the random number generators used by the maze
+     * @throws	IllegalArgumentException	If there are more monsters than getMaxMobs allows
+     *
+     */
+    public Maze(int width, int height, int mobCnt, int visRange, MazeGenerator generator, long seed) {
+        this(width, height, mobCnt, visRange, generator, seed, null);
+    }
+
+    /**
+     * Constructor for the Maze that can skip carving the passages. A grid already carved by the
+     * generator from the same seed, e.g. one read from a MazeCache, makes exactly the same maze as
+     * carving it again.
+     *
+     * @param	width	# of rooms width wise
+     * @param height # of rooms height wise
+     * @param mobCnt	# of monsters in the maze
+     * @param	visRange	How far character's can see from their current location
+     * @param	generator	The algorithm used to carve the passages of the maze
+     * @param	seed	The seed of the random number generators used by the maze
+     * @param	carved	The grid carved by the generator from the seed, or null to carve it
+     * @throws	IllegalArgumentException	If there are more monsters than getMaxMobs allows
+     *
+     * @see	MazeCache
+     */
+    Maze(int width, int height, int mobCnt, int visRange, MazeGenerator generator, long seed, PackedGrid carved) {
+        if (mobCnt < 0 || mobCnt > getMaxMobs(width, height)) {
+            throw new IllegalArgumentException("No room for the player, the exit, the key, and " + mobCnt
+                    + " monsters in a " + width + "x" + height + " maze");
+        }
+
+        MazeRandom rand = new MazeRandom(seed);
+        MazeRandom carveRand = rand.split();
+
         this.width = width;
         this.height = height;
         this.visRange = visRange;
-        this.rand = new Random();
-        this.grid = new Cell[width][height];
-        this.mobs = new ArrayList<>();
+        this.seed = seed;
+        this.placeRand = rand.split();
+        this.mobRand = rand.split();
+        this.packedGrid = carved != null ? carved : new PackedGrid(width, height);
+        this.occupancy = new Occupancy(packedGrid.size());
+        this.flowField = new FlowField(packedGrid, visRange);
+        this.visibleBuffer = new int[4 * visRange + 1];
+        this.revealed = new int[4 * visRange + 1];
+        this.events = new TurnEvents(mobCnt + 4 * visRange + 4);
+        this.horde = new MobHorde(packedGrid, mobCnt);
         this.alive = true;
         this.escaped = false;
         this.msg = "";
+        this.generator = generator;
 
-        initMaze();
+        this.player = getCell(placeRand.nextInt(width), placeRand.nextInt(height));
 
-        this.player = grid[rand.nextInt(width)][rand.nextInt(height)];
+        if (carved == null) {
+            carvePassages(carveRand);
+        }
 
-        carvePassages();
-        initMobs(mobCnt);
-        initExit();
-        initKey();
+        int start = packedGrid.index(player.getX(), player.getY());
+        occupancy.set(start, Occupancy.PLAYER, true);
+
+        Placement placement = new Placement(packedGrid, placeRand);
+        DistanceField field = new DistanceField(packedGrid, start);
+        placement.take(start);
+        Placement.CandidateSet far = placement.candidates(room -> field.getDistance(room) > visRange);
+        initExit(placement, field);
+        field.compute(packedGrid.index(exit.getX(), exit.getY()));
+        initKey(placement, field);
+        initMobs(placement, far, mobCnt);
         markVisibleRooms();
     }
 
     /**
-     * Initialize the maze.
-     * <p>
-     * Generates the maze's walls and rooms where the rooms are nodes and the walls are edges.
+     * Constructor for a Maze restored from a snapshot. The rooms and walls are read into the packed
+     * grid, and the characters, exit, and key are set, by the snapshot.
+     *
+     * @param	packedGrid	The packed grid of the maze
+     * @param	visRange	How far character's can see from their current location
+     * @param	seed	The seed the maze was built from
+     * @param	mobRand	The random number generator used to move the monsters
+     *
+     * @see	MazeSnapshot
      */
-    private void initMaze() {
-
-// Generate all cells
-        for (int y = 0; y < height; y++) {
-            for (int x = 0; x < width; x++) {
-                grid[x][y] = new Cell(x, y);
-            }
-        }
-
-// Generate walls and link them to appropriate cells
-        for (int y = 0; y < height; y++) {
-            for (int x = 0; x < width; x++) {
-                Cell cell = grid[x][y];
-
-                initNorth(cell, x, y);
-                initWest(cell, x, y);
-                initSouth(cell, x, y);
-                initEast(cell, x, y);
-            }
-        }
+    Maze(PackedGrid packedGrid, int visRange, long seed, MazeRandom mobRand) {
+        this.width = packedGrid.getWidth();
+        this.height = packedGrid.getHeight();
+        this.visRange = visRange;
+        this.seed = seed;
+        this.mobRand = mobRand;
+        this.packedGrid = packedGrid;
+        this.occupancy = new Occupancy(packedGrid.size());
+        this.flowField = new FlowField(packedGrid, visRange);
+        this.visibleBuffer = new int[4 * visRange + 1];
+        this.revealed = new int[4 * visRange + 1];
+        this.events = new TurnEvents(4 * visRange + 4);
+        this.horde = new MobHorde(packedGrid, 0);
+        this.alive = true;
+        this.escaped = false;
+        this.msg = "";
+        this.generator = null;
     }
 
     /**
-     * Initialize a cell's North wall and link it to appropriate adjacent cell.
+     * Constructor for a fork of a Maze. The passages and the indexes built from them are shared
+     * with the parent, and the fog, the occupancy, and the monsters are forked from the parent's,
+     * so only the pages the two games change after the fork are copied, and the links of the
+     * monsters in the line of sight index on the first turn.
      *
-     * @param	cell	The cell to initialize the North Wall to.
-     * @param	x	The x coordinate on the grid of the cell.
-     * @param	y	The y coordinate on the grid of the cell.
+     * @param	parent	The maze forked
      */
-    private void initNorth(Cell cell, int x, int y) {
-        if (cell.getNorth() == null) {
-            cell.setNorth(new Wall(cell));
+    private Maze(Maze parent) {
+        this.width = parent.width;
+        this.height = parent.height;
+        this.visRange = parent.visRange;
+        this.seed = parent.seed;
+        this.mobRand = new MazeRandom(parent.mobRand.getState(), parent.mobRand.getGamma());
+        this.packedGrid = parent.packedGrid.fork();
+        this.occupancy = parent.occupancy.fork();
+        this.flowField = new FlowField(packedGrid, visRange);
+        this.treeIndex = parent.treeIndex;
+        this.corridorIndex = parent.getCorridorIndex();
+        this.visibleBuffer = new int[4 * visRange + 1];
+        this.revealed = new int[4 * visRange + 1];
+        this.events = new TurnEvents(parent.horde.size() + 4 * visRange + 4);
+        this.horde = parent.horde.fork(packedGrid);
+        this.lineOfSightIndex = parent.getLineOfSightIndex().fork(packedGrid);
+        this.sightBuffer = new int[parent.sightBuffer.length];
+        this.alive = parent.alive;
+        this.escaped = parent.escaped;
+        this.msg = "";
+        this.generator = parent.generator;
 
-            if (y > 0 && grid[x][y - 1].getSouth() == null) {
-                grid[x][y - 1].setSouth(cell.getNorth());
-                cell.getNorth().setSide2(grid[x][y - 1]);
-            }
-        }
+        this.player = getCell(parent.player.getX(), parent.player.getY());
+        this.exit = getCell(parent.exit.getX(), parent.exit.getY());
+        this.key = parent.key.getX() < 0 ? new Cell(-1, -1) : getCell(parent.key.getX(), parent.key.getY());
     }
 
     /**
-     * Initialize a cell's West wall and link it to appropriate adjacent cell.
+     * Forks the game, e.g. for a search to try moves ahead of the player. The fork is in the same
+     * state as this game, and the two then play on independently: the moves played in one are
+     * never seen by the other. Forking takes time proportional to the number of pages of the state
+     * rather than to the size of the maze, and the games then copy the pages as they change them.
+     * The first turn of each game after the fork also copies the links of the monsters in the line
+     * of sight index, in time proportional to the number of monsters, as the turn moves them all.
+     * <p>
+     * Forking must not run while this game is played on another thread, but the game and its forks
+     * can then be played on different threads. The fork isn't recorded by the replay log of this
+     * game, and starts with no events or revealed rooms until its first move.
      *
-     * @param	cell	The cell to initialize the West Wall to.
-     * @param	x	The x coordinate on the grid of the cell.
-     * @param	y	The y coordinate on the grid of the cell.
+     * @return	The fork of the game
      */
-    private void initWest(Cell cell, int x, int y) {
-        if (cell.getWest() == null) {
-            cell.setWest(new Wall(cell));
-
-            if (x != 0 && grid[x - 1][y].getEast() == null) {
-                grid[x - 1][y].setEast(cell.getWest());
-                cell.getWest().setSide2(grid[x - 1][y]);
-            }
-        }
+    public Maze fork() {
+        return new Maze(this);
     }
 
     /**
-     * Initialize a cell's South wall and link it to appropriate adjacent cell.
+     * Saves the state of the game to a file, in the binary format of MazeSnapshot.
      *
-     * @param cell The cell to initialize the South Wall to.
-     * @param x The x coordinate on the grid of the cell.
-     * @param	y The y coordinate on the grid of the cell.
+     * @param	path	The path of the file.
+     * @throws	IOException	If the file can't be written.
      */
-    private void initSouth(Cell cell, int x, int y) {
-        if (cell.getSouth() == null) {
-            cell.setSouth(new Wall(cell));
-
-            if (y < height - 1 && grid[x][y + 1].getNorth() == null) {
-                grid[x][y + 1].setNorth(cell.getSouth());
-                cell.getSouth().setSide2(grid[x][y + 1]);
-            }
-        }
+    public void save(Path path) throws IOException {
+        MazeSnapshot.save(this, path);
     }
 
     /**
-     * Initialize a cell's East wall and link it to appropriate adjacent cell.
+     * Loads a game saved to a file. The generator of a loaded maze isn't known, and is null.
      *
-     * @param cell The cell to initialize the East Wall to.
-     * @param x The x coordinate on the grid of the cell.
-     * @param y The y coordinate on the grid of the cell.
+     * @param	path	The path of the file.
+     * @return	The loaded maze.
+     * @throws	IOException	If the file can't be read or isn't a saved game.
      */
-    private void initEast(Cell cell, int x, int y) {
-        if (cell.getEast() == null) {
-            cell.setEast(new Wall(cell));
-
-            if (x < width - 1 && grid[x + 1][y].getWest() == null) {
-                grid[x + 1][y].setWest(cell.getEast());
-                cell.getEast().setSide2(grid[x + 1][y]);
-            }
-        }
+    public static Maze load(Path path) throws IOException {
+        return MazeSnapshot.load(path);
     }
 
     /**
-     * Carves the passages into the maze.
-     * <p>
-     * Uses Prim's minimum spanning tree algorithm to generate the maze.
-     */
-    private void carvePassages() {
-        List<Wall> walls = new ArrayList<>();
-        player.setPartOfMaze(true);
-        player.setValue("P");
-        player.setVisited(true);
-
-        walls.addAll(player.getValidWalls());
-
-        while (!walls.isEmpty()) {
-            Wall current = walls.get(rand.nextInt(walls.size()));
-
-            if (current.getSide1() != null && !current.getSide1().isPartOfMaze()) {
-                current.setPassage(true);
-                current.getSide1().setPartOfMaze(true);
-                walls.addAll(current.getSide1().getValidWalls());
-            } else if (current.getSide2() != null && !current.getSide2().isPartOfMaze()) {
-                current.setPassage(true);
-                current.getSide2().setPartOfMaze(true);
-                walls.addAll(current.getSide2().getValidWalls());
-            }
-
-            walls.remove(current);
-        }
+     * Carves the passages into the maze with the maze's generator, starting from the player's
+     * room.
+     *
+     * @param	rand	The random number generator used to carve the passages.
+     */
+    private void carvePassages(Random rand) {
+        generator.generate(packedGrid, packedGrid.index(player.getX(), player.getY()), rand);
     }
 
     /**
-     * Generates the starting point for all the mobs.
+     * Generates the starting point for all the mobs, out of the player's sight (further along the
+     * passages than the visibility range from the player) when the maze is large enough. The mobs
+     * are placed last, so the rooms of the exit and the key are never taken by them.
      *
+     * @param placement The placement of the things in the maze.
+     * @param far The rooms further from the player than the visibility range.
      * @param cnt The number of mobs to initialize.
      */
-    private void initMobs(int cnt) {
+    private void initMobs(Placement placement, Placement.CandidateSet far, int cnt) {
+        Placement.CandidateSet any = null;
+
         for (int i = 0; i < cnt; i++) {
-            Cell mob = grid[rand.nextInt(width)][rand.nextInt(height)];
+            int room = placement.takeRandom(far);
+
+            if (room < 0) {
+                if (any == null) {
+                    any = placement.candidates(r -> true);
+                }
+
+                room = placement.takeRandom(any);
 
-            while (mob.equals(player) && mobs.contains(mob) && !mob.isPartOfMaze()) {
-                mob = grid[rand.nextInt(width)][rand.nextInt(height)];
+                if (room < 0) {
+                    break;
+                }
             }
 
-            mob.setValue("M");
-            mobs.add(mob);
+            occupancy.addMob(room);
+            horde.add(room);
         }
     }
 
     /**
-     * Initializes the exit somewhere randomly on a boarder cell.
+     * Initializes the exit somewhere randomly on a boarder cell, with a path from the player at
+     * least as long as EXIT_PERCENTILE of the paths from the player.
+     *
+     * @param placement The placement of the things in the maze.
+     * @param field The distances from the player.
      */
-    private void initExit() {
-        exit = grid[rand.nextInt(width)][rand.nextInt(height)];
+    private void initExit(Placement placement, DistanceField field) {
+        int minDistance = field.percentile(EXIT_PERCENTILE);
+        int room = placement.takeRandom(placement.border(r -> field.getDistance(r) >= minDistance));
+
+        if (room < 0) {
+            room = placement.takeRandom(placement.border());
+        }
 
-        while (!validExit()) {
-            exit = grid[rand.nextInt(width)][rand.nextInt(height)];
+        if (room < 0) {
+            room = placement.takeRandom(placement.candidates(r -> true));
         }
+
+        occupancy.set(room, Occupancy.EXIT, true);
+        exit = getCell(packedGrid.getX(room), packedGrid.getY(room));
     }
 
     /**
      * Initializes the key somewhere randomly not where a mob is, not where the the player is, and
-     * at least half the map away from the exit.
+     * with a path to the exit at least as long as KEY_PERCENTILE of the paths from the exit.
+     *
+     * @param placement The placement of the things in the maze.
+     * @param field The distances from the exit.
      */
-    private void initKey() {
-        key = grid[rand.nextInt(width)][rand.nextInt(height)];
+    private void initKey(Placement placement, DistanceField field) {
+        int minDistance = field.percentile(KEY_PERCENTILE);
+        int room = placement.takeRandom(placement.candidates(r -> field.getDistance(r) >= minDistance));
 
-        while (!validKey()) {
-            key = grid[rand.nextInt(width)][rand.nextInt(height)];
+        if (room < 0) {
+            room = placement.takeRandom(placement.candidates(r -> true));
         }
+
+        occupancy.set(room, Occupancy.KEY, true);
+        key = getCell(packedGrid.getX(room), packedGrid.getY(room));
     }
 
     /**
-     * Moves the all the mobs at once.
+     * Moves the all the mobs at once. The monsters that see the player are found with the line of
+     * sight index, one flow field is computed from the player's room, bounded to the visibility
+     * range, and every monster that sees the player steps along it towards the player. The other
+     * monsters step to a random adjacent room, drawn from a stream seeded once per turn. The horde
+     * decides every move before applying any, in parallel for large hordes, so the result doesn't
+     * depend on the number of threads.
      *
-     * @param playerRoom	The room the player was last in to enable the monsters to move towards the
-     * player if within visible range of the monsters
+     * @param playerRoom	The index of the room the player was last in to enable the monsters to
+     * move towards the player if within visible range of the monsters
      */
-    private void moveMobs(Cell playerRoom) {
-        List<Cell> tempMobs = new ArrayList<>();
-
-        while (!mobs.isEmpty()) {
-            Cell mob = mobs.remove(0);
-            List<Cell> adjRooms = mob.getAdjRooms();
-            List<Cell> visibleRooms = getVisibleRooms(mob);
+    private void moveMobs(int playerRoom) {
+        LineOfSightIndex sightIndex = getLineOfSightIndex();
+        int found = sightIndex.getMobsInSight(playerRoom, visRange, sightBuffer);
 
-            if (!mob.equals(player)) {
-                if (visibleRooms.contains(playerRoom)) {
-                    mob = moveCharacter(mob, getNextRoom(mob, playerRoom), "M");
-                } else if (!adjRooms.isEmpty()) {
-                    mob = moveCharacter(mob, adjRooms.get(rand.nextInt(adjRooms.size())), "M");
-                }
-            }
+        if (found > 0) {
+            flowField.compute(playerRoom);
+        }
 
-            tempMobs.add(mob);
+        for (int i = 0; i < found; i++) {
+            horde.setChasing(sightBuffer[i], true);
         }
 
-        mobs = tempMobs;
+        horde.decide(occupancy, flowField, mobRand.nextLong());
+        horde.apply(occupancy, sightIndex, events);
+
+        for (int i = 0; i < found; i++) {
+            horde.setChasing(sightBuffer[i], false);
+        }
     }
 
     /**
-     * Moves a character (player or mob) from the current cell to the next, and returns the new
-     * location of the character.
+     * Moves the player from its current room to the next. The player's view is moved in place.
      *
-     * @param current The current cell the character is in.
-     * @param next The cell the character will be moved to.
-     * @param value The type of character being moved.
-     *
-     * @return The cell the character is in after the move.
+     * @param character The view of the room the player is in.
+     * @param next The index of the room the player will be moved to.
+     * @param occupant The occupancy bit of the player.
      */
-    private Cell moveCharacter(Cell current, Cell next, String value) {
-        next.setValue(value);
-        current.setValue("");
-
-        return next;
+    private void moveCharacter(Cell character, int next, int occupant) {
+        events.add(TurnEvents.MOVED, TurnEvents.PLAYER, indexOf(character), next);
+        occupancy.move(indexOf(character), next, occupant);
+        character.setX(packedGrid.getX(next));
+        character.setY(packedGrid.getY(next));
     }
 
     /**
-     * Moves the player in a given direction.
+     * Moves the player in a given direction. The move is appended to the replay log, if the game is
+     * recorded.
      *
      * @param direction The direction to move the player.
      */
     public void movePlayer(String direction) {
+        int step = toDirection(direction);
+        revealedCount = 0;
+        events.clear();
+
         if (alive && !escaped) {
-            Cell startRoom = new Cell(player);
-
-            if (direction.equals("N") && player.getNorth().isPassage()) {
-                player = moveCharacter(player, player.getNorth().getOther(player), "P");
-            } else if (direction.equals("W") && player.getWest().isPassage()) {
-                player = moveCharacter(player, player.getWest().getOther(player), "P");
-            } else if (direction.equals("S") && player.getSouth().isPassage()) {
-                player = moveCharacter(player, player.getSouth().getOther(player), "P");
-            } else if (direction.equals("E") && player.getEast().isPassage()) {
-                player = moveCharacter(player, player.getEast().getOther(player), "P");
+            int startRoom = indexOf(player);
+            int passages = packedGrid.getPassageMask(startRoom);
+
+            if (step >= 0 && (passages & 1 << step) != 0) {
+                moveCharacter(player, packedGrid.neighbour(startRoom, step), Occupancy.PLAYER);
             } else {
                 msg = "Invalid Move: Why are you running into walls?";
             }
@@ -336,25 +510,92 @@ public class Maze {
         }
 
         setMazeState();
+
+        if (replayLog != null) {
+            replayLog.append(step);
+        }
+    }
+
+    /**
+     * Counts the monsters a maze has room for: every room but the ones of the player, the exit, and
+     * the key.
+     *
+     * @param	width	# of rooms width wise
+     * @param	height	# of rooms height wise
+     * @return	The largest number of monsters of a maze of the size, or -1 if it's too small for
+     * the player, the exit, and the key.
+     */
+    public static int getMaxMobs(int width, int height) {
+        return (int) Math.max(-1, Math.min(Integer.MAX_VALUE, (long) width * height - 3));
+    }
+
+    /**
+     * @param direction A direction of PackedGrid.
+     * @return The move in the direction, as given to movePlayer: N, W, S, or E.
+     */
+    public static String toMove(int direction) {
+        switch (direction) {
+            case PackedGrid.NORTH:
+                return "N";
+            case PackedGrid.WEST:
+                return "W";
+            case PackedGrid.SOUTH:
+                return "S";
+            case PackedGrid.EAST:
+                return "E";
+            default:
+                throw new IllegalArgumentException("Invalid direction: " + direction);
+        }
+    }
+
+    /**
+     * @param direction The direction of a move: N, W, S, or E.
+     * @return The direction of PackedGrid, or -1 if it's not a direction.
+     */
+    private static int toDirection(String direction) {
+        switch (direction) {
+            case "N":
+                return PackedGrid.NORTH;
+            case "W":
+                return PackedGrid.WEST;
+            case "S":
+                return PackedGrid.SOUTH;
+            case "E":
+                return PackedGrid.EAST;
+            default:
+                return -1;
+        }
     }
 
     /**
      * Determines the current game state, sets any appropriate values, and sets the appropriate
-     * messages for the user.
+     * messages for the user. The changes of state are recorded as events of the turn.
      */
     public void setMazeState() {
-        if (mobs.contains(player)) {
+        int room = indexOf(player);
+
+        if (occupancy.has(room, Occupancy.MOB)) {
+            if (alive) {
+                events.add(TurnEvents.DIED, TurnEvents.PLAYER, room, room);
+            }
+
             alive = false;
         }
 
-        if (key.equals(player)) {
+        if (occupancy.has(room, Occupancy.KEY)) {
+            occupancy.set(room, Occupancy.KEY, false);
             key = new Cell(-1, -1);
             msg = "You found the key!";
+            events.add(TurnEvents.KEY_FOUND, TurnEvents.PLAYER, room, room);
         }
 
-        if (key.getX() == -1 && exit.equals(player)) {
+        if (key.getX() == -1 && occupancy.has(room, Occupancy.EXIT)) {
+            if (!escaped) {
+                events.add(TurnEvents.ESCAPED, TurnEvents.PLAYER, room, room);
+            }
+
             escaped = true;
-        } else if (exit.equals(player)) {
+        } else if (occupancy.has(room, Occupancy.EXIT)) {
             msg = "You found the exit, but you don't have the key!";
         }
 
@@ -368,122 +609,113 @@ public class Maze {
     }
 
     /**
-     * Validates the initial placement of the exit.
+     * Validates if the given room is empty.
+     *
+     * @param	room The room to be tested if it's empty.
      *
-     * @return	The validity of the exit.
+     * @return	If the room is empty (true) or it's not (false).
      */
-    private boolean validExit() {
-        return ((exit.isPartOfMaze() && !exit.equals(player) && !mobs.contains(exit))
-                && ((exit.getX() == 0 || exit.getX() == width - 1) || (exit.getY() == 0 || exit.getY() == height - 1)));
+    public boolean isRoomEmpty(Cell room) {
+        int index = indexOf(room);
+        return index < 0 || occupancy.isEmpty(index);
     }
 
     /**
-     * Validates the initial placement of the key.
+     * Determines the index of a room in the packed grid.
      *
-     * @return	The validity of the key.
+     * @param room The room.
+     * @return The index of the room, or -1 if it's not a room of the maze.
      */
-    private boolean validKey() {
-        return ((key.isPartOfMaze() && !key.equals(player) && !mobs.contains(key))
-                && ((exit.getX() == 0 && key.getX() >= width / 2) || (exit.getX() == width - 1 && key.getX() <= width / 2)
-                || (exit.getY() == 0 && key.getY() >= height / 2) || (exit.getY() == height - 1 && key.getY() <= height / 2)));
+    private int indexOf(Cell room) {
+        if (room == null || room.getX() < 0 || room.getX() >= width || room.getY() < 0 || room.getY() >= height) {
+            return -1;
+        }
+
+        return packedGrid.index(room.getX(), room.getY());
     }
 
     /**
-     * Validates if the given room is empty.
-     *
-     * @param	room The room to be tested if it's empty.
-     *
-     * @return	If the room is empty (true) or it's not (false).
+     * Changes the boolean flag for a list of rooms visible to the player and changes their
+     * visibility flag to true. The rooms that weren't visited yet are recorded as the rooms revealed
+     * by the turn, so the renderer, or anything else following the fog of war, only has to apply
+     * those, at a cost bounded by the visibility range.
      */
-    public boolean isRoomEmpty(Cell room) {
-        return !(player.equals(room) || mobs.contains(room) || (key.equals(room)) || exit.equals(room));
+    public void markVisibleRooms() {
+        int cnt = getCorridorIndex().getVisibleRooms(indexOf(player), visRange, visibleBuffer);
+
+        revealedCount = 0;
+
+        for (int i = 0; i < cnt; i++) {
+            if (!packedGrid.hasFlag(visibleBuffer[i], PackedGrid.VISITED)) {
+                packedGrid.setFlag(visibleBuffer[i], PackedGrid.VISITED, true);
+                revealed[revealedCount++] = visibleBuffer[i];
+                events.add(TurnEvents.REVEALED, TurnEvents.PLAYER, visibleBuffer[i], visibleBuffer[i]);
+            }
+        }
     }
 
     /**
-     * Changes the boolean flag for a list of rooms visible to the player and changes their
-     * visibility flag to true.
+     * @return The number of rooms the player saw for the first time in the last turn.
      */
-    public void markVisibleRooms() {
-        List<Cell> visibleRooms = getVisibleRooms(player);
+    public int getRevealedCount() {
+        return revealedCount;
+    }
 
-        for (Cell room : visibleRooms) {
-            room.setVisited(true);
+    /**
+     * @param i The number of a room revealed in the last turn, less than getRevealedCount.
+     * @return The index of the room in the packed grid.
+     */
+    public int getRevealedRoom(int i) {
+        if (i >= revealedCount) {
+            throw new IndexOutOfBoundsException("Only " + revealedCount + " rooms revealed");
         }
+
+        return revealed[i];
     }
 
     /**
      * Gets a list of rooms that are visible from the given room defined by the visibility range
-     * (global int visRange).
+     * (global int visRange). The CorridorIndex of the maze lists them without allocating.
      *
      * @param	room	The room which visibility is centered on.
      *
      * @return	A list of rooms visible from the given room.
      */
     public List<Cell> getVisibleRooms(Cell room) {
-        List<Cell> rooms = new ArrayList<>();
-        Cell current = room;
-        int cnt = 0;
-
-        rooms.add(current);
-
-        while (current.getNorth().isPassage() && cnt++ < visRange) {
-            current = current.getNorth().getOther(current);
-            rooms.add(current);
-        }
-
-        current = room;
-        cnt = 0;
-
-        while (current.getSouth().isPassage() && cnt++ < visRange) {
-            current = current.getSouth().getOther(current);
-            rooms.add(current);
-        }
-
-        current = room;
-        cnt = 0;
-
-        while (current.getWest().isPassage() && cnt++ < visRange) {
-            current = current.getWest().getOther(current);
-            rooms.add(current);
-        }
-
-        current = room;
-        cnt = 0;
+        int cnt = getCorridorIndex().getVisibleRooms(indexOf(room), visRange, visibleBuffer);
+        List<Cell> rooms = new ArrayList<>(cnt);
 
-        while (current.getEast().isPassage() && cnt++ < visRange) {
-            current = current.getEast().getOther(current);
-            rooms.add(current);
+        for (int i = 0; i < cnt; i++) {
+            rooms.add(getCell(packedGrid.getX(visibleBuffer[i]), packedGrid.getY(visibleBuffer[i])));
         }
 
         return rooms;
     }
 
     /**
-     * Determines which room next to the given monster is closest to the player.
+     * Determines if a room can be seen from another, in constant time.
      *
-     * @param	mob	The monster which needs to move closer to the player.
-     * @param	playerRoom	The room the player is in.
+     * @param	from	The room seen from.
+     * @param	to	The room to be seen.
      *
-     * @return	The room the monster needs to move to.
+     * @return	True if the room is visible from the other.
      */
-    public Cell getNextRoom(Cell mob, Cell playerRoom) {
-        if (mob.getX() == playerRoom.getX()) {
-            if (playerRoom.getY() - mob.getY() < 0) {
-                return grid[mob.getX()][mob.getY() - 1];
-            } else if (playerRoom.getY() - mob.getY() > 0) {
-                return grid[mob.getX()][mob.getY() + 1];
-            } else {
-                return mob;
-            }
-        } else {
-            if (playerRoom.getX() - mob.getX() < 0) {
-                return grid[mob.getX() - 1][mob.getY()];
-            } else if (playerRoom.getX() - mob.getX() > 0) {
-                return grid[mob.getX() + 1][mob.getY()];
-            } else {
-                return mob;
-            }
-        }
+    public boolean canSee(Cell from, Cell to) {
+        int fromIndex = indexOf(from);
+        int toIndex = indexOf(to);
+        return fromIndex >= 0 && toIndex >= 0 && getCorridorIndex().canSee(fromIndex, toIndex, visRange);
+    }
+
+    /**
+     * Gets the room at the given coordinates of the maze.
+     *
+     * @param	x	The x coordinate of the room.
+     * @param	y	The y coordinate of the room.
+     *
+     * @return	A view of the room backed by the maze's packed grid.
+     */
+    public Cell getCell(int x, int y) {
+        return new Cell(packedGrid, occupancy, x, y);
     }
 
 
@@ -540,10 +772,12 @@ public class Maze {
     }
 
     /**
-     * @param player the player to set
+     * @param player the player to set, the maze keeps its own view of the room, moved in place as
+     * the player moves
      */
     public void setPlayer(Cell player) {
-        this.player = player;
+        occupancy.move(indexOf(this.player), indexOf(player), Occupancy.PLAYER);
+        this.player = player == null ? null : getCell(player.getX(), player.getY());
     }
 
     /**
@@ -557,6 +791,7 @@ public class Maze {
      * @param key the key to set
      */
     public void setKey(Cell key) {
+        occupancy.move(indexOf(this.key), indexOf(key), Occupancy.KEY);
         this.key = key;
     }
 
@@ -571,13 +806,31 @@ public class Maze {
      * @param exit the exit to set
      */
     public void setExit(Cell exit) {
+        occupancy.move(indexOf(this.exit), indexOf(exit), Occupancy.EXIT);
         this.exit = exit;
     }
 
+    /**
+     * @return the packedGrid
+     */
+    public PackedGrid getPackedGrid() {
+        return packedGrid;
+    }
+
     /**
      * @return the grid
      */
     public Cell[][] getGrid() {
+        if (grid == null) {
+            grid = new Cell[width][height];
+
+            for (int y = 0; y < height; y++) {
+                for (int x = 0; x < width; x++) {
+                    grid[x][y] = getCell(x, y);
+                }
+            }
+        }
+
         return grid;
     }
 
@@ -589,17 +842,48 @@ public class Maze {
     }
 
     /**
-     * @return the mobs
+     * @return a new list of views of the rooms of the mobs
      */
     public List<Cell> getMobs() {
+        List<Cell> mobs = new ArrayList<>(horde.size());
+
+        for (int i = 0; i < horde.size(); i++) {
+            mobs.add(getCell(packedGrid.getX(horde.getRoom(i)), packedGrid.getY(horde.getRoom(i))));
+        }
+
         return mobs;
     }
 
     /**
-     * @param mobs the mobs to set
+     * @param mobs the mobs to set, the maze keeps the indices of their rooms
      */
     public void setMobs(List<Cell> mobs) {
-        this.mobs = mobs;
+        for (int i = 0; i < horde.size(); i++) {
+            occupancy.removeMob(horde.getRoom(i));
+        }
+
+        horde.clear();
+
+        for (Cell mob : mobs) {
+            occupancy.addMob(indexOf(mob));
+            horde.add(indexOf(mob));
+        }
+
+        this.lineOfSightIndex = null;
+    }
+
+    /**
+     * @return the events of the last turn
+     */
+    public TurnEvents getEvents() {
+        return events;
+    }
+
+    /**
+     * @return the horde
+     */
+    public MobHorde getHorde() {
+        return horde;
     }
 
     /**
@@ -630,6 +914,100 @@ public class Maze {
         this.escaped = escaped;
     }
 
+    /**
+     * @return the seed
+     */
+    public long getSeed() {
+        return seed;
+    }
+
+    /**
+     * Gets the index of the paths between the rooms of the maze, building it the first time it's
+     * requested. The passages are never changed once the maze is carved, so the index stays valid.
+     *
+     * @return the treeIndex
+     */
+    public TreeIndex getTreeIndex() {
+        if (treeIndex == null) {
+            treeIndex = new TreeIndex(packedGrid);
+        }
+
+        return treeIndex;
+    }
+
+    /**
+     * Gets the lengths of the straight corridors of the maze, building them the first time they're
+     * requested.
+     *
+     * @return the corridorIndex
+     */
+    public CorridorIndex getCorridorIndex() {
+        if (corridorIndex == null) {
+            corridorIndex = new CorridorIndex(packedGrid);
+        }
+
+        return corridorIndex;
+    }
+
+    /**
+     * Gets the index of the monsters in the straight corridors of the maze, building it from the
+     * current monsters the first time it's requested.
+     *
+     * @return the lineOfSightIndex
+     */
+    public LineOfSightIndex getLineOfSightIndex() {
+        if (lineOfSightIndex == null) {
+            lineOfSightIndex = new LineOfSightIndex(packedGrid, getCorridorIndex(), horde.size());
+            sightBuffer = new int[horde.size()];
+
+            for (int i = 0; i < horde.size(); i++) {
+                lineOfSightIndex.add(i, horde.getRoom(i));
+            }
+        }
+
+        return lineOfSightIndex;
+    }
+
+    /**
+     * @return the occupancy
+     */
+    public Occupancy getOccupancy() {
+        return occupancy;
+    }
+
+    /**
+     * @return the mobRand
+     */
+    MazeRandom getMobRand() {
+        return mobRand;
+    }
+
+    /**
+     * Counts the pages of the paged state of the game owned by this game: the pages it wrote to
+     * since it was created or last forked, the pages a fork copies as it's played. The arrays
+     * indexed by the monsters that aren't paged aren't counted.
+     *
+     * @return	The number of pages owned by the game.
+     */
+    int getOwnedPages() {
+        return packedGrid.getOwnedPages() + occupancy.getOwnedPages() + horde.getOwnedPages()
+                + getLineOfSightIndex().getOwnedPages();
+    }
+
+    /**
+     * @param replayLog the replayLog to set, or null to stop recording the moves
+     */
+    void setReplayLog(ReplayLog replayLog) {
+        this.replayLog = replayLog;
+    }
+
+    /**
+     * @return the generator
+     */
+    public MazeGenerator getGenerator() {
+        return generator;
+    }
+
     /**
      * @return the msg
      */
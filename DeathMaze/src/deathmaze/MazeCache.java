@@ -0,0 +1,371 @@
+package deathmaze;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.LongBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.DirectoryStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.nio.file.attribute.FileTime;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.zip.CRC32;
+
+/**
+ * <h1>MazeCache</h1>
+ * This class is an on-disk cache of carved mazes, in front of the construction of a Maze. The
+ * carved grid of a maze only depends on its seed, its size, and its generator, so a maze with a
+ * standard layout (a tournament or regression maze) only has to be carved once. Every entry is a
+ * file named by the SHA-256 hash of its key (seed, width, height, generator key, and the version
+ * of the file format), holding the key, the passage bits of the grid, the rooms that are part of
+ * the maze, and a CRC32 checksum of all of it.
+ * <p>
+ * On a hit the grid is read from the file and the maze skips carving its passages entirely. An
+ * entry failing its checksum or not matching its key is deleted and treated as a miss. The total
+ * size of the entries is bounded, and the least recently used entries are evicted to keep the
+ * cache under its bound. The order of use survives restarts through the modification times of the
+ * entries.
+ *
+ * @author Fred Erlenbusch
+ * @version 1.0
+ * @since 2026-10-17
+ */
+public class MazeCache {
+
+    /**
+     * The magic number at the start of an entry.
+     */
+    private static final int MAGIC = 0x444d4343;
+    /**
+     * The version of the file format, part of the key of every entry. Version 2 keys the entries
+     * by the key of the generator, with its parameters, rather than its name.
+     */
+    private static final int VERSION = 2;
+    /**
+     * The file extension of the entries.
+     */
+    private static final String EXTENSION = ".dmc";
+
+    /**
+     * The directory holding the entries.
+     */
+    private final Path directory;
+    /**
+     * The maximum total size of the entries in bytes.
+     */
+    private final long maxBytes;
+    /**
+     * The size of every entry, from the least to the most recently used.
+     */
+    private final LinkedHashMap<Path, Long> entries;
+    /**
+     * The total size of the entries in bytes.
+     */
+    private long totalBytes;
+    /**
+     * The number of mazes read from the cache.
+     */
+    private long hits;
+    /**
+     * The number of mazes that had to be carved.
+     */
+    private long misses;
+    /**
+     * The number of entries found corrupt.
+     */
+    private long corrupt;
+    /**
+     * The number of entries evicted.
+     */
+    private long evictions;
+
+    /**
+     * The constructor for this class. The entries already in the directory are kept, ordered by
+     * their last use.
+     *
+     * @param	directory	The directory holding the entries, created if needed.
+     * @param	maxBytes	The maximum total size of the entries in bytes.
+     * @throws	IOException	If the directory can't be created or read.
+     */
+    public MazeCache(Path directory, long maxBytes) throws IOException {
+        this.directory = directory;
+        this.maxBytes = maxBytes;
+        this.entries = new LinkedHashMap<>(16, 0.75f, true);
+        this.totalBytes = 0;
+
+        Files.createDirectories(directory);
+        List<Path> files = new ArrayList<>();
+
+        try (DirectoryStream<Path> stream = Files.newDirectoryStream(directory, "*" + EXTENSION)) {
+            for (Path file : stream) {
+                files.add(file);
+            }
+        }
+
+        Map<Path, FileTime> times = new HashMap<>();
+
+        for (Path file : files) {
+            times.put(file, Files.getLastModifiedTime(file));
+        }
+
+        files.sort((a, b) -> times.get(a).compareTo(times.get(b)));
+
+        for (Path file : files) {
+            long size = Files.size(file);
+            entries.put(file, size);
+            totalBytes += size;
+        }
+
+        evict();
+    }
+
+    /**
+     * Builds a maze, reading its carved grid from the cache if it's there, and storing it in the
+     * cache otherwise.
+     *
+     * @param	width	# of rooms width wise
+     * @param height # of rooms height wise
+     * @param mobCnt	# of monsters in the maze
+     * @param	visRange	How far character's can see from their current location
+     * @param	generator	The algorithm used to carve the passages of the maze
+     * @param	seed	The seed of the random number generators used by the maze
+     * @return	The maze.
+     * @throws	IOException	If an entry can't be read or written.
+     */
+    public synchronized Maze get(int width, int height, int mobCnt, int visRange, MazeGenerator generator,
+            long seed) throws IOException {
+        Path file = directory.resolve(fileName(width, height, generator.getKey(), seed));
+        PackedGrid carved = entries.get(file) != null ? read(file, width, height, generator.getKey(), seed) : null;
+
+        if (carved != null) {
+            hits++;
+            Files.setLastModifiedTime(file, FileTime.fromMillis(System.currentTimeMillis()));
+            return new Maze(width, height, mobCnt, visRange, generator, seed, carved);
+        }
+
+        misses++;
+        Maze maze = new Maze(width, height, mobCnt, visRange, generator, seed);
+        write(file, maze.getPackedGrid(), generator.getKey(), seed);
+        return maze;
+    }
+
+    /**
+     * Reads the carved grid of an entry, deleting the entry if it's corrupt.
+     *
+     * @param	file	The file of the entry.
+     * @param	width	The expected width of the grid.
+     * @param	height	The expected height of the grid.
+     * @param	generatorKey	The expected key of the generator.
+     * @param	seed	The expected seed.
+     * @return	The carved grid, or null if the entry is corrupt.
+     * @throws	IOException	If the entry can't be read or deleted.
+     */
+    private PackedGrid read(Path file, int width, int height, String generatorKey, long seed) throws IOException {
+        ByteBuffer buffer = ByteBuffer.wrap(Files.readAllBytes(file));
+        PackedGrid grid = new PackedGrid(width, height);
+        long bodySize = (grid.getPassageWords() + bitSetWords(grid)) * 8L;
+        byte[] keyBytes = generatorKey.getBytes(StandardCharsets.UTF_8);
+        int checked = buffer.limit() - 8;
+
+        if (checked == headerSize(keyBytes) + bodySize && checksum(buffer, checked) == buffer.getLong(checked)
+                && buffer.getInt() == MAGIC && buffer.getInt() == VERSION && buffer.getInt() == width
+                && buffer.getInt() == height && buffer.getLong() == seed && buffer.getInt() == keyBytes.length) {
+            byte[] stored = new byte[keyBytes.length];
+            buffer.get(stored);
+
+            if (Arrays.equals(stored, keyBytes)) {
+                LongBuffer longs = buffer.asLongBuffer();
+                grid.readPassages(longs);
+                grid.readFlagBits(PackedGrid.PART_OF_MAZE, longs);
+                return grid;
+            }
+        }
+
+        corrupt++;
+        remove(file);
+        return null;
+    }
+
+    /**
+     * Writes the carved grid of a maze to an entry, and evicts entries until the cache is under
+     * its bound.
+     *
+     * @param	file	The file of the entry.
+     * @param	grid	The grid of the maze.
+     * @param	generatorKey	The key of the generator.
+     * @param	seed	The seed of the maze.
+     * @throws	IOException	If the entry can't be written.
+     */
+    private void write(Path file, PackedGrid grid, String generatorKey, long seed) throws IOException {
+        byte[] keyBytes = generatorKey.getBytes(StandardCharsets.UTF_8);
+        int headerSize = headerSize(keyBytes);
+        ByteBuffer buffer = ByteBuffer.allocate(headerSize + (grid.getPassageWords() + bitSetWords(grid)) * 8 + 8);
+
+        buffer.putInt(MAGIC).putInt(VERSION).putInt(grid.getWidth()).putInt(grid.getHeight()).putLong(seed);
+        buffer.putInt(keyBytes.length).put(keyBytes);
+
+        LongBuffer longs = buffer.asLongBuffer();
+        grid.writePassages(longs);
+        grid.writeFlagBits(PackedGrid.PART_OF_MAZE, longs);
+        buffer.position(buffer.position() + longs.position() * 8);
+        buffer.putLong(checksum(buffer, buffer.position()));
+        buffer.flip();
+
+        try (FileChannel channel = FileChannel.open(file, StandardOpenOption.CREATE,
+                StandardOpenOption.TRUNCATE_EXISTING, StandardOpenOption.WRITE)) {
+            while (buffer.hasRemaining()) {
+                channel.write(buffer);
+            }
+        }
+
+        Long old = entries.put(file, (long) buffer.limit());
+        totalBytes += buffer.limit() - (old != null ? old : 0);
+        evict();
+    }
+
+    /**
+     * Evicts the least recently used entries until the cache is under its bound.
+     *
+     * @throws	IOException	If an entry can't be deleted.
+     */
+    private void evict() throws IOException {
+        Iterator<Map.Entry<Path, Long>> eldest = entries.entrySet().iterator();
+
+        while (totalBytes > maxBytes && eldest.hasNext()) {
+            Map.Entry<Path, Long> entry = eldest.next();
+            totalBytes -= entry.getValue();
+            eldest.remove();
+            Files.deleteIfExists(entry.getKey());
+            evictions++;
+        }
+    }
+
+    /**
+     * Removes an entry from the cache.
+     *
+     * @param	file	The file of the entry.
+     * @throws	IOException	If the entry can't be deleted.
+     */
+    private void remove(Path file) throws IOException {
+        Long size = entries.remove(file);
+
+        if (size != null) {
+            totalBytes -= size;
+        }
+
+        Files.deleteIfExists(file);
+    }
+
+    /**
+     * Determines the name of the file of an entry from the SHA-256 hash of its key.
+     *
+     * @param	width	The width of the maze.
+     * @param	height	The height of the maze.
+     * @param	generatorKey	The key of the generator.
+     * @param	seed	The seed of the maze.
+     * @return	The name of the file.
+     */
+    private static String fileName(int width, int height, String generatorKey, long seed) {
+        try {
+            MessageDigest digest = MessageDigest.getInstance("SHA-256");
+            byte[] keyBytes = generatorKey.getBytes(StandardCharsets.UTF_8);
+            ByteBuffer hashed = ByteBuffer.allocate(24 + keyBytes.length);
+
+            hashed.putInt(VERSION).putInt(width).putInt(height).putLong(seed).putInt(keyBytes.length).put(keyBytes);
+
+            StringBuilder hex = new StringBuilder();
+
+            for (byte b : digest.digest(hashed.array())) {
+                hex.append(String.format("%02x", b));
+            }
+
+            return hex.append(EXTENSION).toString();
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+
+    /**
+     * @param	keyBytes	The key of the generator in UTF-8.
+     * @return	The size of the header of an entry in bytes.
+     */
+    private static int headerSize(byte[] keyBytes) {
+        return 4 * 4 + 8 + 4 + keyBytes.length;
+    }
+
+    /**
+     * @param	grid	A grid.
+     * @return	The number of longs in a bit set of the rooms of the grid.
+     */
+    private static int bitSetWords(PackedGrid grid) {
+        return (grid.size() + 63) >>> 6;
+    }
+
+    /**
+     * Computes the CRC32 checksum of the start of a buffer.
+     *
+     * @param	buffer	The buffer.
+     * @param	length	The number of bytes at the start of the buffer to check.
+     * @return	The checksum.
+     */
+    private static long checksum(ByteBuffer buffer, int length) {
+        CRC32 crc = new CRC32();
+        crc.update(buffer.array(), 0, length);
+        return crc.getValue();
+    }
+
+    /*
+* ------------------------- Getters and Setters -------------------------
+     */
+    /**
+     * @return the number of entries
+     */
+    public synchronized int getEntries() {
+        return entries.size();
+    }
+
+    /**
+     * @return the total size of the entries in bytes
+     */
+    public synchronized long getTotalBytes() {
+        return totalBytes;
+    }
+
+    /**
+     * @return the hits
+     */
+    public synchronized long getHits() {
+        return hits;
+    }
+
+    /**
+     * @return the misses
+     */
+    public synchronized long getMisses() {
+        return misses;
+    }
+
+    /**
+     * @return the corrupt
+     */
+    public synchronized long getCorrupt() {
+        return corrupt;
+    }
+
+    /**
+     * @return the evictions
+     */
+    public synchronized long getEvictions() {
+        return evictions;
+    }
+}
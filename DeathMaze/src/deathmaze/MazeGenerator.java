@@ -0,0 +1,40 @@
+package deathmaze;
+
+import java.util.Random;
+
+/**
+ * <h1>MazeGenerator</h1>
+ * This interface is implemented by the algorithms that carve the passages of a maze. A generator is
+ * given a packed grid with all its walls closed, and must leave every room of the grid part of the
+ * maze, with the passages forming a perfect maze (a spanning tree of the rooms).
+ *
+ * @author Fred Erlenbusch
+ * @version 1.0
+ * @since 2026-10-17
+ */
+public interface MazeGenerator {
+
+    /**
+     * @return	The name of the algorithm, as shown to the user.
+     */
+    String getName();
+
+    /**
+     * Gets the key of the generator: its name and every parameter changing the passages it carves
+     * from a seed. Two generators with the same key carve the same maze from the same seed.
+     *
+     * @return	The key of the generator, its name unless it has parameters.
+     */
+    default String getKey() {
+        return getName();
+    }
+
+    /**
+     * Carves the passages into the grid.
+     *
+     * @param	grid	The grid to be carved.
+     * @param	start	The index of the room the algorithm starts from, if it has one.
+     * @param	rand	The random number generator used by the algorithm.
+     */
+    void generate(PackedGrid grid, int start, Random rand);
+}
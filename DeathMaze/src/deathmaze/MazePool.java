@@ -0,0 +1,295 @@
+package deathmaze;
+
+import java.util.Objects;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * <h1>MazePool</h1>
+ * This class keeps a bounded number of ready made mazes for the current game settings, so a new
+ * game doesn't have to wait for its maze to be generated. Taking a maze from the pool starts a
+ * background refill. When a maze is requested with different settings, the mazes built for the old
+ * settings are dropped, the maze is built in the background on a thread of its own, so it never
+ * waits for a refill, and the pool refills for the new settings. A maze is requested as a future,
+ * so a UI thread never waits for a maze to be carved. Generators with the same key carve the same
+ * mazes, so they share the mazes of the pool.
+ * <p>
+ * The pool counts the requests served from the pool (hits), the requests that had to build their
+ * maze (misses), and the time taken to build the mazes of the refills.
+ *
+ * @author Fred Erlenbusch
+ * @version 1.0
+ * @since 2026-10-17
+ */
+public class MazePool {
+
+    /**
+     * The mazes ready for the current settings.
+     */
+    private final BlockingQueue<Maze> ready;
+    /**
+     * The background thread building the mazes missed.
+     */
+    private final ExecutorService builder;
+    /**
+     * The background thread refilling the pool.
+     */
+    private final ExecutorService refiller;
+    /**
+     * The number of requests served from the pool.
+     */
+    private final AtomicLong hits;
+    /**
+     * The number of requests that had to build their maze.
+     */
+    private final AtomicLong misses;
+    /**
+     * The number of mazes built by refills.
+     */
+    private final AtomicLong refills;
+    /**
+     * The total time taken to build the mazes of the refills, in nanoseconds.
+     */
+    private final AtomicLong refillNanos;
+    /**
+     * The settings of the mazes in the pool.
+     */
+    private volatile Settings settings;
+
+    /**
+     * The constructor for this class.
+     *
+     * @param	capacity	The maximum number of mazes kept ready.
+     */
+    public MazePool(int capacity) {
+        this.ready = new ArrayBlockingQueue<>(capacity);
+        this.builder = Executors.newSingleThreadExecutor(runnable -> newThread(runnable, "maze-pool-miss"));
+        this.refiller = Executors.newSingleThreadExecutor(runnable -> newThread(runnable, "maze-pool"));
+        this.hits = new AtomicLong();
+        this.misses = new AtomicLong();
+        this.refills = new AtomicLong();
+        this.refillNanos = new AtomicLong();
+        this.settings = null;
+    }
+
+    /**
+     * Takes a maze from the pool, or waits for one to be built if none is ready for the given
+     * settings, and starts refilling the pool in the background.
+     *
+     * @param	width	# of rooms width wise
+     * @param height # of rooms height wise
+     * @param mobCnt	# of monsters in the maze
+     * @param	visRange	How far character's can see from their current location
+     * @param	generator	The algorithm used to carve the passages of the maze
+     * @return	A new maze.
+     */
+    public Maze take(int width, int height, int mobCnt, int visRange, MazeGenerator generator) {
+        return request(width, height, mobCnt, visRange, generator).join();
+    }
+
+    /**
+     * Requests a maze: takes one from the pool, or builds one in the background if none is ready
+     * for the given settings, and starts refilling the pool in the background. The calling thread
+     * never builds a maze.
+     *
+     * @param	width	# of rooms width wise
+     * @param height # of rooms height wise
+     * @param mobCnt	# of monsters in the maze
+     * @param	visRange	How far character's can see from their current location
+     * @param	generator	The algorithm used to carve the passages of the maze
+     * @return	The new maze, completed at once if it was taken from the pool.
+     */
+    public CompletableFuture<Maze> request(int width, int height, int mobCnt, int visRange,
+            MazeGenerator generator) {
+        Settings requested = new Settings(width, height, mobCnt, visRange, generator);
+        CompletableFuture<Maze> future;
+        Maze maze = null;
+
+        synchronized (this) {
+            if (requested.equals(settings)) {
+                maze = ready.poll();
+            } else {
+                settings = requested;
+                ready.clear();
+            }
+        }
+
+        if (maze == null) {
+            misses.incrementAndGet();
+            future = CompletableFuture.supplyAsync(requested::build, builder);
+        } else {
+            hits.incrementAndGet();
+            future = CompletableFuture.completedFuture(maze);
+        }
+
+        refiller.execute(() -> refill(requested));
+
+        return future;
+    }
+
+    /**
+     * Builds mazes for the given settings until the pool is full, or the settings change.
+     *
+     * @param	target	The settings the refill was started for.
+     */
+    private void refill(Settings target) {
+        while (target.equals(settings) && ready.remainingCapacity() > 0) {
+            long start = System.nanoTime();
+            Maze maze = target.build();
+
+            refillNanos.addAndGet(System.nanoTime() - start);
+            refills.incrementAndGet();
+
+            synchronized (this) {
+                if (target.equals(settings)) {
+                    ready.offer(maze);
+                }
+            }
+        }
+    }
+
+    /**
+     * Stops the background builds and refills.
+     */
+    public void shutdown() {
+        builder.shutdownNow();
+        refiller.shutdownNow();
+    }
+
+    /**
+     * Creates a background thread of the pool, which doesn't keep the application running.
+     *
+     * @param	runnable	The task run by the thread.
+     * @param	name	The name of the thread.
+     * @return	The thread.
+     */
+    private static Thread newThread(Runnable runnable, String name) {
+        Thread thread = new Thread(runnable, name);
+        thread.setDaemon(true);
+        return thread;
+    }
+
+    /*
+* ------------------------- Getters and Setters -------------------------
+     */
+    /**
+     * @return the number of mazes ready
+     */
+    public int getReady() {
+        return ready.size();
+    }
+
+    /**
+     * @return the hits
+     */
+    public long getHits() {
+        return hits.get();
+    }
+
+    /**
+     * @return the misses
+     */
+    public long getMisses() {
+        return misses.get();
+    }
+
+    /**
+     * @return the refills
+     */
+    public long getRefills() {
+        return refills.get();
+    }
+
+    /**
+     * @return the average time taken to build a maze of a refill, in nanoseconds
+     */
+    public long getAverageRefillNanos() {
+        long cnt = refills.get();
+        return cnt == 0 ? 0 : refillNanos.get() / cnt;
+    }
+
+    /**
+     * <h1>Settings</h1>
+     * The settings of the mazes kept in a pool.
+     */
+    private static final class Settings {
+
+        /**
+         * # of rooms width wise.
+         */
+        private final int width;
+        /**
+         * # of rooms height wise.
+         */
+        private final int height;
+        /**
+         * # of monsters in the maze.
+         */
+        private final int mobCnt;
+        /**
+         * How far character's can see from their current location.
+         */
+        private final int visRange;
+        /**
+         * The algorithm used to carve the passages of the maze, equal to any generator with the
+         * same key.
+         */
+        private final MazeGenerator generator;
+
+        /**
+         * The constructor for this class.
+         *
+         * @param	width	# of rooms width wise
+         * @param height # of rooms height wise
+         * @param mobCnt	# of monsters in the maze
+         * @param	visRange	How far character's can see from their current location
+         * @param	generator	The algorithm used to carve the passages of the maze
+         */
+        private Settings(int width, int height, int mobCnt, int visRange, MazeGenerator generator) {
+            this.width = width;
+            this.height = height;
+            this.mobCnt = mobCnt;
+            this.visRange = visRange;
+            this.generator = generator;
+        }
+
+        /**
+         * @return	A new maze with these settings.
+         */
+        private Maze build() {
+            return new Maze(width, height, mobCnt, visRange, generator);
+        }
+
+        /**
+         * Generates the hash value of these settings.
+         *
+         * @return	The hash value of these settings.
+         */
+        @Override
+        public int hashCode() {
+            return Objects.hash(width, height, mobCnt, visRange, generator.getKey());
+        }
+
+        /**
+         * Determines if these settings are equal to others.
+         *
+         * @return	True if the given settings are equal to these.
+         */
+        @Override
+        public boolean equals(Object obj) {
+            if (this == obj) {
+                return true;
+            }
+            if (obj == null || getClass() != obj.getClass()) {
+                return false;
+            }
+            Settings other = (Settings) obj;
+            return width == other.width && height == other.height && mobCnt == other.mobCnt
+                    && visRange == other.visRange && generator.getKey().equals(other.generator.getKey());
+        }
+    }
+}
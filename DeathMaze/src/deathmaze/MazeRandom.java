@@ -0,0 +1,221 @@
+package deathmaze;
+
+import java.util.Random;
+
+/**
+ * <h1>MazeRandom</h1>
+ * This class is a fast, seedable, and splittable random number generator based on the SplitMix64
+ * algorithm (the algorithm behind java.util.SplittableRandom). It extends Random so it can be
+ * handed to anything taking a Random, such as the maze generators, but it isn't thread safe: each
+ * thread should use a generator split from a common parent.
+ * <p>
+ * Splitting a generator returns a new generator whose stream is independent from its parent's, so
+ * a single seed can feed several separate streams that don't affect each other.
+ *
+ * @author Fred Erlenbusch
+ * @version 1.0
+ * @since 2026-10-17
+ */
+public class MazeRandom extends Random {
+
+    /**
+     * Serialization version.
+     */
+    private static final long serialVersionUID = 1L;
+    /**
+     * The increment of the state of the generators, the odd integer closest to 2^64 divided by the
+     * golden ratio.
+     */
+    private static final long GOLDEN_GAMMA = 0x9e3779b97f4a7c15L;
+
+    /**
+     * The state of the generator.
+     */
+    private long state;
+    /**
+     * The increment of the state, always odd.
+     */
+    private long gamma;
+
+    /**
+     * The constructor for this class.
+     *
+     * @param	seed	The seed of the generator.
+     */
+    public MazeRandom(long seed) {
+        this(seed, GOLDEN_GAMMA);
+    }
+
+    /**
+     * The constructor for a generator with a given state and increment, used to restore a saved
+     * generator.
+     *
+     * @param	state	The state of the generator.
+     * @param	gamma	The increment of the state, must be odd.
+     */
+    MazeRandom(long state, long gamma) {
+        super(0);
+        this.state = state;
+        this.gamma = gamma;
+    }
+
+    /**
+     * Creates a new generator with a stream independent from this generator's stream. This
+     * generator advances by one step.
+     *
+     * @return	The new generator.
+     */
+    public MazeRandom split() {
+        return new MazeRandom(mix64(nextSeed()), mixGamma(nextSeed()));
+    }
+
+    /**
+     * @return	The state of the generator.
+     */
+    long getState() {
+        return state;
+    }
+
+    /**
+     * @return	The increment of the state.
+     */
+    long getGamma() {
+        return gamma;
+    }
+
+    /**
+     * Resets the state of the generator, as if it was created with the given seed.
+     *
+     * @param	seed	The seed of the generator.
+     */
+    @Override
+    public synchronized void setSeed(long seed) {
+// Called by the constructor of Random before the gamma is set
+        this.state = seed;
+        this.gamma = GOLDEN_GAMMA;
+    }
+
+    /**
+     * @return	A random long.
+     */
+    @Override
+    public long nextLong() {
+        return mix64(nextSeed());
+    }
+
+    /**
+     * @return	A random int.
+     */
+    @Override
+    public int nextInt() {
+        return mix32(nextSeed());
+    }
+
+    /**
+     * Generates a random int between 0 (inclusive) and a given bound (exclusive).
+     *
+     * @param	bound	The upper bound, must be positive.
+     * @return	A random int in the range.
+     */
+    @Override
+    public int nextInt(int bound) {
+        if (bound <= 0) {
+            throw new IllegalArgumentException("bound must be positive");
+        }
+
+        int r = mix32(nextSeed());
+        int m = bound - 1;
+
+        if ((bound & m) == 0) {
+            return r & m;
+        }
+
+        for (int u = r >>> 1; u + m - (r = u % bound) < 0; u = mix32(nextSeed()) >>> 1) {
+        }
+
+        return r;
+    }
+
+    /**
+     * Generates the random int of a given position of a stream between 0 (inclusive) and a given
+     * bound (exclusive), without a generator. A value depends only on the seed of the stream and
+     * the position, so any number of threads can draw from a stream at once, and the values don't
+     * depend on the order they're drawn in. The int is scaled to the bound with a multiplication
+     * rather than rejected, so the bias is at most bound / 2^32.
+     *
+     * @param	seed	The seed of the stream.
+     * @param	position	The position of the value in the stream.
+     * @param	bound	The upper bound, must be positive.
+     * @return	A random int in the range.
+     */
+    static int nextInt(long seed, long position, int bound) {
+        long r = mix32(seed + (position + 1) * GOLDEN_GAMMA) & 0xffffffffL;
+        return (int) ((r * bound) >>> 32);
+    }
+
+    /**
+     * @return	A random boolean.
+     */
+    @Override
+    public boolean nextBoolean() {
+        return mix32(nextSeed()) < 0;
+    }
+
+    /**
+     * Generates the given number of random bits, used by the other methods of Random.
+     *
+     * @param	bits	The number of bits.
+     * @return	An int with the random bits in its lowest bits.
+     */
+    @Override
+    protected int next(int bits) {
+        return mix32(nextSeed()) >>> (32 - bits);
+    }
+
+    /**
+     * Advances the state of the generator.
+     *
+     * @return	The new state.
+     */
+    private long nextSeed() {
+        return state += gamma;
+    }
+
+    /**
+     * Mixes the bits of a state into a random long. Also used to hash values that must map to the
+     * same random long every time, such as the coordinates of a chunk of a maze.
+     *
+     * @param	z	The state.
+     * @return	The mixed bits.
+     */
+    static long mix64(long z) {
+        z = (z ^ (z >>> 30)) * 0xbf58476d1ce4e5b9L;
+        z = (z ^ (z >>> 27)) * 0x94d049bb133111ebL;
+        return z ^ (z >>> 31);
+    }
+
+    /**
+     * Mixes the bits of a state into a random int.
+     *
+     * @param	z	The state.
+     * @return	The mixed bits.
+     */
+    private static int mix32(long z) {
+        z = (z ^ (z >>> 33)) * 0x62a9d9ed799705f5L;
+        return (int) (((z ^ (z >>> 28)) * 0xcb24d0a5c88c35b3L) >>> 32);
+    }
+
+    /**
+     * Mixes the bits of a state into the increment of a new generator.
+     *
+     * @param	z	The state.
+     * @return	An odd increment with enough bit transitions.
+     */
+    private static long mixGamma(long z) {
+        z = (z ^ (z >>> 33)) * 0xff51afd7ed558ccdL;
+        z = (z ^ (z >>> 33)) * 0xc4ceb9fe1a85ec53L;
+        z = (z ^ (z >>> 33)) | 1L;
+        int n = Long.bitCount(z ^ (z >>> 1));
+        return (n < 24) ? z ^ 0xaaaaaaaaaaaaaaaaL : z;
+    }
+}
@@ -0,0 +1,95 @@
+package deathmaze;
+
+/**
+ * <h1>MazeRow</h1>
+ * This class holds the passages of one row of a maze generated a row at a time: one bit per room
+ * for the passage to the East, and one bit per room for the passage to the South into the next
+ * row.
+ *
+ * @author Fred Erlenbusch
+ * @version 1.0
+ * @since 2026-10-17
+ */
+public class MazeRow {
+
+    /**
+     * The y coordinate of the row.
+     */
+    private final long y;
+    /**
+     * The number of rooms in the row.
+     */
+    private final int width;
+    /**
+     * The passages to the East of the rooms.
+     */
+    private final long[] east;
+    /**
+     * The passages to the South of the rooms.
+     */
+    private final long[] south;
+
+    /**
+     * The constructor for this class. All the walls of a new row are closed.
+     *
+     * @param	y	The y coordinate of the row.
+     * @param	width	The number of rooms in the row.
+     */
+    public MazeRow(long y, int width) {
+        this.y = y;
+        this.width = width;
+        this.east = new long[(width + 63) >>> 6];
+        this.south = new long[(width + 63) >>> 6];
+    }
+
+    /**
+     * @param	x	The x coordinate of a room.
+     * @return	True if there's a passage to the East of the room.
+     */
+    public boolean isEastPassage(int x) {
+        return (east[x >>> 6] & (1L << x)) != 0;
+    }
+
+    /**
+     * Opens the wall to the East of a room.
+     *
+     * @param	x	The x coordinate of the room.
+     */
+    public void openEast(int x) {
+        east[x >>> 6] |= 1L << x;
+    }
+
+    /**
+     * @param	x	The x coordinate of a room.
+     * @return	True if there's a passage to the South of the room.
+     */
+    public boolean isSouthPassage(int x) {
+        return (south[x >>> 6] & (1L << x)) != 0;
+    }
+
+    /**
+     * Opens the wall to the South of a room.
+     *
+     * @param	x	The x coordinate of the room.
+     */
+    public void openSouth(int x) {
+        south[x >>> 6] |= 1L << x;
+    }
+
+    /*
+* ------------------------- Getters and Setters -------------------------
+     */
+    /**
+     * @return the y
+     */
+    public long getY() {
+        return y;
+    }
+
+    /**
+     * @return the width
+     */
+    public int getWidth() {
+        return width;
+    }
+}
@@ -0,0 +1,246 @@
+package deathmaze;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.LongBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * <h1>MazeSnapshot</h1>
+ * This class saves and loads the whole state of a game in a compact, versioned binary format. The
+ * file holds, in order:
+ * <ul>
+ * <li>a header: magic number, version, width, height, visibility range, and seed,</li>
+ * <li>the state of the random number generator moving the monsters, so a loaded game plays on
+ * exactly like the saved one would have,</li>
+ * <li>the entities: alive and escaped flags, the player, the key (-1 once picked up), the exit,
+ * and the monsters, each as the index of its room,</li>
+ * <li>the passage bits of the grid, two bits per room, and</li>
+ * <li>a bit set of the rooms visited by the player.</li>
+ * </ul>
+ * The passages and visited rooms are moved with bulk buffer operations, so a 1000x1000 game is
+ * saved or loaded in a few milliseconds.
+ *
+ * @author Fred Erlenbusch
+ * @version 1.0
+ * @since 2026-10-17
+ */
+public class MazeSnapshot {
+
+    /**
+     * The magic number at the start of a saved game.
+     */
+    private static final int MAGIC = 0x444d5356;
+    /**
+     * The version of the file format.
+     */
+    private static final int VERSION = 1;
+    /**
+     * The size of the header, random number generator state, and flags in bytes.
+     */
+    private static final int FIXED_SIZE = 4 * 5 + 8 * 3 + 2 + 4 * 4;
+
+    /**
+     * This class only has static methods.
+     */
+    private MazeSnapshot() {
+    }
+
+    /**
+     * Saves the state of a game to a file.
+     *
+     * @param	maze	The game to be saved.
+     * @param	path	The path of the file.
+     * @throws	IOException	If the file can't be written.
+     */
+    public static void save(Maze maze, Path path) throws IOException {
+        ByteBuffer buffer = encode(maze);
+
+        try (FileChannel channel = FileChannel.open(path, StandardOpenOption.CREATE,
+                StandardOpenOption.TRUNCATE_EXISTING, StandardOpenOption.WRITE)) {
+            while (buffer.hasRemaining()) {
+                channel.write(buffer);
+            }
+        }
+    }
+
+    /**
+     * Loads a game saved to a file.
+     *
+     * @param	path	The path of the file.
+     * @return	The loaded game.
+     * @throws	IOException	If the file can't be read or isn't a saved game.
+     */
+    public static Maze load(Path path) throws IOException {
+        try (FileChannel channel = FileChannel.open(path, StandardOpenOption.READ)) {
+            return decode(channel.map(FileChannel.MapMode.READ_ONLY, 0, channel.size()), path.toString());
+        }
+    }
+
+    /**
+     * Encodes the state of a game into a buffer, in the format of a saved game.
+     *
+     * @param	maze	The game to be encoded.
+     * @return	The buffer, ready to be read from.
+     */
+    static ByteBuffer encode(Maze maze) {
+        PackedGrid grid = maze.getPackedGrid();
+        MobHorde horde = maze.getHorde();
+        int bitSetWords = (grid.size() + 63) >>> 6;
+        ByteBuffer buffer = ByteBuffer.allocate(FIXED_SIZE + horde.size() * 4
+                + (grid.getPassageWords() + bitSetWords) * 8);
+
+        buffer.putInt(MAGIC).putInt(VERSION);
+        buffer.putInt(maze.getWidth()).putInt(maze.getHeight()).putInt(maze.getVisRange());
+        buffer.putLong(maze.getSeed());
+        buffer.putLong(maze.getMobRand().getState()).putLong(maze.getMobRand().getGamma());
+        buffer.put((byte) (maze.getAlive() ? 1 : 0)).put((byte) (maze.getEscaped() ? 1 : 0));
+        buffer.putInt(indexOf(grid, maze.getPlayer()));
+        buffer.putInt(indexOf(grid, maze.getKey()));
+        buffer.putInt(indexOf(grid, maze.getExit()));
+        buffer.putInt(horde.size());
+
+        for (int mob = 0; mob < horde.size(); mob++) {
+            buffer.putInt(horde.getRoom(mob));
+        }
+
+        LongBuffer longs = buffer.asLongBuffer();
+        grid.writePassages(longs);
+        grid.writeFlagBits(PackedGrid.VISITED, longs);
+        buffer.position(buffer.position() + longs.position() * 8);
+        buffer.flip();
+
+        return buffer;
+    }
+
+    /**
+     * Decodes the state of a game from a buffer holding exactly one saved game.
+     *
+     * @param	buffer	The buffer, read from its position to its limit.
+     * @param	source	The name of where the buffer was read from, for the error messages.
+     * @return	The decoded game.
+     * @throws	IOException	If the buffer doesn't hold a saved game.
+     */
+    static Maze decode(ByteBuffer buffer, String source) throws IOException {
+        if (buffer.remaining() < FIXED_SIZE || buffer.getInt() != MAGIC) {
+            throw new IOException("Not a saved game: " + source);
+        }
+
+        int version = buffer.getInt();
+
+        if (version != VERSION) {
+            throw new IOException("Unsupported saved game version: " + version);
+        }
+
+        int width = buffer.getInt();
+        int height = buffer.getInt();
+        int visRange = buffer.getInt();
+        long seed = buffer.getLong();
+        MazeRandom mobRand = new MazeRandom(buffer.getLong(), buffer.getLong());
+        boolean alive = buffer.get() != 0;
+        boolean escaped = buffer.get() != 0;
+        int player = buffer.getInt();
+        int key = buffer.getInt();
+        int exit = buffer.getInt();
+        int mobCnt = buffer.getInt();
+
+        if (width < 1 || height < 1 || (long) width * height > Integer.MAX_VALUE - 8 || visRange < 0
+                || mobCnt < 0) {
+            throw new IOException("Corrupt saved game: " + source);
+        }
+
+// The length is checked before the grid is allocated, so a corrupt size can't run out of memory
+        long rooms = (long) width * height;
+        long words = ((rooms * 2 + 63) >>> 6) + ((rooms + 63) >>> 6);
+
+        if (buffer.remaining() != mobCnt * 4L + words * 8) {
+            throw new IOException("Corrupt saved game: " + source);
+        }
+
+        PackedGrid grid = new PackedGrid(width, height);
+        int[] mobs = new int[mobCnt];
+
+// Every room of a saved game is part of the maze, so a room in the grid is a room of the maze
+        checkRoom(grid, player, source);
+        checkRoom(grid, exit, source);
+
+        if (key != -1 && (checkRoom(grid, key, source) == exit || key == player)) {
+            throw new IOException("Corrupt saved game: " + source);
+        }
+
+        for (int i = 0; i < mobs.length; i++) {
+            mobs[i] = checkRoom(grid, buffer.getInt(), source);
+        }
+
+        LongBuffer longs = buffer.asLongBuffer();
+        grid.readPassages(longs);
+        grid.readFlagBits(PackedGrid.VISITED, longs);
+
+        for (int room = 0; room < grid.size(); room++) {
+            grid.setFlag(room, PackedGrid.PART_OF_MAZE, true);
+        }
+
+        Maze maze = new Maze(grid, visRange, seed, mobRand);
+
+        maze.setAlive(alive);
+        maze.setEscaped(escaped);
+
+        maze.setPlayer(cellAt(maze, player));
+        maze.setKey(cellAt(maze, key));
+        maze.setExit(cellAt(maze, exit));
+
+        List<Cell> mobCells = new ArrayList<>(mobs.length);
+
+        for (int mob : mobs) {
+            mobCells.add(cellAt(maze, mob));
+        }
+
+        maze.setMobs(mobCells);
+
+        return maze;
+    }
+
+    /**
+     * Checks that the index of a room read from a saved game is in the grid.
+     *
+     * @param	grid	The grid of the maze.
+     * @param	room	The index of the room.
+     * @param	source	The name of where the saved game was read from, for the error message.
+     * @return	The index of the room.
+     * @throws	IOException	If the room isn't in the grid.
+     */
+    private static int checkRoom(PackedGrid grid, int room, String source) throws IOException {
+        if (room < 0 || room >= grid.size()) {
+            throw new IOException("Corrupt saved game: " + source);
+        }
+
+        return room;
+    }
+
+    /**
+     * Determines the index of a room in the grid.
+     *
+     * @param	grid	The grid of the maze.
+     * @param	room	The room, or a room with negative coordinates for none.
+     * @return	The index of the room, or -1.
+     */
+    private static int indexOf(PackedGrid grid, Cell room) {
+        return room.getX() < 0 ? -1 : grid.index(room.getX(), room.getY());
+    }
+
+    /**
+     * Gets the room of the maze at an index.
+     *
+     * @param	maze	The maze.
+     * @param	index	The index of the room, or -1 for none.
+     * @return	The room, or a room at (-1, -1) for none.
+     */
+    private static Cell cellAt(Maze maze, int index) {
+        PackedGrid grid = maze.getPackedGrid();
+        return index < 0 ? new Cell(-1, -1) : maze.getCell(grid.getX(index), grid.getY(index));
+    }
+}
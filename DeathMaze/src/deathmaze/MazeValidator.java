@@ -0,0 +1,110 @@
+package deathmaze;
+
+/**
+ * <h1>MazeValidator</h1>
+ * This class checks that the passages of a grid form a perfect maze: every room can be reached from
+ * every other room by exactly one path, so the passages are a spanning tree of the rooms.
+ * <p>
+ * A graph of n rooms with n - 1 passages is a spanning tree if and only if it has no cycle. Cycles
+ * are found by sweeping the grid row by row with a union find over the sets of the previous row
+ * and the rooms of the current row, so the check runs in linear time with memory proportional to
+ * the width of the grid.
+ *
+ * @author Fred Erlenbusch
+ * @version 1.0
+ * @since 2026-10-17
+ */
+public class MazeValidator {
+
+    /**
+     * This class only has static methods.
+     */
+    private MazeValidator() {
+    }
+
+    /**
+     * Determines if the passages of a grid form a perfect maze.
+     *
+     * @param	grid	The grid to be checked.
+     * @return	True if the passages are a spanning tree of the rooms.
+     */
+    public static boolean isPerfect(PackedGrid grid) {
+        return grid.countPassages() == grid.size() - 1L && !hasCycle(grid);
+    }
+
+    /**
+     * Determines if the passages of a grid contain a cycle.
+     *
+     * @param	grid	The grid to be checked.
+     * @return	True if there's a cycle.
+     */
+    public static boolean hasCycle(PackedGrid grid) {
+        int width = grid.getWidth();
+        int[] labels = new int[width];
+        int[] parents = new int[width * 2];
+        int[] relabel = new int[width * 2];
+
+        for (int y = 0; y < grid.getHeight(); y++) {
+            int row = grid.index(0, y);
+
+// Elements 0..width-1 are the sets of the previous row, width..2*width-1 the rooms of this row
+            for (int i = 0; i < width * 2; i++) {
+                parents[i] = i;
+            }
+
+            for (int x = 0; x < width; x++) {
+                if (y > 0 && grid.isPassage(row + x, PackedGrid.NORTH)) {
+                    parents[width + x] = labels[x];
+                }
+            }
+
+            for (int x = 0; x < width - 1; x++) {
+                if (grid.isPassage(row + x, PackedGrid.EAST)) {
+                    int a = find(parents, width + x);
+                    int b = find(parents, width + x + 1);
+
+                    if (a == b) {
+                        return true;
+                    }
+
+                    parents[b] = a;
+                }
+            }
+
+// Label the sets of this row 0..width-1 for the next row
+            int next = 0;
+
+            for (int i = 0; i < width * 2; i++) {
+                relabel[i] = -1;
+            }
+
+            for (int x = 0; x < width; x++) {
+                int root = find(parents, width + x);
+
+                if (relabel[root] == -1) {
+                    relabel[root] = next++;
+                }
+
+                labels[x] = relabel[root];
+            }
+        }
+
+        return false;
+    }
+
+    /**
+     * Finds the root of an element of the union find.
+     *
+     * @param	parents	The parent of each element.
+     * @param	element	The element.
+     * @return	The root of the element.
+     */
+    private static int find(int[] parents, int element) {
+        while (parents[element] != element) {
+            parents[element] = parents[parents[element]];
+            element = parents[element];
+        }
+
+        return element;
+    }
+}
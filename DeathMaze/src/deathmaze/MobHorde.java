@@ -0,0 +1,297 @@
+package deathmaze;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.ForkJoinTask;
+
+/**
+ * <h1>MobHorde</h1>
+ * This class holds the monsters of a maze as parallel arrays, one entry per monster: its room,
+ * whether it's chasing the player, and the room it decided to move to. A turn is played in two
+ * passes. The decide pass reads the maze and writes the next room of every monster, without
+ * changing anything else, so ranges of monsters are decided in parallel on a ForkJoinPool. The
+ * apply pass then moves the monsters in order, updating the occupancy and the line of sight index,
+ * on the calling thread.
+ * <p>
+ * A monster wandering at random draws from the stream of the turn at its own position, rather than
+ * from a shared generator, so the decisions don't depend on how the ranges are scheduled, and a
+ * parallel turn gives the same maze as a sequential one. Any number of monsters can share a room,
+ * so the apply pass has no conflicts to resolve beyond keeping the monsters' order.
+ * <p>
+ * The rooms and the chasing flags are kept in paged arrays, so a horde can be forked with its maze
+ * in time proportional to the number of pages. A fork gets its own next rooms when it first decides.
+ *
+ * @author Fred Erlenbusch
+ * @version 1.0
+ * @since 2026-10-17
+ */
+public class MobHorde {
+
+    /**
+     * The default number of monsters decided by a single task.
+     */
+    public static final int DEFAULT_TASK_SIZE = 8192;
+
+    /**
+     * The grid of the maze.
+     */
+    private final PackedGrid grid;
+    /**
+     * The pool running the decide pass.
+     */
+    private final ForkJoinPool pool;
+    /**
+     * The number of monsters decided by a single task. The decide pass runs on the calling thread
+     * when there are no more monsters than this.
+     */
+    private final int taskSize;
+    /**
+     * The room of every monster.
+     */
+    private final PagedIntArray rooms;
+    /**
+     * The flags of the monsters chasing the player.
+     */
+    private final PagedByteArray chasing;
+    /**
+     * The room every monster decided to move to.
+     */
+    private int[] nexts;
+    /**
+     * The number of monsters.
+     */
+    private int size;
+
+    /**
+     * The constructor for a horde using the common pool and the default task size.
+     *
+     * @param	grid	The grid of the maze.
+     * @param	capacity	The number of monsters expected, the horde grows if there are more.
+     */
+    public MobHorde(PackedGrid grid, int capacity) {
+        this(grid, capacity, ForkJoinPool.commonPool(), DEFAULT_TASK_SIZE);
+    }
+
+    /**
+     * The constructor for this class. There are no monsters in the horde.
+     *
+     * @param	grid	The grid of the maze.
+     * @param	capacity	The number of monsters expected, the horde grows if there are more.
+     * @param	pool	The pool running the decide pass.
+     * @param	taskSize	The number of monsters decided by a single task.
+     */
+    public MobHorde(PackedGrid grid, int capacity, ForkJoinPool pool, int taskSize) {
+        this.grid = grid;
+        this.pool = pool;
+        this.taskSize = taskSize;
+        this.rooms = new PagedIntArray(Math.max(1, capacity), 0);
+        this.chasing = new PagedByteArray(rooms.size(), (byte) 0);
+        this.nexts = new int[rooms.size()];
+    }
+
+    /**
+     * The constructor for a fork of a horde.
+     *
+     * @param	horde	The horde forked.
+     * @param	grid	The grid of the fork of the maze.
+     */
+    private MobHorde(MobHorde horde, PackedGrid grid) {
+        this.grid = grid;
+        this.pool = horde.pool;
+        this.taskSize = horde.taskSize;
+        this.rooms = horde.rooms.fork();
+        this.chasing = horde.chasing.fork();
+        this.nexts = new int[0];
+        this.size = horde.size;
+    }
+
+    /**
+     * Forks the horde. Neither horde sees the monsters moved in the other afterwards.
+     *
+     * @param	grid	The grid of the fork of the maze.
+     * @return	The fork.
+     */
+    public MobHorde fork(PackedGrid grid) {
+        return new MobHorde(this, grid);
+    }
+
+    /**
+     * Adds a monster to the horde.
+     *
+     * @param	room	The index of the room of the monster.
+     * @return	The number of the monster.
+     */
+    public int add(int room) {
+        if (size == rooms.size()) {
+            rooms.grow(size * 2);
+            chasing.grow(size * 2);
+        }
+
+        rooms.set(size, room);
+        return size++;
+    }
+
+    /**
+     * Removes all the monsters from the horde.
+     */
+    public void clear() {
+        for (int mob = 0; mob < size; mob++) {
+            setChasing(mob, false);
+        }
+
+        size = 0;
+    }
+
+    /**
+     * Decides the next room of every monster. A monster in the player's room stays there, a
+     * monster chasing the player steps along the flow field, and any other monster steps to a random
+     * adjacent room, drawn from the stream of the turn at the monster's number.
+     *
+     * @param	occupancy	The occupancy of the maze.
+     * @param	flowField	The flow field from the player's room, computed if any monster is
+     * chasing.
+     * @param	turnSeed	The seed of the stream of the turn.
+     */
+    public void decide(Occupancy occupancy, FlowField flowField, long turnSeed) {
+        if (nexts.length < size) {
+            nexts = new int[rooms.size()];
+        }
+
+        if (size <= taskSize) {
+            decide(occupancy, flowField, turnSeed, 0, size);
+            return;
+        }
+
+        List<ForkJoinTask<?>> tasks = new ArrayList<>();
+
+        for (int first = 0; first < size; first += taskSize) {
+            final int from = first;
+            final int to = Math.min(size, first + taskSize);
+            tasks.add(ForkJoinTask.adapt(() -> decide(occupancy, flowField, turnSeed, from, to)));
+        }
+
+        pool.invoke(ForkJoinTask.adapt(() -> ForkJoinTask.invokeAll(tasks)));
+    }
+
+    /**
+     * Decides the next room of a range of monsters.
+     *
+     * @param	occupancy	The occupancy of the maze.
+     * @param	flowField	The flow field from the player's room.
+     * @param	turnSeed	The seed of the stream of the turn.
+     * @param	from	The first monster of the range.
+     * @param	to	The monster after the last of the range.
+     */
+    private void decide(Occupancy occupancy, FlowField flowField, long turnSeed, int from, int to) {
+        for (int mob = from; mob < to; mob++) {
+            int room = rooms.get(mob);
+            int next = room;
+
+            if (!occupancy.has(room, Occupancy.PLAYER)) {
+                if (chasing.get(mob) != 0) {
+                    next = flowField.nextHop(room);
+                } else {
+                    next = wander(room, turnSeed, mob);
+                }
+            }
+
+            nexts[mob] = next;
+        }
+    }
+
+    /**
+     * Picks a random adjacent room of a monster's room.
+     *
+     * @param	room	The index of the room.
+     * @param	turnSeed	The seed of the stream of the turn.
+     * @param	mob	The number of the monster, its position in the stream.
+     * @return	The index of the adjacent room, or the room itself if it has no passage.
+     */
+    private int wander(int room, long turnSeed, int mob) {
+        int passages = grid.getPassageMask(room);
+        int cnt = Integer.bitCount(passages);
+
+        if (cnt == 0) {
+            return room;
+        }
+
+// Skip to the chosen passage, in direction order
+        for (int skip = MazeRandom.nextInt(turnSeed, mob, cnt); skip > 0; skip--) {
+            passages &= passages - 1;
+        }
+
+        return grid.neighbour(room, Integer.numberOfTrailingZeros(passages));
+    }
+
+    /**
+     * Moves every monster to the room it decided to move to, in order, recording the moves as
+     * events of the turn.
+     *
+     * @param	occupancy	The occupancy of the maze.
+     * @param	sightIndex	The line of sight index of the monsters.
+     * @param	events	The events of the turn.
+     */
+    public void apply(Occupancy occupancy, LineOfSightIndex sightIndex, TurnEvents events) {
+        for (int mob = 0; mob < size; mob++) {
+            int room = rooms.get(mob);
+            int next = nexts[mob];
+
+            if (next != room) {
+                occupancy.moveMob(room, next);
+                sightIndex.move(mob, next);
+                events.add(TurnEvents.MOVED, mob, room, next);
+                rooms.set(mob, next);
+            }
+        }
+    }
+
+    /**
+     * @param	mob	The number of a monster.
+     * @return	The index of the room of the monster.
+     */
+    public int getRoom(int mob) {
+        return rooms.get(mob);
+    }
+
+    /**
+     * @param	mob	The number of a monster.
+     * @return	The index of the room the monster decided to move to.
+     */
+    public int getNext(int mob) {
+        return nexts[mob];
+    }
+
+    /**
+     * @param	mob	The number of a monster.
+     * @return	True if the monster is chasing the player.
+     */
+    public boolean isChasing(int mob) {
+        return chasing.get(mob) != 0;
+    }
+
+    /**
+     * @param	mob	The number of a monster.
+     * @param	value	True if the monster is chasing the player.
+     */
+    public void setChasing(int mob, boolean value) {
+        if (isChasing(mob) != value) {
+            chasing.set(mob, (byte) (value ? 1 : 0));
+        }
+    }
+
+    /**
+     * @return	The number of monsters.
+     */
+    public int size() {
+        return size;
+    }
+
+    /**
+     * @return	The number of pages of rooms and chasing flags owned by the horde, written since it
+     * was created or last forked.
+     */
+    int getOwnedPages() {
+        return rooms.getOwnedPages() + chasing.getOwnedPages();
+    }
+}
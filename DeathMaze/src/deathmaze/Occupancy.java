@@ -0,0 +1,206 @@
+package deathmaze;
+
+/**
+ * <h1>Occupancy</h1>
+ * This class keeps what occupies every room of a maze: the player, the monsters, the key, and the
+ * exit. Every room has a byte of bits, one per kind of occupant, and a count of the monsters in it,
+ * since any number of monsters can share a room, packed together in an int. Whether a room holds
+ * something is answered in constant time, without searching the list of monsters.
+ * <p>
+ * The occupancy is the one record of where things are in the maze, used by the rules of the game
+ * and by the map. The occupants don't overwrite each other, so a monster walking over the key or
+ * the exit doesn't erase it.
+ * <p>
+ * The rooms are kept in a PagedIntArray, so the occupancy can be forked along with its maze, in
+ * time proportional to the number of pages.
+ *
+ * @author Fred Erlenbusch
+ * @version 1.0
+ * @since 2026-10-17
+ */
+public class Occupancy {
+
+    /**
+     * The bit of a room holding the player.
+     */
+    public static final int PLAYER = 1;
+    /**
+     * The bit of a room holding at least one monster.
+     */
+    public static final int MOB = 1 << 1;
+    /**
+     * The bit of a room holding the key.
+     */
+    public static final int KEY = 1 << 2;
+    /**
+     * The bit of a room holding the exit.
+     */
+    public static final int EXIT = 1 << 3;
+
+    /**
+     * The mask of the occupancy bits of a room.
+     */
+    private static final int BITS = 0xff;
+    /**
+     * The shift of the number of monsters of a room.
+     */
+    private static final int COUNT_SHIFT = 8;
+    /**
+     * The most monsters a room can hold.
+     */
+    private static final int MAX_MOBS = Integer.MAX_VALUE >>> COUNT_SHIFT;
+
+    /**
+     * The occupancy bits, and above them the number of monsters, of every room.
+     */
+    private final PagedIntArray rooms;
+
+    /**
+     * The constructor for this class. All the rooms are empty.
+     *
+     * @param	rooms	The number of rooms in the maze.
+     */
+    public Occupancy(int rooms) {
+        this.rooms = new PagedIntArray(rooms, 0);
+    }
+
+    /**
+     * The constructor for a fork of an occupancy.
+     *
+     * @param	rooms	The forked rooms.
+     */
+    private Occupancy(PagedIntArray rooms) {
+        this.rooms = rooms;
+    }
+
+    /**
+     * Forks the occupancy. Neither occupancy sees the changes made to the other afterwards.
+     *
+     * @return	The fork.
+     */
+    public Occupancy fork() {
+        return new Occupancy(rooms.fork());
+    }
+
+    /**
+     * @param	room	The index of a room.
+     * @param	occupant	The bit, or bits, of the occupants to test for.
+     * @return	True if the room holds any of the occupants.
+     */
+    public boolean has(int room, int occupant) {
+        return (rooms.get(room) & occupant) != 0;
+    }
+
+    /**
+     * @param	room	The index of a room.
+     * @return	True if nothing occupies the room.
+     */
+    public boolean isEmpty(int room) {
+        return (rooms.get(room) & BITS) == 0;
+    }
+
+    /**
+     * @param	room	The index of a room.
+     * @return	The occupancy bits of the room.
+     */
+    public int getBits(int room) {
+        return rooms.get(room) & BITS;
+    }
+
+    /**
+     * Places or removes the player, the key, or the exit in a room.
+     *
+     * @param	room	The index of the room.
+     * @param	occupant	The bit of the occupant, not MOB.
+     * @param	value	True to place the occupant, false to remove it.
+     */
+    public void set(int room, int occupant, boolean value) {
+        if (occupant == MOB) {
+            throw new IllegalArgumentException("Monsters are counted with addMob and removeMob");
+        }
+
+        int bits = rooms.get(room);
+        rooms.set(room, value ? bits | occupant : bits & ~occupant);
+    }
+
+    /**
+     * Moves the player, the key, or the exit from one room to another.
+     *
+     * @param	from	The index of the room the occupant leaves, or -1 if it's new.
+     * @param	to	The index of the room the occupant enters, or -1 if it's removed.
+     * @param	occupant	The bit of the occupant, not MOB.
+     */
+    public void move(int from, int to, int occupant) {
+        if (from >= 0) {
+            set(from, occupant, false);
+        }
+
+        if (to >= 0) {
+            set(to, occupant, true);
+        }
+    }
+
+    /**
+     * Adds a monster to a room.
+     *
+     * @param	room	The index of the room.
+     */
+    public void addMob(int room) {
+        int bits = rooms.get(room);
+
+        if (bits >>> COUNT_SHIFT == MAX_MOBS) {
+            throw new IllegalStateException("Too many monsters in room " + room);
+        }
+
+        rooms.set(room, (bits + (1 << COUNT_SHIFT)) | MOB);
+    }
+
+    /**
+     * Removes a monster from a room.
+     *
+     * @param	room	The index of the room.
+     */
+    public void removeMob(int room) {
+        int bits = rooms.get(room) - (1 << COUNT_SHIFT);
+
+        if (bits < 0) {
+            throw new IllegalStateException("No monster in room " + room);
+        }
+
+        rooms.set(room, bits >>> COUNT_SHIFT == 0 ? bits & ~MOB : bits);
+    }
+
+    /**
+     * Moves a monster from one room to another.
+     *
+     * @param	from	The index of the room the monster leaves.
+     * @param	to	The index of the room the monster enters.
+     */
+    public void moveMob(int from, int to) {
+        removeMob(from);
+        addMob(to);
+    }
+
+    /**
+     * @param	room	The index of a room.
+     * @return	The number of monsters in the room.
+     */
+    public int getMobCount(int room) {
+        return rooms.get(room) >>> COUNT_SHIFT;
+    }
+
+    /**
+     * @return	The number of rooms in the maze.
+     */
+    public int size() {
+        return rooms.size();
+    }
+
+    /**
+     * @return	The number of pages of rooms owned by the occupancy, written since it was created
+     * or last forked.
+     */
+    int getOwnedPages() {
+        return rooms.getOwnedPages();
+    }
+}
@@ -0,0 +1,425 @@
+package deathmaze;
+
+import java.nio.LongBuffer;
+
+/**
+ * <h1>PackedGrid</h1>
+ * This class is a compact, primitive backing store for the rooms and walls of a maze. Rather than
+ * one Cell object per room and one Wall object per edge, every room is addressed by its index
+ * (<code>y * width + x</code>) and the grid keeps:
+ * <ul>
+ * <li>two bits per room for the passages to the East and to the South of it (the North and West
+ * passages of a room are the South and East passages of its neighbours), and</li>
+ * <li>one byte of flags per room.</li>
+ * </ul>
+ * Cell and Wall instances attached to a PackedGrid are light weight views that read and write
+ * through to this store.
+ * <p>
+ * The flags are kept in a PagedByteArray, so a grid can be forked cheaply: the fork shares the
+ * passages, which don't change once the maze is carved, and the pages of flags until either grid
+ * writes to them. The passages of a grid that has been forked, or of a fork, can't be changed.
+ *
+ * @author Fred Erlenbusch
+ * @version 1.0
+ * @since 2026-10-17
+ */
+public class PackedGrid {
+
+    /**
+     * The direction North of a room.
+     */
+    public static final int NORTH = 0;
+    /**
+     * The direction West of a room.
+     */
+    public static final int WEST = 1;
+    /**
+     * The direction South of a room.
+     */
+    public static final int SOUTH = 2;
+    /**
+     * The direction East of a room.
+     */
+    public static final int EAST = 3;
+    /**
+     * The flag for a room that is part of the maze.
+     */
+    public static final int PART_OF_MAZE = 1;
+    /**
+     * The flag for a room that has been visited/seen by the player.
+     */
+    public static final int VISITED = 1 << 1;
+
+    /**
+     * The number of rooms wide of the grid.
+     */
+    private final int width;
+    /**
+     * The number of rooms tall of the grid.
+     */
+    private final int height;
+    /**
+     * The number of rooms of the grid.
+     */
+    private final int size;
+    /**
+     * The passage bits of the grid. Bit <code>2 * index</code> is the East passage and bit
+     * <code>2 * index + 1</code> is the South passage of the room at index.
+     */
+    private final long[] passages;
+    /**
+     * The flags of every room of the grid.
+     */
+    private final PagedByteArray flags;
+    /**
+     * True if the passage bits are shared with a fork.
+     */
+    private boolean passagesShared;
+
+    /**
+     * The constructor for this class. All the walls of a new grid are closed, and no flags are
+     * set.
+     *
+     * @param	width	The number of rooms wide of the grid.
+     * @param	height	The number of rooms tall of the grid.
+     */
+    public PackedGrid(int width, int height) {
+        if (width < 1 || height < 1 || (long) width * height > Integer.MAX_VALUE - 8) {
+            throw new IllegalArgumentException("Invalid grid size: " + width + "x" + height);
+        }
+
+        this.width = width;
+        this.height = height;
+        this.size = width * height;
+        this.passages = new long[(int) (((long) width * height * 2 + 63) >>> 6)];
+        this.flags = new PagedByteArray(size, (byte) 0);
+    }
+
+    /**
+     * The constructor for a fork of a grid.
+     *
+     * @param	grid	The grid forked.
+     */
+    private PackedGrid(PackedGrid grid) {
+        this.width = grid.width;
+        this.height = grid.height;
+        this.size = grid.size;
+        this.passages = grid.passages;
+        this.flags = grid.flags.fork();
+        this.passagesShared = true;
+    }
+
+    /**
+     * Forks the grid, in time proportional to the number of pages of flags. The fork shares the
+     * passages of the grid, and neither grid sees the flags set in the other afterwards.
+     *
+     * @return	The fork.
+     */
+    public PackedGrid fork() {
+        passagesShared = true;
+        return new PackedGrid(this);
+    }
+
+    /**
+     * Determines the index of a room from its coordinates.
+     *
+     * @param	x	The x coordinate of the room.
+     * @param	y	The y coordinate of the room.
+     * @return	The index of the room.
+     */
+    public int index(int x, int y) {
+        return y * width + x;
+    }
+
+    /**
+     * @param	index	The index of a room.
+     * @return	The x coordinate of the room.
+     */
+    public int getX(int index) {
+        return index % width;
+    }
+
+    /**
+     * @param	index	The index of a room.
+     * @return	The y coordinate of the room.
+     */
+    public int getY(int index) {
+        return index / width;
+    }
+
+    /**
+     * @return	The number of rooms in the grid.
+     */
+    public int size() {
+        return size;
+    }
+
+    /**
+     * Determines the index of the room next to a given room.
+     *
+     * @param	index	The index of the room.
+     * @param	direction	The direction of the neighbour.
+     * @return	The index of the neighbour, or -1 if the room is on the border of the grid.
+     */
+    public int neighbour(int index, int direction) {
+        switch (direction) {
+            case NORTH:
+                return index >= width ? index - width : -1;
+            case WEST:
+                return index % width != 0 ? index - 1 : -1;
+            case SOUTH:
+                return index < size - width ? index + width : -1;
+            case EAST:
+                return index % width != width - 1 ? index + 1 : -1;
+            default:
+                throw new IllegalArgumentException("Invalid direction: " + direction);
+        }
+    }
+
+    /**
+     * Determines if the wall of a room in a given direction is a passage.
+     *
+     * @param	index	The index of the room.
+     * @param	direction	The direction of the wall.
+     * @return	True if the wall is a passage.
+     */
+    public boolean isPassage(int index, int direction) {
+        int bit = passageBit(index, direction);
+        return bit >= 0 && (passages[bit >>> 6] & (1L << bit)) != 0;
+    }
+
+    /**
+     * Opens or closes the wall of a room in a given direction. Walls on the border of the grid can
+     * not be opened.
+     *
+     * @param	index	The index of the room.
+     * @param	direction	The direction of the wall.
+     * @param	passage	True to open the wall, false to close it.
+     */
+    public void setPassage(int index, int direction, boolean passage) {
+        int bit = passageBit(index, direction);
+
+        if (passagesShared) {
+            throw new IllegalStateException("The passages of a forked grid can't be changed");
+        } else if (bit < 0) {
+            if (passage) {
+                throw new IllegalArgumentException("Can't open a border wall");
+            }
+        } else if (passage) {
+            passages[bit >>> 6] |= 1L << bit;
+        } else {
+            passages[bit >>> 6] &= ~(1L << bit);
+        }
+    }
+
+    /**
+     * Determines the passages of a room at once, without allocating.
+     *
+     * @param	index	The index of the room.
+     * @return	The passages of the room, bit <code>1 &lt;&lt; direction</code> set for every
+     * direction with a passage.
+     */
+    public int getPassageMask(int index) {
+        int mask = 0;
+
+        for (int direction = NORTH; direction <= EAST; direction++) {
+            if (isPassage(index, direction)) {
+                mask |= 1 << direction;
+            }
+        }
+
+        return mask;
+    }
+
+    /**
+     * Lists the rooms a character can move to from a given room, in direction order.
+     *
+     * @param	index	The index of the room.
+     * @param	rooms	The array the indices of the adjacent rooms are written to, of length 4 or
+     * more.
+     * @return	The number of adjacent rooms.
+     */
+    public int getAdjRooms(int index, int[] rooms) {
+        int cnt = 0;
+
+        for (int direction = NORTH; direction <= EAST; direction++) {
+            if (isPassage(index, direction)) {
+                rooms[cnt++] = neighbour(index, direction);
+            }
+        }
+
+        return cnt;
+    }
+
+    /**
+     * Determines the bit holding the passage of a room's wall.
+     *
+     * @param	index	The index of the room.
+     * @param	direction	The direction of the wall.
+     * @return	The bit of the wall in the passage bits, or -1 if it's a border wall.
+     */
+    private int passageBit(int index, int direction) {
+        switch (direction) {
+            case NORTH:
+                return index >= width ? ((index - width) << 1) + 1 : -1;
+            case WEST:
+                return index % width != 0 ? (index - 1) << 1 : -1;
+            case SOUTH:
+                return index < size - width ? (index << 1) + 1 : -1;
+            case EAST:
+                return index % width != width - 1 ? index << 1 : -1;
+            default:
+                throw new IllegalArgumentException("Invalid direction: " + direction);
+        }
+    }
+
+    /**
+     * @param	index	The index of a room.
+     * @param	flag	The flag to be tested.
+     * @return	True if the flag is set for the room.
+     */
+    public boolean hasFlag(int index, int flag) {
+        return (flags.get(index) & flag) != 0;
+    }
+
+    /**
+     * @param	index	The index of a room.
+     * @param	flag	The flag to be set or cleared.
+     * @param	value	True to set the flag, false to clear it.
+     */
+    public void setFlag(int index, int flag, boolean value) {
+        int roomFlags = flags.get(index);
+        int newFlags = value ? roomFlags | flag : roomFlags & ~flag;
+
+        if (newFlags != roomFlags) {
+            flags.set(index, (byte) newFlags);
+        }
+    }
+
+    /**
+     * Counts the rooms with a flag set.
+     *
+     * @param	flag	The flag to be counted.
+     * @return	The number of rooms with the flag set.
+     */
+    public int countFlag(int flag) {
+        int cnt = 0;
+
+        for (int index = 0; index < size; index++) {
+            if ((flags.get(index) & flag) != 0) {
+                cnt++;
+            }
+        }
+
+        return cnt;
+    }
+
+    /**
+     * Counts the passages of the grid.
+     *
+     * @return	The number of walls that are passages.
+     */
+    public long countPassages() {
+        long cnt = 0;
+
+        for (long word : passages) {
+            cnt += Long.bitCount(word);
+        }
+
+        return cnt;
+    }
+
+    /**
+     * @return	The number of longs holding the passage bits.
+     */
+    int getPassageWords() {
+        return passages.length;
+    }
+
+    /**
+     * Writes the passage bits to a buffer in bulk.
+     *
+     * @param	buffer	The buffer the passage bits are written to.
+     */
+    void writePassages(LongBuffer buffer) {
+        buffer.put(passages);
+    }
+
+    /**
+     * Reads the passage bits from a buffer in bulk.
+     *
+     * @param	buffer	The buffer the passage bits are read from.
+     */
+    void readPassages(LongBuffer buffer) {
+        buffer.get(passages);
+    }
+
+    /**
+     * Writes a flag of every room to a buffer as a bit set, bit <code>index</code> being the flag
+     * of the room at index.
+     *
+     * @param	flag	The flag to be written.
+     * @param	buffer	The buffer the bit set is written to.
+     */
+    void writeFlagBits(int flag, LongBuffer buffer) {
+        long[] bits = new long[(size + 63) >>> 6];
+
+        for (int index = 0; index < size; index++) {
+            if ((flags.get(index) & flag) != 0) {
+                bits[index >>> 6] |= 1L << index;
+            }
+        }
+
+        buffer.put(bits);
+    }
+
+    /**
+     * Reads a flag of every room from a bit set in a buffer.
+     *
+     * @param	flag	The flag to be read.
+     * @param	buffer	The buffer the bit set is read from.
+     */
+    void readFlagBits(int flag, LongBuffer buffer) {
+        long[] bits = new long[(size + 63) >>> 6];
+
+        buffer.get(bits);
+
+        for (int index = 0; index < size; index++) {
+            setFlag(index, flag, (bits[index >>> 6] & (1L << index)) != 0);
+        }
+    }
+
+    /**
+     * Determines the number of bytes used by the arrays of this grid.
+     *
+     * @return	The size of the grid's data in bytes.
+     */
+    public long getDataSize() {
+        return passages.length * 8L + size;
+    }
+
+    /*
+* ------------------------- Getters and Setters -------------------------
+     */
+    /**
+     * @return the width
+     */
+    public int getWidth() {
+        return width;
+    }
+
+    /**
+     * @return the height
+     */
+    public int getHeight() {
+        return height;
+    }
+
+    /**
+     * @return	The number of pages of flags owned by the grid, written since it was created or
+     * last forked.
+     */
+    int getOwnedPages() {
+        return flags.getOwnedPages();
+    }
+}
@@ -0,0 +1,169 @@
+package deathmaze;
+
+import java.util.Arrays;
+
+/**
+ * <h1>PagedByteArray</h1>
+ * This class is an array of bytes stored in fixed size pages, which can be forked in time
+ * proportional to its number of pages, rather than its number of elements. A fork shares all its
+ * pages with the array it was forked from, and whichever of them writes to a shared page first gets
+ * its own copy of the page. Forking and then changing a few elements only copies the pages of those
+ * elements.
+ * <p>
+ * Every array knows which of its pages it owns, the pages no other array refers to, and only writes
+ * to those in place. The pages not written since the array was created are all the same shared
+ * page of the initial value, so a large array only takes memory for the pages written to. Forking
+ * gives up the ownership of all the pages of the array, so it must not run while the array is used
+ * by another thread, but the array and its forks can then be used by different threads.
+ *
+ * @author Fred Erlenbusch
+ * @version 1.0
+ * @since 2026-10-17
+ */
+public class PagedByteArray {
+
+    /**
+     * The base 2 logarithm of the number of elements of a page.
+     */
+    static final int PAGE_SHIFT = 12;
+    /**
+     * The number of elements of a page.
+     */
+    static final int PAGE_SIZE = 1 << PAGE_SHIFT;
+    /**
+     * The mask of the position of an element in its page.
+     */
+    private static final int PAGE_MASK = PAGE_SIZE - 1;
+
+    /**
+     * The page of the initial value, shared by all the pages never written to.
+     */
+    private final byte[] initialPage;
+    /**
+     * The pages of the array.
+     */
+    private byte[][] pages;
+    /**
+     * The pages owned by the array, the only pages it writes to, or null for the pages shared with
+     * other arrays.
+     */
+    private byte[][] owned;
+    /**
+     * The number of elements of the array.
+     */
+    private int size;
+
+    /**
+     * The constructor for this class.
+     *
+     * @param	size	The number of elements of the array.
+     * @param	initialValue	The value of every element of the new array.
+     */
+    public PagedByteArray(int size, byte initialValue) {
+        this.initialPage = new byte[PAGE_SIZE];
+        this.pages = new byte[0][];
+        this.owned = new byte[0][];
+
+        Arrays.fill(initialPage, initialValue);
+        grow(size);
+    }
+
+    /**
+     * The constructor for a fork of an array, sharing all its pages.
+     *
+     * @param	array	The array forked.
+     */
+    private PagedByteArray(PagedByteArray array) {
+        this.initialPage = array.initialPage;
+        this.pages = array.pages.clone();
+        this.owned = new byte[pages.length][];
+        this.size = array.size;
+    }
+
+    /**
+     * Forks the array. Neither the array nor the fork sees the changes made to the other afterwards.
+     *
+     * @return	The fork.
+     */
+    public PagedByteArray fork() {
+        Arrays.fill(owned, null);
+        return new PagedByteArray(this);
+    }
+
+    /**
+     * @param	index	The index of an element.
+     * @return	The value of the element.
+     */
+    public byte get(int index) {
+        return pages[index >>> PAGE_SHIFT][index & PAGE_MASK];
+    }
+
+    /**
+     * @param	index	The index of an element.
+     * @param	value	The new value of the element.
+     */
+    public void set(int index, byte value) {
+        byte[] page = owned[index >>> PAGE_SHIFT];
+
+        if (page == null) {
+            page = own(index >>> PAGE_SHIFT);
+        }
+
+        page[index & PAGE_MASK] = value;
+    }
+
+    /**
+     * Copies a page shared with other arrays, so the array can write to it.
+     *
+     * @param	page	The number of the page.
+     * @return	The array's own copy of the page.
+     */
+    private byte[] own(int page) {
+        byte[] copy = pages[page].clone();
+
+        pages[page] = copy;
+        owned[page] = copy;
+        return copy;
+    }
+
+    /**
+     * Grows the array. The elements added have the initial value.
+     *
+     * @param	newSize	The new number of elements, no less than the current number.
+     */
+    public void grow(int newSize) {
+        int pageCnt = (newSize + PAGE_MASK) >>> PAGE_SHIFT;
+
+        if (pageCnt > pages.length) {
+            int oldCnt = pages.length;
+
+            pages = Arrays.copyOf(pages, pageCnt);
+            owned = Arrays.copyOf(owned, pageCnt);
+            Arrays.fill(pages, oldCnt, pageCnt, initialPage);
+        }
+
+        size = Math.max(size, newSize);
+    }
+
+    /**
+     * @return	The number of elements of the array.
+     */
+    public int size() {
+        return size;
+    }
+
+    /**
+     * @return	The number of pages owned by the array.
+     */
+    public int getOwnedPages() {
+        int cnt = 0;
+
+        for (byte[] page : owned) {
+            if (page != null) {
+                cnt++;
+            }
+        }
+
+        return cnt;
+    }
+}
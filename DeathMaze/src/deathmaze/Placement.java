@@ -0,0 +1,185 @@
+package deathmaze;
+
+import java.util.Random;
+import java.util.function.IntPredicate;
+
+/**
+ * <h1>Placement</h1>
+ * This class places the characters, the exit, and the key in the rooms of a maze. Instead of
+ * picking random rooms until one passes a check, the rooms meeting a constraint (on the border, in
+ * the far half of the maze, far enough from the player) are gathered once into a CandidateSet, and
+ * random rooms are drawn from the set by swapping them out of it. A room taken by one placement
+ * stays in the other sets, and is dropped from them the first time it's drawn, so every room of a
+ * set is looked at most once and placing n things costs O(n) on top of building the sets.
+ *
+ * @author Fred Erlenbusch
+ * @version 1.0
+ * @since 2026-10-17
+ */
+public class Placement {
+
+    /**
+     * The grid of the maze.
+     */
+    private final PackedGrid grid;
+    /**
+     * The random number generator used to draw rooms.
+     */
+    private final Random rand;
+    /**
+     * The rooms already taken, one bit per room.
+     */
+    private final long[] taken;
+
+    /**
+     * The constructor for this class. No rooms are taken.
+     *
+     * @param	grid	The grid of the maze, already carved.
+     * @param	rand	The random number generator used to draw rooms.
+     */
+    public Placement(PackedGrid grid, Random rand) {
+        this.grid = grid;
+        this.rand = rand;
+        this.taken = new long[(grid.size() + 63) >>> 6];
+    }
+
+    /**
+     * Marks a room as taken.
+     *
+     * @param	room	The index of the room.
+     */
+    public void take(int room) {
+        taken[room >>> 6] |= 1L << room;
+    }
+
+    /**
+     * @param	room	The index of a room.
+     * @return	True if the room has been taken.
+     */
+    public boolean isTaken(int room) {
+        return (taken[room >>> 6] & (1L << room)) != 0;
+    }
+
+    /**
+     * Gathers the free rooms of the maze meeting a constraint.
+     *
+     * @param	constraint	The constraint on the index of the rooms.
+     * @return	The set of rooms.
+     */
+    public CandidateSet candidates(IntPredicate constraint) {
+        CandidateSet set = new CandidateSet(grid.size());
+
+        for (int room = 0; room < grid.size(); room++) {
+            if (isFree(room) && constraint.test(room)) {
+                set.add(room);
+            }
+        }
+
+        return set;
+    }
+
+    /**
+     * Gathers the free rooms on the border of the maze, looking only at the border.
+     *
+     * @return	The set of rooms.
+     */
+    public CandidateSet border() {
+        return border(room -> true);
+    }
+
+    /**
+     * Gathers the free rooms on the border of the maze meeting a constraint, looking only at the
+     * border.
+     *
+     * @param	constraint	The constraint on the index of the rooms.
+     * @return	The set of rooms.
+     */
+    public CandidateSet border(IntPredicate constraint) {
+        int width = grid.getWidth();
+        int height = grid.getHeight();
+        CandidateSet set = new CandidateSet(2 * (width + height));
+
+        for (int room = 0; room < grid.size(); room++) {
+            int y = room / width;
+            int x = room - y * width;
+
+            if (y > 0 && y < height - 1 && x == 1 && width > 2) {
+                room += width - 3;
+            } else if (isFree(room) && constraint.test(room)) {
+                set.add(room);
+            }
+        }
+
+        return set;
+    }
+
+    /**
+     * Draws a random free room from a set of candidates and takes it. Rooms of the set found taken
+     * are dropped from it.
+     *
+     * @param	set	The set of candidates.
+     * @return	The index of the room, or -1 if the set has no free room left.
+     */
+    public int takeRandom(CandidateSet set) {
+        while (set.size > 0) {
+            int i = rand.nextInt(set.size);
+            int room = set.rooms[i];
+            set.rooms[i] = set.rooms[--set.size];
+
+            if (!isTaken(room)) {
+                take(room);
+                return room;
+            }
+        }
+
+        return -1;
+    }
+
+    /**
+     * @param	room	The index of a room.
+     * @return	True if the room is part of the maze and hasn't been taken.
+     */
+    private boolean isFree(int room) {
+        return grid.hasFlag(room, PackedGrid.PART_OF_MAZE) && !isTaken(room);
+    }
+
+    /**
+     * <h1>CandidateSet</h1>
+     * A set of rooms to draw from, packed at the start of an array.
+     */
+    public static final class CandidateSet {
+
+        /**
+         * The indexes of the rooms in the set.
+         */
+        private final int[] rooms;
+        /**
+         * The number of rooms in the set.
+         */
+        private int size;
+
+        /**
+         * The constructor for this class.
+         *
+         * @param	capacity	The maximum number of rooms in the set.
+         */
+        private CandidateSet(int capacity) {
+            this.rooms = new int[capacity];
+            this.size = 0;
+        }
+
+        /**
+         * @param	room	The index of the room to be added.
+         */
+        private void add(int room) {
+            rooms[size++] = room;
+        }
+
+        /**
+         * @return	The number of rooms in the set, including taken rooms not yet dropped.
+         */
+        public int size() {
+            return size;
+        }
+    }
+}
@@ -0,0 +1,33 @@
+package deathmaze;
+
+import java.util.Random;
+
+/**
+ * <h1>PlayerPolicy</h1>
+ * This interface is implemented by the scripted players of the simulations. A policy looks at a
+ * game and picks the player's next move, the way the player does with the buttons of the game. A
+ * policy is shared by all the games of a simulation, running on several threads at once, so it
+ * must keep no state of its own, and draw any randomness from the generator it's given.
+ *
+ * @author Fred Erlenbusch
+ * @version 1.0
+ * @since 2026-10-17
+ *
+ * @see	SimulationRunner
+ */
+public interface PlayerPolicy {
+
+    /**
+     * @return	The name of the policy, as shown in reports.
+     */
+    String getName();
+
+    /**
+     * Picks the player's next move.
+     *
+     * @param	maze	The game being played.
+     * @param	rand	The random number generator of the game's player.
+     * @return	The move, as given to Maze.movePlayer: N, W, S, or E.
+     */
+    String nextMove(Maze maze, Random rand);
+}
@@ -0,0 +1,80 @@
+package deathmaze;
+
+import java.util.Random;
+
+/**
+ * <h1>PrimGenerator</h1>
+ * This class carves a maze with Prim's minimum spanning tree algorithm, growing the maze from the
+ * start room by opening random walls on its frontier. The frontier holds each wall once, and walls
+ * leading back into the maze are dropped when they're picked, so the maze is carved in linear
+ * time.
+ *
+ * @author Fred Erlenbusch
+ * @version 1.0
+ * @since 2026-10-17
+ */
+public class PrimGenerator implements MazeGenerator {
+
+    /**
+     * @return	The name of the algorithm.
+     */
+    @Override
+    public String getName() {
+        return "Prim";
+    }
+
+    /**
+     * Carves the passages into the grid.
+     *
+     * @param	grid	The grid to be carved.
+     * @param	start	The index of the room the maze is grown from.
+     * @param	rand	The random number generator used to pick the walls.
+     */
+    @Override
+    public void generate(PackedGrid grid, int start, Random rand) {
+        WallFrontier walls = new WallFrontier(grid.size());
+
+        addToMaze(grid, walls, start);
+
+        while (!walls.isEmpty()) {
+            int current = walls.removeRandom(rand);
+            int side1 = WallFrontier.room(current);
+            int direction = WallFrontier.direction(current);
+            int side2 = grid.neighbour(side1, direction);
+
+            if (!grid.hasFlag(side1, PackedGrid.PART_OF_MAZE)) {
+                grid.setPassage(side1, direction, true);
+                addToMaze(grid, walls, side1);
+            } else if (!grid.hasFlag(side2, PackedGrid.PART_OF_MAZE)) {
+                grid.setPassage(side1, direction, true);
+                addToMaze(grid, walls, side2);
+            }
+        }
+    }
+
+    /**
+     * Adds a room to the maze and the walls between it and the rooms not yet part of the maze to
+     * the frontier.
+     *
+     * @param	grid	The grid being carved.
+     * @param	walls	The frontier of the maze.
+     * @param	room	The index of the room.
+     */
+    private void addToMaze(PackedGrid grid, WallFrontier walls, int room) {
+        grid.setFlag(room, PackedGrid.PART_OF_MAZE, true);
+
+        for (int direction = PackedGrid.NORTH; direction <= PackedGrid.EAST; direction++) {
+            int other = grid.neighbour(room, direction);
+
+            if (other != -1 && !grid.hasFlag(other, PackedGrid.PART_OF_MAZE)) {
+                if (direction == PackedGrid.NORTH) {
+                    walls.add(WallFrontier.wallId(other, PackedGrid.SOUTH));
+                } else if (direction == PackedGrid.WEST) {
+                    walls.add(WallFrontier.wallId(other, PackedGrid.EAST));
+                } else {
+                    walls.add(WallFrontier.wallId(room, direction));
+                }
+            }
+        }
+    }
+}
@@ -0,0 +1,44 @@
+package deathmaze;
+
+import java.util.Random;
+
+/**
+ * <h1>RandomWalkPolicy</h1>
+ * This class is a player walking the maze at random, like the monsters do: every turn it steps
+ * through one of the passages of its room, picked at random. It never runs into walls, but knows
+ * nothing else of the maze.
+ *
+ * @author Fred Erlenbusch
+ * @version 1.0
+ * @since 2026-10-17
+ */
+public class RandomWalkPolicy implements PlayerPolicy {
+
+    /**
+     * @return	The name of the policy.
+     */
+    @Override
+    public String getName() {
+        return "Random walk";
+    }
+
+    /**
+     * Picks a random passage of the player's room.
+     *
+     * @param	maze	The game being played.
+     * @param	rand	The random number generator of the game's player.
+     * @return	The move through the passage.
+     */
+    @Override
+    public String nextMove(Maze maze, Random rand) {
+        int passages = maze.getPlayer().getPassageMask();
+        int cnt = Integer.bitCount(passages);
+
+// Skip to the chosen passage, in direction order
+        for (int skip = cnt > 0 ? rand.nextInt(cnt) : 0; skip > 0; skip--) {
+            passages &= passages - 1;
+        }
+
+        return Maze.toMove(cnt > 0 ? Integer.numberOfTrailingZeros(passages) : PackedGrid.NORTH);
+    }
+}
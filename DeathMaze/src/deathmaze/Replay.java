@@ -0,0 +1,304 @@
+package deathmaze;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.Arrays;
+
+/**
+ * <h1>Replay</h1>
+ * This class plays back a game recorded by a ReplayLog. Opening a journal reads its header and
+ * indexes its moves and snapshots in a single pass, and any turn of the game can then be restored:
+ * the last snapshot at or before the turn is loaded, and the moves after it are played again. With
+ * the default snapshot interval, no more than a few thousand moves are played to reach any turn.
+ * <p>
+ * A journal cut short, e.g. by the game being killed before its log was closed, is read up to its
+ * last whole record.
+ *
+ * @author Fred Erlenbusch
+ * @version 1.0
+ * @since 2026-10-17
+ */
+public class Replay {
+
+    /**
+     * The journal, mapped into memory.
+     */
+    private final ByteBuffer journal;
+    /**
+     * The name of the journal, for the error messages.
+     */
+    private final String source;
+    /**
+     * The width of the maze.
+     */
+    private final int width;
+    /**
+     * The height of the maze.
+     */
+    private final int height;
+    /**
+     * The number of monsters when the recording started.
+     */
+    private final int mobCnt;
+    /**
+     * The visibility range of the maze.
+     */
+    private final int visRange;
+    /**
+     * The seed of the maze.
+     */
+    private final long seed;
+    /**
+     * The number of moves between two snapshots.
+     */
+    private final int snapshotInterval;
+    /**
+     * The name of the generator of the maze, empty if it wasn't known.
+     */
+    private final String generatorName;
+    /**
+     * The moves of the player, one byte per turn.
+     */
+    private byte[] moves;
+    /**
+     * The number of moves.
+     */
+    private int turns;
+    /**
+     * The turns the snapshots were taken after, in increasing order.
+     */
+    private int[] snapshotTurns;
+    /**
+     * The position of every snapshot in the journal.
+     */
+    private int[] snapshotPositions;
+    /**
+     * The length of every snapshot in bytes.
+     */
+    private int[] snapshotLengths;
+    /**
+     * The number of snapshots.
+     */
+    private int snapshots;
+
+    /**
+     * The constructor for this class, indexing the moves and snapshots of a journal.
+     *
+     * @param	journal	The journal, read from its start.
+     * @param	source	The name of the journal.
+     * @throws	IOException	If the journal isn't a recorded game.
+     */
+    private Replay(ByteBuffer journal, String source) throws IOException {
+        this.journal = journal;
+        this.source = source;
+
+        if (journal.remaining() < 4 * 7 + 8 + 2 || journal.getInt() != ReplayLog.MAGIC) {
+            throw new IOException("Not a recorded game: " + source);
+        }
+
+        int version = journal.getInt();
+
+        if (version != ReplayLog.VERSION) {
+            throw new IOException("Unsupported recorded game version: " + version);
+        }
+
+        this.width = journal.getInt();
+        this.height = journal.getInt();
+        this.mobCnt = journal.getInt();
+        this.visRange = journal.getInt();
+        this.seed = journal.getLong();
+        this.snapshotInterval = journal.getInt();
+
+        byte[] name = new byte[journal.getShort() & 0xffff];
+
+        if (journal.remaining() < name.length) {
+            throw new IOException("Corrupt recorded game: " + source);
+        }
+
+        journal.get(name);
+        this.generatorName = new String(name, StandardCharsets.UTF_8);
+        this.moves = new byte[Math.max(16, journal.remaining())];
+        this.snapshotTurns = new int[16];
+        this.snapshotPositions = new int[16];
+        this.snapshotLengths = new int[16];
+
+        index();
+
+        if (snapshots == 0) {
+            throw new IOException("Corrupt recorded game: " + source);
+        }
+    }
+
+    /**
+     * Opens a journal written by a ReplayLog.
+     *
+     * @param	path	The path of the journal.
+     * @return	The replay of the recorded game.
+     * @throws	IOException	If the journal can't be read or isn't a recorded game.
+     */
+    public static Replay open(Path path) throws IOException {
+        try (FileChannel channel = FileChannel.open(path, StandardOpenOption.READ)) {
+            return new Replay(channel.map(FileChannel.MapMode.READ_ONLY, 0, channel.size()), path.toString());
+        }
+    }
+
+    /**
+     * Reads the records of the journal after the header, up to its end or its last whole record.
+     *
+     * @throws	IOException	If a record isn't a move or a snapshot.
+     */
+    private void index() throws IOException {
+        while (journal.hasRemaining()) {
+            byte record = journal.get();
+
+            if (record >= 0 && record <= ReplayLog.INVALID_MOVE) {
+                moves[turns++] = record;
+                continue;
+            } else if (record != ReplayLog.SNAPSHOT) {
+                throw new IOException("Corrupt recorded game: " + source);
+            }
+
+            if (journal.remaining() < 4 || journal.remaining() - 4 < journal.getInt(journal.position())) {
+                break;
+            }
+
+            int length = journal.getInt();
+
+            if (snapshots == snapshotTurns.length) {
+                snapshotTurns = Arrays.copyOf(snapshotTurns, snapshots * 2);
+                snapshotPositions = Arrays.copyOf(snapshotPositions, snapshots * 2);
+                snapshotLengths = Arrays.copyOf(snapshotLengths, snapshots * 2);
+            }
+
+            snapshotTurns[snapshots] = turns;
+            snapshotPositions[snapshots] = journal.position();
+            snapshotLengths[snapshots] = length;
+            snapshots++;
+            journal.position(journal.position() + length);
+        }
+    }
+
+    /**
+     * Restores the game as it was after a number of moves, from the last snapshot at or before the
+     * turn. The first snapshot is taken when the recording starts, so there always is one.
+     *
+     * @param	turn	The number of moves played, from 0 to the number of turns of the replay.
+     * @return	The game after the moves, with a null generator.
+     * @throws	IOException	If the snapshot is corrupt.
+     */
+    public Maze seek(int turn) throws IOException {
+        if (turn < 0 || turn > turns) {
+            throw new IndexOutOfBoundsException("Turn " + turn + " of " + turns);
+        }
+
+        int found = Arrays.binarySearch(snapshotTurns, 0, snapshots, turn);
+        int snapshot = found >= 0 ? found : -found - 2;
+        ByteBuffer slice = journal.duplicate();
+        slice.limit(snapshotPositions[snapshot] + snapshotLengths[snapshot]);
+        slice.position(snapshotPositions[snapshot]);
+
+        Maze maze = MazeSnapshot.decode(slice, source);
+        play(maze, snapshotTurns[snapshot], turn);
+
+        return maze;
+    }
+
+    /**
+     * Plays a range of the recorded moves in a game.
+     *
+     * @param	maze	The game, as it was before the first move of the range.
+     * @param	from	The first move of the range.
+     * @param	to	The move after the last of the range.
+     */
+    public void play(Maze maze, int from, int to) {
+        if (from < 0 || from > to || to > turns) {
+            throw new IndexOutOfBoundsException("Moves " + from + " to " + to + " of " + turns);
+        }
+
+        for (int turn = from; turn < to; turn++) {
+            maze.movePlayer(moves[turn] == ReplayLog.INVALID_MOVE ? "" : Maze.toMove(moves[turn]));
+        }
+    }
+
+    /*
+     * ------------------------- Getters and Setters -------------------------
+     */
+    /**
+     * @param	turn	The number of a move.
+     * @return	The direction of PackedGrid of the move, or -1 if it wasn't one.
+     */
+    public int getMove(int turn) {
+        if (turn < 0 || turn >= turns) {
+            throw new IndexOutOfBoundsException("Turn " + turn + " of " + turns);
+        }
+
+        return moves[turn] == ReplayLog.INVALID_MOVE ? -1 : moves[turn];
+    }
+
+    /**
+     * @return	The number of moves recorded.
+     */
+    public int getTurns() {
+        return turns;
+    }
+
+    /**
+     * @return	The number of snapshots recorded.
+     */
+    public int getSnapshots() {
+        return snapshots;
+    }
+
+    /**
+     * @return	The number of moves between two snapshots.
+     */
+    public int getSnapshotInterval() {
+        return snapshotInterval;
+    }
+
+    /**
+     * @return	The width of the maze.
+     */
+    public int getWidth() {
+        return width;
+    }
+
+    /**
+     * @return	The height of the maze.
+     */
+    public int getHeight() {
+        return height;
+    }
+
+    /**
+     * @return	The number of monsters when the recording started.
+     */
+    public int getMobCnt() {
+        return mobCnt;
+    }
+
+    /**
+     * @return	The visibility range of the maze.
+     */
+    public int getVisRange() {
+        return visRange;
+    }
+
+    /**
+     * @return	The seed of the maze.
+     */
+    public long getSeed() {
+        return seed;
+    }
+
+    /**
+     * @return	The name of the generator of the maze, empty if it wasn't known.
+     */
+    public String getGeneratorName() {
+        return generatorName;
+    }
+}
@@ -0,0 +1,280 @@
+package deathmaze;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.io.InterruptedIOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * <h1>ReplayLog</h1>
+ * This class records a game as a compact binary journal, to be replayed with Replay. The journal
+ * holds, in order:
+ * <ul>
+ * <li>a header: magic number, version, width, height, number of monsters, visibility range, seed,
+ * snapshot interval, and the name of the generator,</li>
+ * <li>a snapshot of the game when the recording started, and</li>
+ * <li>one byte per move of the player, with a snapshot of the game after every snapshot interval
+ * moves.</li>
+ * </ul>
+ * The game is deterministic: the monsters move with a random number generator seeded from the seed
+ * of the maze, whose state is part of every snapshot, so the moves of the player are all there is to
+ * record between two snapshots. The snapshots are in the format of MazeSnapshot, and let a replay
+ * start from the last snapshot before a turn rather than from the first turn.
+ * <p>
+ * The moves are collected into buffers on the thread playing the game, and the full buffers are
+ * written by a background thread, then handed back to be reused, so recording a move costs a byte
+ * in memory and no allocation or I/O on the game's thread.
+ *
+ * @author Fred Erlenbusch
+ * @version 1.0
+ * @since 2026-10-17
+ */
+public class ReplayLog implements Closeable {
+
+    /**
+     * The magic number at the start of a journal.
+     */
+    static final int MAGIC = 0x444d5250;
+    /**
+     * The version of the journal format.
+     */
+    static final int VERSION = 1;
+    /**
+     * The record of a move that wasn't a direction. The moves in a direction are recorded as the
+     * direction of PackedGrid.
+     */
+    static final byte INVALID_MOVE = 4;
+    /**
+     * The record of a snapshot, followed by the length of the snapshot and the snapshot.
+     */
+    static final byte SNAPSHOT = 5;
+    /**
+     * The default number of moves between two snapshots.
+     */
+    public static final int DEFAULT_SNAPSHOT_INTERVAL = 4096;
+
+    /**
+     * The size of the buffers of moves in bytes.
+     */
+    private static final int BUFFER_SIZE = 8192;
+    /**
+     * The number of written buffers kept for reuse.
+     */
+    private static final int FREE_BUFFERS = 4;
+
+    /**
+     * The game being recorded.
+     */
+    private final Maze maze;
+    /**
+     * The number of moves between two snapshots.
+     */
+    private final int snapshotInterval;
+    /**
+     * The channel of the journal.
+     */
+    private final FileChannel channel;
+    /**
+     * The single background thread writing the journal.
+     */
+    private final ExecutorService appender;
+    /**
+     * The written buffers, ready to be reused.
+     */
+    private final BlockingQueue<ByteBuffer> free;
+    /**
+     * The buffer collecting the moves.
+     */
+    private ByteBuffer buffer;
+    /**
+     * The number of moves recorded.
+     */
+    private int turns;
+    /**
+     * The first error writing the journal, thrown when the log is closed.
+     */
+    private volatile IOException failure;
+
+    /**
+     * The constructor for a log taking a snapshot every DEFAULT_SNAPSHOT_INTERVAL moves.
+     *
+     * @param	path	The path of the journal.
+     * @param	maze	The game to be recorded.
+     * @throws	IOException	If the journal can't be created.
+     */
+    public ReplayLog(Path path, Maze maze) throws IOException {
+        this(path, maze, DEFAULT_SNAPSHOT_INTERVAL);
+    }
+
+    /**
+     * The constructor for this class. The log starts recording the moves of the game, from its
+     * current state, until the log is closed.
+     *
+     * @param	path	The path of the journal.
+     * @param	maze	The game to be recorded.
+     * @param	snapshotInterval	The number of moves between two snapshots.
+     * @throws	IOException	If the journal can't be created.
+     */
+    public ReplayLog(Path path, Maze maze, int snapshotInterval) throws IOException {
+        if (snapshotInterval < 1) {
+            throw new IllegalArgumentException("Invalid snapshot interval: " + snapshotInterval);
+        }
+
+        this.maze = maze;
+        this.snapshotInterval = snapshotInterval;
+        this.channel = FileChannel.open(path, StandardOpenOption.CREATE,
+                StandardOpenOption.TRUNCATE_EXISTING, StandardOpenOption.WRITE);
+        this.appender = Executors.newSingleThreadExecutor(runnable -> {
+            Thread thread = new Thread(runnable, "replay-log");
+            thread.setDaemon(true);
+            return thread;
+        });
+        this.free = new ArrayBlockingQueue<>(FREE_BUFFERS);
+        this.buffer = ByteBuffer.allocate(BUFFER_SIZE);
+
+        writeHeader();
+        snapshot();
+        maze.setReplayLog(this);
+    }
+
+    /**
+     * Writes the header of the journal.
+     */
+    private void writeHeader() {
+        MazeGenerator generator = maze.getGenerator();
+        byte[] name = (generator == null ? "" : generator.getName()).getBytes(StandardCharsets.UTF_8);
+        ByteBuffer header = ByteBuffer.allocate(4 * 7 + 8 + 2 + name.length);
+
+        header.putInt(MAGIC).putInt(VERSION);
+        header.putInt(maze.getWidth()).putInt(maze.getHeight()).putInt(maze.getHorde().size());
+        header.putInt(maze.getVisRange()).putLong(maze.getSeed()).putInt(snapshotInterval);
+        header.putShort((short) name.length).put(name);
+        header.flip();
+        submit(header, false);
+    }
+
+    /**
+     * Records a move of the player, and takes a snapshot of the game every snapshot interval moves.
+     * Called by the maze once the move is played.
+     *
+     * @param	direction	The direction of PackedGrid of the move, or -1 if it wasn't one.
+     */
+    void append(int direction) {
+        buffer.put(direction < 0 ? INVALID_MOVE : (byte) direction);
+        turns++;
+
+        if (turns % snapshotInterval == 0) {
+            snapshot();
+        } else if (!buffer.hasRemaining()) {
+            flush();
+        }
+    }
+
+    /**
+     * Writes a snapshot of the current state of the game, after the moves recorded so far.
+     */
+    private void snapshot() {
+        ByteBuffer snapshot = MazeSnapshot.encode(maze);
+        ByteBuffer record = ByteBuffer.allocate(1 + 4 + snapshot.remaining());
+
+        record.put(SNAPSHOT).putInt(snapshot.remaining()).put(snapshot);
+        record.flip();
+        flush();
+        submit(record, false);
+    }
+
+    /**
+     * Hands the moves collected so far to the background thread, and takes a new buffer to collect
+     * the next moves.
+     */
+    private void flush() {
+        if (buffer.position() > 0) {
+            buffer.flip();
+            submit(buffer, true);
+
+            ByteBuffer reused = free.poll();
+            buffer = reused != null ? reused : ByteBuffer.allocate(BUFFER_SIZE);
+        }
+    }
+
+    /**
+     * Writes a buffer to the journal on the background thread, in the order the buffers are
+     * submitted.
+     *
+     * @param	written	The buffer, ready to be read from.
+     * @param	reuse	True if the buffer is to be reused once written.
+     */
+    private void submit(ByteBuffer written, boolean reuse) {
+        appender.execute(() -> {
+            try {
+                while (written.hasRemaining()) {
+                    channel.write(written);
+                }
+            } catch (IOException e) {
+                if (failure == null) {
+                    failure = e;
+                }
+            }
+
+            if (reuse) {
+                written.clear();
+                free.offer(written);
+            }
+        });
+    }
+
+    /**
+     * Stops recording the game, writes the moves not yet written, and closes the journal.
+     *
+     * @throws	IOException	If the journal couldn't be written.
+     */
+    @Override
+    public void close() throws IOException {
+        if (appender.isShutdown()) {
+            return;
+        }
+
+        maze.setReplayLog(null);
+        flush();
+        appender.shutdown();
+
+        try {
+            appender.awaitTermination(Long.MAX_VALUE, TimeUnit.NANOSECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new InterruptedIOException("Interrupted closing the replay log");
+        } finally {
+            channel.close();
+        }
+
+        if (failure != null) {
+            throw failure;
+        }
+    }
+
+    /*
+     * ------------------------- Getters and Setters -------------------------
+     */
+    /**
+     * @return	The number of moves recorded.
+     */
+    public int getTurns() {
+        return turns;
+    }
+
+    /**
+     * @return	The number of moves between two snapshots.
+     */
+    public int getSnapshotInterval() {
+        return snapshotInterval;
+    }
+}
@@ -0,0 +1,48 @@
+package deathmaze;
+
+import java.util.Random;
+
+/**
+ * <h1>ShortestPathPolicy</h1>
+ * This class is a player who knows the whole maze: it walks the shortest path to the key, then the
+ * shortest path to the exit, read from the TreeIndex of the maze. It ignores the monsters, so the
+ * games it loses measure how often the monsters are in the way.
+ *
+ * @author Fred Erlenbusch
+ * @version 1.0
+ * @since 2026-10-17
+ */
+public class ShortestPathPolicy implements PlayerPolicy {
+
+    /**
+     * @return	The name of the policy.
+     */
+    @Override
+    public String getName() {
+        return "Shortest path";
+    }
+
+    /**
+     * Picks the first move of the shortest path to the key, or to the exit once the key is found.
+     *
+     * @param	maze	The game being played.
+     * @param	rand	Not used by this policy.
+     * @return	The move along the path.
+     */
+    @Override
+    public String nextMove(Maze maze, Random rand) {
+        PackedGrid grid = maze.getPackedGrid();
+        Cell target = maze.getKey().getX() != -1 ? maze.getKey() : maze.getExit();
+        int room = grid.index(maze.getPlayer().getX(), maze.getPlayer().getY());
+        int next = maze.getTreeIndex().nextHop(room, grid.index(target.getX(), target.getY()));
+
+        for (int direction = PackedGrid.NORTH; direction <= PackedGrid.EAST; direction++) {
+            if (grid.neighbour(room, direction) == next) {
+                return Maze.toMove(direction);
+            }
+        }
+
+// Already on the target
+        return Maze.toMove(PackedGrid.NORTH);
+    }
+}
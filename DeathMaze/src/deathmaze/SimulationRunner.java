@@ -0,0 +1,287 @@
+package deathmaze;
+
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveTask;
+import java.util.function.Consumer;
+
+/**
+ * <h1>SimulationRunner</h1>
+ * This class plays games of Death Maze without the UI, with a scripted player, to tune the number
+ * of monsters and the visibility range. The games are independent, so they're split into ranges
+ * played in parallel on a ForkJoinPool. Every game is built from its own seed, the seed of the
+ * simulation plus the number of the game, so a simulation gives the same statistics on any number
+ * of cores.
+ * <p>
+ * The outcome of every game is aggregated into the statistics of its task as soon as the game
+ * ends, and may be handed to a listener, so a simulation of any number of games keeps no more than
+ * one game per thread in memory.
+ *
+ * @author Fred Erlenbusch
+ * @version 1.0
+ * @since 2026-10-17
+ */
+public class SimulationRunner {
+
+    /**
+     * The number of games played by a single task.
+     */
+    private static final int GAMES_PER_TASK = 4;
+
+    /**
+     * # of rooms width wise.
+     */
+    private final int width;
+    /**
+     * # of rooms height wise.
+     */
+    private final int height;
+    /**
+     * # of monsters in the maze.
+     */
+    private final int mobCnt;
+    /**
+     * How far character's can see from their current location.
+     */
+    private final int visRange;
+    /**
+     * The algorithm used to carve the passages of the mazes.
+     */
+    private final MazeGenerator generator;
+    /**
+     * The scripted player.
+     */
+    private final PlayerPolicy policy;
+    /**
+     * The most turns of a game before it's stopped.
+     */
+    private final int maxTurns;
+    /**
+     * The pool playing the games.
+     */
+    private final ForkJoinPool pool;
+
+    /**
+     * The constructor for this class.
+     *
+     * @param	width	# of rooms width wise
+     * @param	height	# of rooms height wise
+     * @param	mobCnt	# of monsters in the maze
+     * @param	visRange	How far character's can see from their current location
+     * @param	generator	The algorithm used to carve the passages of the mazes
+     * @param	policy	The scripted player
+     * @param	maxTurns	The most turns of a game before it's stopped
+     * @param	pool	The pool playing the games
+     */
+    public SimulationRunner(int width, int height, int mobCnt, int visRange, MazeGenerator generator,
+            PlayerPolicy policy, int maxTurns, ForkJoinPool pool) {
+        this.width = width;
+        this.height = height;
+        this.mobCnt = mobCnt;
+        this.visRange = visRange;
+        this.generator = generator;
+        this.policy = policy;
+        this.maxTurns = maxTurns;
+        this.pool = pool;
+    }
+
+    /**
+     * Plays a number of games.
+     *
+     * @param	games	The number of games.
+     * @param	seed	The seed of the simulation.
+     * @return	The statistics of the games.
+     */
+    public SimulationStats run(int games, long seed) {
+        return run(games, seed, null);
+    }
+
+    /**
+     * Plays a number of games, handing the outcome of every game to a listener.
+     *
+     * @param	games	The number of games.
+     * @param	seed	The seed of the simulation.
+     * @param	listener	The listener given the outcome of every game, called from the threads of
+     * the pool in no particular order, or null.
+     * @return	The statistics of the games.
+     */
+    public SimulationStats run(int games, long seed, Consumer<GameResult> listener) {
+        long start = System.nanoTime();
+        SimulationStats stats = pool.invoke(new Games(seed, 0, games, listener));
+
+        stats.setElapsedNanos(System.nanoTime() - start);
+        return stats;
+    }
+
+    /**
+     * Plays a game to its end, or until the most turns allowed.
+     *
+     * @param	seed	The seed of the game.
+     * @return	The outcome of the game.
+     */
+    public GameResult play(long seed) {
+        Maze maze = new Maze(width, height, mobCnt, visRange, generator, seed);
+        MazeRandom rand = new MazeRandom(MazeRandom.mix64(seed));
+        int turns = 0;
+
+        while (maze.getAlive() && !maze.getEscaped() && turns < maxTurns) {
+            maze.movePlayer(policy.nextMove(maze, rand));
+            turns++;
+        }
+
+        return new GameResult(maze.getEscaped(), !maze.getAlive(), turns,
+                maze.getPackedGrid().countFlag(PackedGrid.VISITED), maze.getPackedGrid().size());
+    }
+
+    /**
+     * <h1>Games</h1>
+     * The task playing a range of games, split in halves until the ranges are small enough.
+     */
+    private final class Games extends RecursiveTask<SimulationStats> {
+
+        /**
+         * Serialization version.
+         */
+        private static final long serialVersionUID = 1L;
+
+        /**
+         * The seed of the simulation.
+         */
+        private final long seed;
+        /**
+         * The first game of the range.
+         */
+        private final int from;
+        /**
+         * The game after the last of the range.
+         */
+        private final int to;
+        /**
+         * The listener given the outcome of every game, or null.
+         */
+        private final Consumer<GameResult> listener;
+
+        /**
+         * The constructor for this class.
+         *
+         * @param	seed	The seed of the simulation.
+         * @param	from	The first game of the range.
+         * @param	to	The game after the last of the range.
+         * @param	listener	The listener given the outcome of every game, or null.
+         */
+        private Games(long seed, int from, int to, Consumer<GameResult> listener) {
+            this.seed = seed;
+            this.from = from;
+            this.to = to;
+            this.listener = listener;
+        }
+
+        /**
+         * Plays the range of games, or splits it.
+         *
+         * @return	The statistics of the games of the range.
+         */
+        @Override
+        protected SimulationStats compute() {
+            if (to - from > GAMES_PER_TASK) {
+                int middle = (from + to) >>> 1;
+                Games first = new Games(seed, from, middle, listener);
+                first.fork();
+                SimulationStats stats = new Games(seed, middle, to, listener).compute();
+                return first.join().merge(stats);
+            }
+
+            SimulationStats stats = new SimulationStats();
+
+            for (int game = from; game < to; game++) {
+                GameResult result = play(seed + game);
+                stats.add(result);
+
+                if (listener != null) {
+                    listener.accept(result);
+                }
+            }
+
+            return stats;
+        }
+    }
+
+    /**
+     * <h1>GameResult</h1>
+     * The outcome of a game of a simulation.
+     */
+    public static final class GameResult {
+
+        /**
+         * True if the player escaped.
+         */
+        private final boolean won;
+        /**
+         * True if the player got killed.
+         */
+        private final boolean dead;
+        /**
+         * The number of turns played.
+         */
+        private final int turns;
+        /**
+         * The number of rooms explored by the player.
+         */
+        private final int explored;
+        /**
+         * The number of rooms of the maze.
+         */
+        private final int rooms;
+
+        /**
+         * The constructor for this class.
+         *
+         * @param	won	True if the player escaped.
+         * @param	dead	True if the player got killed.
+         * @param	turns	The number of turns played.
+         * @param	explored	The number of rooms explored by the player.
+         * @param	rooms	The number of rooms of the maze.
+         */
+        GameResult(boolean won, boolean dead, int turns, int explored, int rooms) {
+            this.won = won;
+            this.dead = dead;
+            this.turns = turns;
+            this.explored = explored;
+            this.rooms = rooms;
+        }
+
+        /**
+         * @return the won
+         */
+        public boolean isWon() {
+            return won;
+        }
+
+        /**
+         * @return the dead
+         */
+        public boolean isDead() {
+            return dead;
+        }
+
+        /**
+         * @return the turns
+         */
+        public int getTurns() {
+            return turns;
+        }
+
+        /**
+         * @return the explored
+         */
+        public int getExplored() {
+            return explored;
+        }
+
+        /**
+         * @return the rooms
+         */
+        public int getRooms() {
+            return rooms;
+        }
+    }
+}
@@ -0,0 +1,176 @@
+package deathmaze;
+
+/**
+ * <h1>SimulationStats</h1>
+ * This class aggregates the outcomes of the games of a simulation: how many were won, lost to the
+ * monsters, or stopped after the most turns allowed, how long they lasted, and how much of the
+ * maze the player explored. Every task of a simulation aggregates its own games, and the results
+ * of the tasks are merged, so the statistics don't depend on how the games were scheduled.
+ *
+ * @author Fred Erlenbusch
+ * @version 1.0
+ * @since 2026-10-17
+ *
+ * @see	SimulationRunner
+ */
+public class SimulationStats {
+
+    /**
+     * The number of games played.
+     */
+    private long games;
+    /**
+     * The number of games where the player escaped.
+     */
+    private long wins;
+    /**
+     * The number of games where the player got killed.
+     */
+    private long deaths;
+    /**
+     * The total number of turns of the games.
+     */
+    private long turns;
+    /**
+     * The most turns of a game.
+     */
+    private int longestGame;
+    /**
+     * The total number of rooms explored by the player in the games.
+     */
+    private long explored;
+    /**
+     * The total number of rooms of the mazes of the games.
+     */
+    private long rooms;
+    /**
+     * The time taken by the simulation, in nanoseconds.
+     */
+    private long elapsedNanos;
+
+    /**
+     * Adds the outcome of a game.
+     *
+     * @param	result	The outcome of the game.
+     */
+    public void add(SimulationRunner.GameResult result) {
+        games++;
+        wins += result.isWon() ? 1 : 0;
+        deaths += result.isDead() ? 1 : 0;
+        turns += result.getTurns();
+        longestGame = Math.max(longestGame, result.getTurns());
+        explored += result.getExplored();
+        rooms += result.getRooms();
+    }
+
+    /**
+     * Adds the games aggregated by another instance.
+     *
+     * @param	that	The statistics of other games.
+     * @return	This instance.
+     */
+    public SimulationStats merge(SimulationStats that) {
+        games += that.games;
+        wins += that.wins;
+        deaths += that.deaths;
+        turns += that.turns;
+        longestGame = Math.max(longestGame, that.longestGame);
+        explored += that.explored;
+        rooms += that.rooms;
+        return this;
+    }
+
+    /**
+     * @return	The fraction of the games where the player escaped.
+     */
+    public double getWinRate() {
+        return games == 0 ? 0 : (double) wins / games;
+    }
+
+    /**
+     * @return	The mean number of turns of a game.
+     */
+    public double getMeanTurns() {
+        return games == 0 ? 0 : (double) turns / games;
+    }
+
+    /**
+     * @return	The mean fraction of the maze explored by the player.
+     */
+    public double getMeanExplored() {
+        return rooms == 0 ? 0 : (double) explored / rooms;
+    }
+
+    /**
+     * @return	The number of games played per second of the simulation.
+     */
+    public double getGamesPerSecond() {
+        return elapsedNanos == 0 ? 0 : games * 1e9 / elapsedNanos;
+    }
+
+    /*
+* ------------------------- Getters and Setters -------------------------
+     */
+    /**
+     * @return the games
+     */
+    public long getGames() {
+        return games;
+    }
+
+    /**
+     * @return the wins
+     */
+    public long getWins() {
+        return wins;
+    }
+
+    /**
+     * @return the deaths
+     */
+    public long getDeaths() {
+        return deaths;
+    }
+
+    /**
+     * @return the number of games stopped after the most turns allowed
+     */
+    public long getTimeouts() {
+        return games - wins - deaths;
+    }
+
+    /**
+     * @return the turns
+     */
+    public long getTurns() {
+        return turns;
+    }
+
+    /**
+     * @return the longestGame
+     */
+    public int getLongestGame() {
+        return longestGame;
+    }
+
+    /**
+     * @return the explored
+     */
+    public long getExplored() {
+        return explored;
+    }
+
+    /**
+     * @return the elapsedNanos
+     */
+    public long getElapsedNanos() {
+        return elapsedNanos;
+    }
+
+    /**
+     * @param elapsedNanos the elapsedNanos to set
+     */
+    public void setElapsedNanos(long elapsedNanos) {
+        this.elapsedNanos = elapsedNanos;
+    }
+}
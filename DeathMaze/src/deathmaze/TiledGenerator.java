@@ -0,0 +1,234 @@
+package deathmaze;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.ForkJoinTask;
+
+/**
+ * <h1>TiledGenerator</h1>
+ * This class carves a maze in parallel on a ForkJoinPool. The grid is split into square tiles, and
+ * every tile is carved into a perfect maze of its own by another generator. The tiles are then
+ * stitched together by picking a random spanning tree of the tiles, and opening one random
+ * passage across the border of each pair of tiles joined by the tree. A spanning tree of spanning
+ * trees is a spanning tree, so the result is still a perfect maze.
+ * <p>
+ * Tiles are carved into grids of their own, then copied into the maze by tasks owning ranges of
+ * rooms aligned on the 32 rooms sharing a word of passage bits, so no two tasks ever write to the
+ * same word.
+ * The random number generator of each tile is seeded in tile order before any task is forked, so
+ * the maze doesn't depend on how the tasks are scheduled.
+ *
+ * @author Fred Erlenbusch
+ * @version 1.0
+ * @since 2026-10-17
+ */
+public class TiledGenerator implements MazeGenerator {
+
+    /**
+     * The default number of rooms wide and tall of a tile.
+     */
+    public static final int DEFAULT_TILE_SIZE = 256;
+    /**
+     * The number of rooms copied from the tiles into the maze by a single task. A multiple of the
+     * 32 rooms sharing a word of passage bits.
+     */
+    private static final int COPY_RANGE = 32 * 4096;
+
+    /**
+     * The generator used to carve the tiles.
+     */
+    private final MazeGenerator tileGenerator;
+    /**
+     * The number of rooms wide and tall of a tile.
+     */
+    private final int tileSize;
+    /**
+     * The pool running the tasks.
+     */
+    private final ForkJoinPool pool;
+
+    /**
+     * The constructor for a generator using the common pool and the default tile size.
+     *
+     * @param	tileGenerator	The generator used to carve the tiles.
+     */
+    public TiledGenerator(MazeGenerator tileGenerator) {
+        this(tileGenerator, DEFAULT_TILE_SIZE, ForkJoinPool.commonPool());
+    }
+
+    /**
+     * The constructor for this class.
+     *
+     * @param	tileGenerator	The generator used to carve the tiles.
+     * @param	tileSize	The number of rooms wide and tall of a tile.
+     * @param	pool	The pool running the tasks.
+     */
+    public TiledGenerator(MazeGenerator tileGenerator, int tileSize, ForkJoinPool pool) {
+        this.tileGenerator = tileGenerator;
+        this.tileSize = tileSize;
+        this.pool = pool;
+    }
+
+    /**
+     * @return	The name of the algorithm.
+     */
+    @Override
+    public String getName() {
+        return "Tiled " + tileGenerator.getName();
+    }
+
+    /**
+     * @return	The key of the generator, with the key of the tile generator and the tile size.
+     */
+    @Override
+    public String getKey() {
+        return "Tiled " + tileGenerator.getKey() + " " + tileSize;
+    }
+
+    /**
+     * Carves the passages into the grid.
+     *
+     * @param	grid	The grid to be carved.
+     * @param	start	Not used by this algorithm.
+     * @param	rand	The random number generator used to seed the tiles and stitch them together.
+     */
+    @Override
+    public void generate(PackedGrid grid, int start, Random rand) {
+        int tilesWide = (grid.getWidth() + tileSize - 1) / tileSize;
+        int tilesTall = (grid.getHeight() + tileSize - 1) / tileSize;
+        PackedGrid[] tiles = new PackedGrid[tilesWide * tilesTall];
+        long[] seeds = new long[tiles.length];
+        List<ForkJoinTask<?>> tasks = new ArrayList<>();
+
+        for (int tile = 0; tile < tiles.length; tile++) {
+            seeds[tile] = rand.nextLong();
+        }
+
+        for (int tile = 0; tile < tiles.length; tile++) {
+            final int t = tile;
+            tasks.add(ForkJoinTask.adapt(() -> tiles[t] = carveTile(grid, tilesWide, t, seeds[t])));
+        }
+
+        runAll(tasks);
+        tasks.clear();
+
+        for (int first = 0; first < grid.size(); first += COPY_RANGE) {
+            final int from = first;
+            final int to = (int) Math.min(grid.size(), (long) first + COPY_RANGE);
+            tasks.add(ForkJoinTask.adapt(() -> copyTiles(grid, tiles, tilesWide, from, to)));
+        }
+
+        runAll(tasks);
+        stitch(grid, tilesWide, tilesTall, rand);
+    }
+
+    /**
+     * Runs a list of tasks on the pool and waits for them to complete.
+     *
+     * @param	tasks	The tasks to be run.
+     */
+    private void runAll(List<ForkJoinTask<?>> tasks) {
+        pool.invoke(ForkJoinTask.adapt(() -> ForkJoinTask.invokeAll(tasks)));
+    }
+
+    /**
+     * Carves a tile into a grid of its own.
+     *
+     * @param	grid	The grid of the whole maze.
+     * @param	tilesWide	The number of tiles in a row of tiles.
+     * @param	tile	The index of the tile.
+     * @param	seed	The seed of the tile's random number generator.
+     * @return	The carved tile.
+     */
+    private PackedGrid carveTile(PackedGrid grid, int tilesWide, int tile, long seed) {
+        int x = (tile % tilesWide) * tileSize;
+        int y = (tile / tilesWide) * tileSize;
+        PackedGrid carved = new PackedGrid(Math.min(tileSize, grid.getWidth() - x),
+                Math.min(tileSize, grid.getHeight() - y));
+        Random tileRand = new MazeRandom(seed);
+
+        tileGenerator.generate(carved, tileRand.nextInt(carved.size()), tileRand);
+
+        return carved;
+    }
+
+    /**
+     * Copies the passages and flags of a range of rooms from their tiles into the maze.
+     *
+     * @param	grid	The grid of the whole maze.
+     * @param	tiles	The carved tiles.
+     * @param	tilesWide	The number of tiles in a row of tiles.
+     * @param	from	The index of the first room of the range.
+     * @param	to	The index after the last room of the range.
+     */
+    private void copyTiles(PackedGrid grid, PackedGrid[] tiles, int tilesWide, int from, int to) {
+        for (int room = from; room < to; room++) {
+            int x = grid.getX(room);
+            int y = grid.getY(room);
+            PackedGrid tile = tiles[(y / tileSize) * tilesWide + x / tileSize];
+            int local = tile.index(x % tileSize, y % tileSize);
+
+            grid.setFlag(room, PackedGrid.PART_OF_MAZE, tile.hasFlag(local, PackedGrid.PART_OF_MAZE));
+
+            if (tile.isPassage(local, PackedGrid.EAST)) {
+                grid.setPassage(room, PackedGrid.EAST, true);
+            }
+
+            if (tile.isPassage(local, PackedGrid.SOUTH)) {
+                grid.setPassage(room, PackedGrid.SOUTH, true);
+            }
+        }
+    }
+
+    /**
+     * Joins the tiles along a random spanning tree of the tiles, with one random passage across
+     * the border of each pair of tiles joined by the tree.
+     *
+     * @param	grid	The grid of the whole maze.
+     * @param	tilesWide	The number of tiles in a row of tiles.
+     * @param	tilesTall	The number of tiles in a column of tiles.
+     * @param	rand	The random number generator used to pick the tree and the passages.
+     */
+    private void stitch(PackedGrid grid, int tilesWide, int tilesTall, Random rand) {
+        int tiles = tilesWide * tilesTall;
+        int[] borders = new int[tiles * 2];
+        int cnt = 0;
+
+        for (int tile = 0; tile < tiles; tile++) {
+            if (tile % tilesWide < tilesWide - 1) {
+                borders[cnt++] = WallFrontier.wallId(tile, PackedGrid.EAST);
+            }
+
+            if (tile / tilesWide < tilesTall - 1) {
+                borders[cnt++] = WallFrontier.wallId(tile, PackedGrid.SOUTH);
+            }
+        }
+
+        for (int i = cnt - 1; i > 0; i--) {
+            int j = rand.nextInt(i + 1);
+            int temp = borders[i];
+            borders[i] = borders[j];
+            borders[j] = temp;
+        }
+
+        UnionFind joined = new UnionFind(tiles);
+
+        for (int i = 0; i < cnt; i++) {
+            int tile = WallFrontier.room(borders[i]);
+            int tileX = (tile % tilesWide) * tileSize;
+            int tileY = (tile / tilesWide) * tileSize;
+
+            if (WallFrontier.direction(borders[i]) == PackedGrid.EAST) {
+                if (joined.union(tile, tile + 1)) {
+                    int y = tileY + rand.nextInt(Math.min(tileSize, grid.getHeight() - tileY));
+                    grid.setPassage(grid.index(tileX + tileSize - 1, y), PackedGrid.EAST, true);
+                }
+            } else if (joined.union(tile, tile + tilesWide)) {
+                int x = tileX + rand.nextInt(Math.min(tileSize, grid.getWidth() - tileX));
+                grid.setPassage(grid.index(x, tileY + tileSize - 1), PackedGrid.SOUTH, true);
+            }
+        }
+    }
+}
@@ -0,0 +1,295 @@
+package deathmaze;
+
+import java.util.Arrays;
+
+/**
+ * <h1>TreeIndex</h1>
+ * This class answers questions about paths in a perfect maze without searching it. The passages of
+ * a perfect maze form a spanning tree of its rooms, so the path between two rooms is unique and
+ * goes through their lowest common ancestor (LCA) in the tree rooted at any room.
+ * <p>
+ * The index is built once, in linear time, from a depth first search giving every room its
+ * position in preorder, its depth, its parent, and the size of its subtree. For two rooms u and v,
+ * with u first in preorder, their LCA is the parent of the shallowest room in preorder after u up to
+ * v. That minimum is found with a sparse table over blocks of BLOCK_SIZE rooms, and a scan of at
+ * most two partial blocks, so a query takes constant time and allocates nothing, while the table
+ * only takes O(n / BLOCK_SIZE * log n) ints.
+ *
+ * @author Fred Erlenbusch
+ * @version 1.0
+ * @since 2026-10-17
+ */
+public class TreeIndex {
+
+    /**
+     * The number of positions in preorder covered by a block of the sparse table.
+     */
+    private static final int BLOCK_SIZE = 32;
+
+    /**
+     * The grid of the maze.
+     */
+    private final PackedGrid grid;
+    /**
+     * The rooms in preorder.
+     */
+    private final int[] order;
+    /**
+     * The position in preorder of every room.
+     */
+    private final int[] positions;
+    /**
+     * The depth of every room, the root being at depth 0.
+     */
+    private final int[] depths;
+    /**
+     * The parent of every room, or -1 for the root.
+     */
+    private final int[] parents;
+    /**
+     * The number of rooms in the subtree of every room, including the room.
+     */
+    private final int[] sizes;
+    /**
+     * The sparse table over the blocks. Entry <code>[k][b]</code> is the position of the
+     * shallowest room in the blocks <code>b</code> to <code>b + 2^k - 1</code>.
+     */
+    private final int[][] table;
+
+    /**
+     * The constructor for this class.
+     *
+     * @param	grid	The grid of a perfect maze.
+     * @throws	IllegalArgumentException	If the passages of the grid don't form a spanning tree.
+     */
+    public TreeIndex(PackedGrid grid) {
+        int rooms = grid.size();
+
+        if (grid.countPassages() != rooms - 1) {
+            throw new IllegalArgumentException("Not a perfect maze: " + grid.countPassages() + " passages for "
+                    + rooms + " rooms");
+        }
+
+        this.grid = grid;
+        this.order = new int[rooms];
+        this.positions = new int[rooms];
+        this.depths = new int[rooms];
+        this.parents = new int[rooms];
+        this.sizes = new int[rooms];
+
+        int visited = traverse();
+
+        if (visited != rooms) {
+            throw new IllegalArgumentException("Not a perfect maze: only " + visited + " of " + rooms
+                    + " rooms are connected");
+        }
+
+        this.table = buildTable();
+    }
+
+    /**
+     * Visits the rooms depth first from room 0, filling the order, positions, depths, parents, and
+     * sizes. A room is pushed on the stack only the first time it's reached, so the stack never
+     * holds more than all the rooms.
+     *
+     * @return	The number of rooms visited.
+     */
+    private int traverse() {
+        int[] stack = new int[order.length];
+        int top = 0;
+        int cnt = 0;
+
+        Arrays.fill(parents, -2);
+        stack[top++] = 0;
+        parents[0] = -1;
+
+        while (top > 0) {
+            int room = stack[--top];
+            positions[room] = cnt;
+            order[cnt++] = room;
+
+            for (int direction = PackedGrid.NORTH; direction <= PackedGrid.EAST; direction++) {
+                if (grid.isPassage(room, direction)) {
+                    int child = grid.neighbour(room, direction);
+
+                    if (parents[child] == -2) {
+                        parents[child] = room;
+                        depths[child] = depths[room] + 1;
+                        stack[top++] = child;
+                    }
+                }
+            }
+        }
+
+        Arrays.fill(sizes, 1);
+
+        for (int i = cnt - 1; i > 0; i--) {
+            sizes[parents[order[i]]] += sizes[order[i]];
+        }
+
+        return cnt;
+    }
+
+    /**
+     * Builds the sparse table over the blocks of the preorder.
+     *
+     * @return	The sparse table.
+     */
+    private int[][] buildTable() {
+        int blocks = (order.length + BLOCK_SIZE - 1) / BLOCK_SIZE;
+        int levels = 32 - Integer.numberOfLeadingZeros(blocks);
+        int[][] levelTable = new int[levels][];
+
+        levelTable[0] = new int[blocks];
+
+        for (int block = 0; block < blocks; block++) {
+            levelTable[0][block] = scan(block * BLOCK_SIZE, Math.min(order.length, (block + 1) * BLOCK_SIZE) - 1);
+        }
+
+        for (int k = 1; k < levels; k++) {
+            int span = 1 << (k - 1);
+            levelTable[k] = new int[blocks - (1 << k) + 1];
+
+            for (int block = 0; block < levelTable[k].length; block++) {
+                levelTable[k][block] = shallower(levelTable[k - 1][block], levelTable[k - 1][block + span]);
+            }
+        }
+
+        return levelTable;
+    }
+
+    /**
+     * Determines the lowest common ancestor of two rooms.
+     *
+     * @param	a	The index of a room.
+     * @param	b	The index of another room.
+     * @return	The index of the lowest common ancestor of the rooms.
+     */
+    public int lca(int a, int b) {
+        if (a == b) {
+            return a;
+        }
+
+        int from = Math.min(positions[a], positions[b]) + 1;
+        int to = Math.max(positions[a], positions[b]);
+        return parents[order[min(from, to)]];
+    }
+
+    /**
+     * Determines the length of the path between two rooms.
+     *
+     * @param	a	The index of a room.
+     * @param	b	The index of another room.
+     * @return	The number of steps from one room to the other.
+     */
+    public int distance(int a, int b) {
+        return depths[a] + depths[b] - 2 * depths[lca(a, b)];
+    }
+
+    /**
+     * Determines the first step of the path from one room to another.
+     *
+     * @param	from	The index of the room the path starts from.
+     * @param	to	The index of the room the path goes to.
+     * @return	The index of the room next to the first on the path, or the first room if both
+     * rooms are the same.
+     */
+    public int nextHop(int from, int to) {
+        if (from == to) {
+            return from;
+        }
+
+        if (!isAncestor(from, to)) {
+            return parents[from];
+        }
+
+        for (int direction = PackedGrid.NORTH; direction <= PackedGrid.EAST; direction++) {
+            if (grid.isPassage(from, direction)) {
+                int child = grid.neighbour(from, direction);
+
+                if (child != parents[from] && isAncestor(child, to)) {
+                    return child;
+                }
+            }
+        }
+
+        throw new IllegalStateException("Corrupt tree index");
+    }
+
+    /**
+     * @param	ancestor	The index of a room.
+     * @param	room	The index of another room.
+     * @return	True if the first room is on the path from the root to the second room.
+     */
+    public boolean isAncestor(int ancestor, int room) {
+        return positions[ancestor] <= positions[room] && positions[room] < positions[ancestor] + sizes[ancestor];
+    }
+
+    /**
+     * Finds the shallowest room in a range of the preorder.
+     *
+     * @param	from	The first position of the range.
+     * @param	to	The last position of the range.
+     * @return	The position of the shallowest room.
+     */
+    private int min(int from, int to) {
+        int fromBlock = from / BLOCK_SIZE;
+        int toBlock = to / BLOCK_SIZE;
+
+        if (toBlock - fromBlock < 2) {
+            return scan(from, to);
+        }
+
+        int best = shallower(scan(from, (fromBlock + 1) * BLOCK_SIZE - 1), scan(toBlock * BLOCK_SIZE, to));
+        int firstFull = fromBlock + 1;
+        int lastFull = toBlock - 1;
+        int k = 31 - Integer.numberOfLeadingZeros(lastFull - firstFull + 1);
+
+        best = shallower(best, table[k][firstFull]);
+        return shallower(best, table[k][lastFull - (1 << k) + 1]);
+    }
+
+    /**
+     * Finds the shallowest room in a range of the preorder by looking at every room of it.
+     *
+     * @param	from	The first position of the range.
+     * @param	to	The last position of the range.
+     * @return	The position of the shallowest room.
+     */
+    private int scan(int from, int to) {
+        int best = from;
+
+        for (int position = from + 1; position <= to; position++) {
+            if (depths[order[position]] < depths[order[best]]) {
+                best = position;
+            }
+        }
+
+        return best;
+    }
+
+    /**
+     * @param	a	A position in the preorder.
+     * @param	b	Another position in the preorder.
+     * @return	The position of the shallower room.
+     */
+    private int shallower(int a, int b) {
+        return depths[order[b]] < depths[order[a]] ? b : a;
+    }
+
+    /**
+     * @param	room	The index of a room.
+     * @return	The depth of the room from the root.
+     */
+    public int getDepth(int room) {
+        return depths[room];
+    }
+
+    /**
+     * @param	room	The index of a room.
+     * @return	The parent of the room, or -1 for the root.
+     */
+    public int getParent(int room) {
+        return parents[room];
+    }
+}
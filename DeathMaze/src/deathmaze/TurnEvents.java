@@ -0,0 +1,217 @@
+package deathmaze;
+
+/**
+ * <h1>TurnEvents</h1>
+ * This class holds what happened in the last turn of a game, as a stream of typed events: the
+ * player and the monsters moving, rooms revealed, the key picked up, the player killed or
+ * escaping. The UI, logs, or the network can react to the events of a turn instead of comparing
+ * the whole state of the game.
+ * <p>
+ * The events are packed four ints each, in a ring buffer reused from turn to turn. Starting a turn
+ * drops the events of the previous turn by moving the head of the ring past them, and the ring only
+ * grows when a turn has more events than ever before, so a game in its steady state records its
+ * events without allocating. Listeners are handed the fields of every event as ints, so reading
+ * the events doesn't allocate either.
+ *
+ * @author Fred Erlenbusch
+ * @version 1.0
+ * @since 2026-10-17
+ */
+public class TurnEvents {
+
+    /**
+     * The event of a character moving from one room to another.
+     */
+    public static final int MOVED = 0;
+    /**
+     * The event of the player seeing a room for the first time.
+     */
+    public static final int REVEALED = 1;
+    /**
+     * The event of the player picking up the key.
+     */
+    public static final int KEY_FOUND = 2;
+    /**
+     * The event of the player getting killed by a monster.
+     */
+    public static final int DIED = 3;
+    /**
+     * The event of the player escaping the maze.
+     */
+    public static final int ESCAPED = 4;
+    /**
+     * The subject of the events about the player. The subject of the events about a monster is
+     * the number of the monster.
+     */
+    public static final int PLAYER = -1;
+
+    /**
+     * The number of ints of an event: its type, its subject, and the rooms it's from and to.
+     */
+    private static final int EVENT_SIZE = 4;
+
+    /**
+     * The events of the ring, packed EVENT_SIZE ints each.
+     */
+    private int[] events;
+    /**
+     * The number of events the ring holds, less one, a power of two less one.
+     */
+    private int mask;
+    /**
+     * The slot of the first event of the turn.
+     */
+    private int head;
+    /**
+     * The number of events of the turn.
+     */
+    private int size;
+
+    /**
+     * The constructor for this class.
+     *
+     * @param	capacity	The number of events expected in a turn, the ring grows if there are
+     * more.
+     */
+    public TurnEvents(int capacity) {
+        int slots = Integer.highestOneBit(Math.max(2, capacity) * 2 - 1);
+
+        this.events = new int[slots * EVENT_SIZE];
+        this.mask = slots - 1;
+    }
+
+    /**
+     * Starts a new turn, dropping the events of the previous turn.
+     */
+    public void clear() {
+        head = (head + size) & mask;
+        size = 0;
+    }
+
+    /**
+     * Records an event of the turn.
+     *
+     * @param	type	The type of the event.
+     * @param	subject	The number of the monster the event is about, or PLAYER.
+     * @param	from	The index of the room the event is from.
+     * @param	to	The index of the room the event is to, the same room for the events about a
+     * single room.
+     */
+    public void add(int type, int subject, int from, int to) {
+        if (size > mask) {
+            grow();
+        }
+
+        int slot = ((head + size) & mask) * EVENT_SIZE;
+
+        events[slot] = type;
+        events[slot + 1] = subject;
+        events[slot + 2] = from;
+        events[slot + 3] = to;
+        size++;
+    }
+
+    /**
+     * Doubles the ring, moving the events of the turn to its start.
+     */
+    private void grow() {
+        int slots = mask + 1;
+        int[] grown = new int[slots * 2 * EVENT_SIZE];
+        int first = (slots - head) * EVENT_SIZE;
+
+        System.arraycopy(events, head * EVENT_SIZE, grown, 0, first);
+        System.arraycopy(events, 0, grown, first, head * EVENT_SIZE);
+
+        events = grown;
+        mask = slots * 2 - 1;
+        head = 0;
+    }
+
+    /**
+     * Hands every event of the turn to a listener, in the order they happened. The events stay in
+     * the ring until the next turn, so any number of listeners can read them.
+     *
+     * @param	listener	The listener.
+     */
+    public void forEach(Listener listener) {
+        for (int i = 0; i < size; i++) {
+            int slot = ((head + i) & mask) * EVENT_SIZE;
+            listener.onEvent(events[slot], events[slot + 1], events[slot + 2], events[slot + 3]);
+        }
+    }
+
+    /**
+     * @param	i	The number of an event of the turn.
+     * @return	The type of the event.
+     */
+    public int getType(int i) {
+        return events[slot(i)];
+    }
+
+    /**
+     * @param	i	The number of an event of the turn.
+     * @return	The number of the monster the event is about, or PLAYER.
+     */
+    public int getSubject(int i) {
+        return events[slot(i) + 1];
+    }
+
+    /**
+     * @param	i	The number of an event of the turn.
+     * @return	The index of the room the event is from.
+     */
+    public int getFrom(int i) {
+        return events[slot(i) + 2];
+    }
+
+    /**
+     * @param	i	The number of an event of the turn.
+     * @return	The index of the room the event is to.
+     */
+    public int getTo(int i) {
+        return events[slot(i) + 3];
+    }
+
+    /**
+     * @param	i	The number of an event of the turn.
+     * @return	The position of the first int of the event in the ring.
+     */
+    private int slot(int i) {
+        if (i < 0 || i >= size) {
+            throw new IndexOutOfBoundsException("Event " + i + " of " + size);
+        }
+
+        return ((head + i) & mask) * EVENT_SIZE;
+    }
+
+    /**
+     * @return	The number of events of the turn.
+     */
+    public int size() {
+        return size;
+    }
+
+    /**
+     * @return	The number of events the ring holds before it grows.
+     */
+    public int capacity() {
+        return mask + 1;
+    }
+
+    /**
+     * <h1>Listener</h1>
+     * A reader of the events of a turn.
+     */
+    public interface Listener {
+
+        /**
+         * Called for every event of the turn.
+         *
+         * @param	type	The type of the event.
+         * @param	subject	The number of the monster the event is about, or PLAYER.
+         * @param	from	The index of the room the event is from.
+         * @param	to	The index of the room the event is to.
+         */
+        void onEvent(int type, int subject, int from, int to);
+    }
+}
@@ -0,0 +1,79 @@
+package deathmaze;
+
+/**
+ * <h1>UnionFind</h1>
+ * This class is an array based disjoint set forest over the integers <code>0..size-1</code>, using
+ * union by size and path halving.
+ *
+ * @author Fred Erlenbusch
+ * @version 1.0
+ * @since 2026-10-17
+ */
+public class UnionFind {
+
+    /**
+     * The parent of each element, roots are their own parent.
+     */
+    private final int[] parents;
+    /**
+     * The size of the set of each root.
+     */
+    private final int[] sizes;
+
+    /**
+     * The constructor for this class. Every element starts in a set of its own.
+     *
+     * @param	size	The number of elements.
+     */
+    public UnionFind(int size) {
+        this.parents = new int[size];
+        this.sizes = new int[size];
+
+        for (int i = 0; i < size; i++) {
+            parents[i] = i;
+            sizes[i] = 1;
+        }
+    }
+
+    /**
+     * Finds the root of the set containing an element.
+     *
+     * @param	element	The element.
+     * @return	The root of the element's set.
+     */
+    public int find(int element) {
+        while (parents[element] != element) {
+            parents[element] = parents[parents[element]];
+            element = parents[element];
+        }
+
+        return element;
+    }
+
+    /**
+     * Merges the sets containing two elements.
+     *
+     * @param	a	An element.
+     * @param	b	Another element.
+     * @return	True if the elements were in different sets.
+     */
+    public boolean union(int a, int b) {
+        int rootA = find(a);
+        int rootB = find(b);
+
+        if (rootA == rootB) {
+            return false;
+        }
+
+        if (sizes[rootA] < sizes[rootB]) {
+            int temp = rootA;
+            rootA = rootB;
+            rootB = temp;
+        }
+
+        parents[rootB] = rootA;
+        sizes[rootA] += sizes[rootB];
+
+        return true;
+    }
+}
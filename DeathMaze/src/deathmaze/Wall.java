@@ -22,6 +22,20 @@ public class Wall {
      * A flag for is this edge is a passage in the maze the player can travel through.
      */
     private boolean passage;
+    /**
+     * The packed grid this edge is a view of, or null if this edge holds its own passage flag.
+     *
+     * @see	PackedGrid
+     */
+    private PackedGrid grid;
+    /**
+     * The index in the packed grid of the room on side1 of this edge.
+     */
+    private int index;
+    /**
+     * The direction of this edge from the room on side1, either East or South.
+     */
+    private int direction;
 
     /**
      * The constructor for this class.
@@ -34,6 +48,24 @@ public class Wall {
         this.passage = false;
     }
 
+    /**
+     * The constructor for a view of an edge of a packed grid. The passage flag of the view is read
+     * from and written to the grid.
+     *
+     * @param	grid	The grid the edge belongs to.
+     * @param	index	The index of the room to the North or West of the edge.
+     * @param	direction	The direction of the edge from that room, either East or South.
+     */
+    Wall(PackedGrid grid, int index, int direction) {
+        int other = grid.neighbour(index, direction);
+
+        this.side1 = new Cell(grid, grid.getX(index), grid.getY(index));
+        this.side2 = new Cell(grid, grid.getX(other), grid.getY(other));
+        this.grid = grid;
+        this.index = index;
+        this.direction = direction;
+    }
+
     /**
      * Given a known node of this edge it returns the other unknown node.
      *
@@ -58,7 +90,7 @@ public class Wall {
     public int hashCode() {
         final int prime = 31;
         int result = 1;
-        result = prime * result + (passage ? 1231 : 1237);
+        result = prime * result + (isPassage() ? 1231 : 1237);
         result = prime * result + ((side1 == null) ? 0 : side1.hashCode());
         result = prime * result + ((side2 == null) ? 0 : side2.hashCode());
         return result;
@@ -80,7 +112,7 @@ public class Wall {
             return false;
         }
         Wall other = (Wall) obj;
-        if (passage != other.passage) {
+        if (isPassage() != other.isPassage()) {
             return false;
         }
         if (side1 == null) {
@@ -135,13 +167,17 @@ public class Wall {
      * @return the passage
      */
     public boolean isPassage() {
-        return passage;
+        return grid == null ? passage : grid.isPassage(index, direction);
     }
 
     /**
      * @param passage the passage to set
      */
     public void setPassage(boolean passage) {
-        this.passage = passage;
+        if (grid == null) {
+            this.passage = passage;
+        } else {
+            grid.setPassage(index, direction, passage);
+        }
     }
 }
@@ -0,0 +1,134 @@
+package deathmaze;
+
+import java.util.Random;
+
+/**
+ * <h1>WallFrontier</h1>
+ * This class is the set of walls on the frontier of a maze being carved by Prim's MST algorithm.
+ * Walls are identified by the index of the room to their North or West and their direction from it
+ * (<code>2 * index</code> for an East wall, <code>2 * index + 1</code> for a South wall). Each wall
+ * is held at most once, and walls are added, removed, and picked at random in constant time.
+ *
+ * @author Fred Erlenbusch
+ * @version 1.0
+ * @since 2026-10-17
+ */
+public class WallFrontier {
+
+    /**
+     * The ids of the walls in the frontier, packed at the start of the array.
+     */
+    private final int[] walls;
+    /**
+     * The position of each wall in the walls array plus one, or zero if it's not in the frontier.
+     */
+    private final int[] positions;
+    /**
+     * The number of walls in the frontier.
+     */
+    private int size;
+
+    /**
+     * The constructor for this class.
+     *
+     * @param	rooms	The number of rooms in the maze, less than 2^30, two walls per room.
+     */
+    public WallFrontier(int rooms) {
+        if ((long) rooms * 2 > Integer.MAX_VALUE - 8) {
+            throw new IllegalArgumentException("Too many rooms for a wall frontier: " + rooms);
+        }
+
+        this.walls = new int[rooms * 2];
+        this.positions = new int[rooms * 2];
+        this.size = 0;
+    }
+
+    /**
+     * Determines the id of a wall.
+     *
+     * @param	index	The index of the room to the North or West of the wall.
+     * @param	direction	The direction of the wall from that room, either East or South.
+     * @return	The id of the wall.
+     */
+    public static int wallId(int index, int direction) {
+        return direction == PackedGrid.SOUTH ? (index << 1) + 1 : index << 1;
+    }
+
+    /**
+     * @param	wall	The id of a wall.
+     * @return	The index of the room to the North or West of the wall.
+     */
+    public static int room(int wall) {
+        return wall >>> 1;
+    }
+
+    /**
+     * @param	wall	The id of a wall.
+     * @return	The direction of the wall from the room to the North or West of it.
+     */
+    public static int direction(int wall) {
+        return (wall & 1) == 0 ? PackedGrid.EAST : PackedGrid.SOUTH;
+    }
+
+    /**
+     * Adds a wall to the frontier, if it's not already part of it.
+     *
+     * @param	wall	The id of the wall.
+     */
+    public void add(int wall) {
+        if (positions[wall] == 0) {
+            walls[size++] = wall;
+            positions[wall] = size;
+        }
+    }
+
+    /**
+     * Removes a wall from the frontier by swapping the last wall into its place.
+     *
+     * @param	wall	The id of the wall.
+     */
+    public void remove(int wall) {
+        int position = positions[wall] - 1;
+
+        if (position >= 0) {
+            int last = walls[--size];
+            walls[position] = last;
+            positions[last] = position + 1;
+            positions[wall] = 0;
+        }
+    }
+
+    /**
+     * Removes a random wall from the frontier.
+     *
+     * @param	rand	The random number generator used to pick the wall.
+     * @return	The id of the removed wall.
+     */
+    public int removeRandom(Random rand) {
+        int wall = walls[rand.nextInt(size)];
+        remove(wall);
+        return wall;
+    }
+
+    /**
+     * @param	wall	The id of a wall.
+     * @return	True if the wall is part of the frontier.
+     */
+    public boolean contains(int wall) {
+        return positions[wall] != 0;
+    }
+
+    /**
+     * @return	True if there are no walls in the frontier.
+     */
+    public boolean isEmpty() {
+        return size == 0;
+    }
+
+    /**
+     * @return	The number of walls in the frontier.
+     */
+    public int size() {
+        return size;
+    }
+}
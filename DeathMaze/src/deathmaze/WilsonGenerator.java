@@ -0,0 +1,67 @@
+package deathmaze;
+
+import java.util.Random;
+
+/**
+ * <h1>WilsonGenerator</h1>
+ * This class carves a maze with Wilson's algorithm, which picks uniformly among all the possible
+ * perfect mazes. Starting from a maze holding only the start room, a loop erased random walk is
+ * made from each room outside the maze until it reaches the maze, and the path of the walk is
+ * added to the maze.
+ *
+ * @author Fred Erlenbusch
+ * @version 1.0
+ * @since 2026-10-17
+ */
+public class WilsonGenerator implements MazeGenerator {
+
+    /**
+     * @return	The name of the algorithm.
+     */
+    @Override
+    public String getName() {
+        return "Wilson";
+    }
+
+    /**
+     * Carves the passages into the grid.
+     *
+     * @param	grid	The grid to be carved.
+     * @param	start	The index of the first room of the maze.
+     * @param	rand	The random number generator used by the random walks.
+     */
+    @Override
+    public void generate(PackedGrid grid, int start, Random rand) {
+        byte[] exits = new byte[grid.size()];
+
+        grid.setFlag(start, PackedGrid.PART_OF_MAZE, true);
+
+        for (int room = 0; room < grid.size(); room++) {
+            if (grid.hasFlag(room, PackedGrid.PART_OF_MAZE)) {
+                continue;
+            }
+
+// Walk until the maze is reached, the last exit taken from a room erases any loop through it
+            int current = room;
+
+            while (!grid.hasFlag(current, PackedGrid.PART_OF_MAZE)) {
+                int direction = rand.nextInt(4);
+                int next = grid.neighbour(current, direction);
+
+                if (next != -1) {
+                    exits[current] = (byte) direction;
+                    current = next;
+                }
+            }
+
+// Add the loop erased path to the maze
+            current = room;
+
+            while (!grid.hasFlag(current, PackedGrid.PART_OF_MAZE)) {
+                grid.setFlag(current, PackedGrid.PART_OF_MAZE, true);
+                grid.setPassage(current, exits[current], true);
+                current = grid.neighbour(current, exits[current]);
+            }
+        }
+    }
+}
@@ -96,6 +96,21 @@ public class CellTest extends TestCase {
         assertEquals(center.getAdjRooms(), rooms);
     }
 
+    @Test
+    public void testMasks() {
+        assertEquals(15, center.getPassageMask());
+        assertEquals(0, center.getValidWallMask());
+
+        center.getWest().setPassage(false);
+        assertEquals(1 << PackedGrid.NORTH | 1 << PackedGrid.SOUTH | 1 << PackedGrid.EAST, center.getPassageMask());
+        assertEquals(1 << PackedGrid.WEST, center.getValidWallMask());
+
+// A wall with no node behind it is neither a passage nor a valid wall
+        center.getNorth().setSide2(null);
+        assertEquals(1 << PackedGrid.SOUTH | 1 << PackedGrid.EAST, center.getPassageMask());
+        assertEquals(1 << PackedGrid.WEST, center.getValidWallMask());
+    }
+
     @Test
     public void testGettersSetters() {
         center.setX(5);
@@ -0,0 +1,99 @@
+package deathmaze;
+
+import junit.framework.TestCase;
+
+import java.util.Random;
+
+import org.junit.Before;
+import org.junit.Test;
+
+import deathmaze.ChunkedMaze;
+import deathmaze.PackedGrid;
+import deathmaze.PrimGenerator;
+
+public class ChunkedMazeTest extends TestCase {
+
+    private ChunkedMaze maze;
+
+    @Before
+    @Override
+    public void setUp() {
+        maze = new ChunkedMaze(77L, 8, 16, 3, new PrimGenerator());
+    }
+
+    @Test
+    public void testStart() {
+        assertEquals(0, maze.getPlayerX());
+        assertEquals(0, maze.getPlayerY());
+        assertTrue(maze.isVisited(0, 0));
+        assertTrue(maze.getLoadedChunks() >= 1);
+    }
+
+    @Test
+    public void testBordersMatch() {
+        for (int y = -20; y < 20; y++) {
+            for (int x = -20; x < 20; x++) {
+                assertEquals(maze.isPassage(x, y, PackedGrid.EAST), maze.isPassage(x + 1, y, PackedGrid.WEST));
+                assertEquals(maze.isPassage(x, y, PackedGrid.SOUTH), maze.isPassage(x, y + 1, PackedGrid.NORTH));
+            }
+        }
+    }
+
+    @Test
+    public void testOneDoorPerBorder() {
+        for (int chunk = -3; chunk < 3; chunk++) {
+            int east = 0;
+            int south = 0;
+
+            for (int i = 0; i < 8; i++) {
+                east += maze.isPassage(chunk * 8 + 7, chunk * 8 + i, PackedGrid.EAST) ? 1 : 0;
+                south += maze.isPassage(chunk * 8 + i, chunk * 8 + 7, PackedGrid.SOUTH) ? 1 : 0;
+            }
+
+            assertEquals(1, east);
+            assertEquals(1, south);
+        }
+    }
+
+    @Test
+    public void testDeterministicAfterEviction() {
+        ChunkedMaze other = new ChunkedMaze(77L, 8, 2, 3, new PrimGenerator());
+        boolean[] passages = new boolean[64 * 64 * 2];
+
+        for (int y = 0; y < 64; y++) {
+            for (int x = 0; x < 64; x++) {
+                passages[(y * 64 + x) * 2] = maze.isPassage(x - 32, y - 32, PackedGrid.EAST);
+                passages[(y * 64 + x) * 2 + 1] = maze.isPassage(x - 32, y - 32, PackedGrid.SOUTH);
+            }
+        }
+
+        for (int y = 63; y >= 0; y--) {
+            for (int x = 63; x >= 0; x--) {
+                assertEquals(passages[(y * 64 + x) * 2], other.isPassage(x - 32, y - 32, PackedGrid.EAST));
+                assertEquals(passages[(y * 64 + x) * 2 + 1], other.isPassage(x - 32, y - 32, PackedGrid.SOUTH));
+            }
+        }
+
+        assertTrue(other.getLoadedChunks() <= 2);
+        assertTrue(other.getGeneratedChunks() > 64);
+    }
+
+    @Test
+    public void testBoundedMemory() {
+        Random rand = new Random(1);
+        String[] moves = {"N", "W", "S", "E", "E", "S"};
+        int moved = 0;
+
+        for (int i = 0; i < 100000; i++) {
+            if (maze.movePlayer(moves[rand.nextInt(moves.length)])) {
+                moved++;
+                assertTrue(maze.isVisited(maze.getPlayerX(), maze.getPlayerY()));
+            }
+
+            assertTrue(maze.getLoadedChunks() <= 16);
+        }
+
+        assertTrue(moved > 0);
+        assertTrue(Math.abs(maze.getPlayerX()) + Math.abs(maze.getPlayerY()) > 8);
+    }
+}
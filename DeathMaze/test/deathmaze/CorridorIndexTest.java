@@ -0,0 +1,137 @@
+package deathmaze;
+
+import junit.framework.TestCase;
+
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+
+import org.junit.Before;
+import org.junit.Test;
+
+import deathmaze.CorridorIndex;
+import deathmaze.LineOfSightIndex;
+import deathmaze.Maze;
+import deathmaze.PackedGrid;
+
+public class CorridorIndexTest extends TestCase {
+
+    private PackedGrid grid;
+    private CorridorIndex index;
+
+    @Before
+    @Override
+    public void setUp() {
+        grid = new Maze(40, 30, 0, 3, new PrimGenerator(), 21L).getPackedGrid();
+        index = new CorridorIndex(grid);
+    }
+
+    @Test
+    public void testRuns() {
+        for (int room = 0; room < grid.size(); room++) {
+            for (int direction = PackedGrid.NORTH; direction <= PackedGrid.EAST; direction++) {
+                int run = 0;
+
+                for (int current = room; grid.isPassage(current, direction); current = grid.neighbour(current, direction)) {
+                    run++;
+                }
+
+                assertEquals(run, index.getRun(room, direction));
+            }
+        }
+    }
+
+    @Test
+    public void testLongCorridors() {
+        int length = 2 * Character.MAX_VALUE + 10;
+        PackedGrid row = new PackedGrid(length, 1);
+        PackedGrid column = new PackedGrid(1, length);
+
+// One wall past the cap, so the corridors are Character.MAX_VALUE + 2 and the rest
+        for (int room = 0; room < length - 1; room++) {
+            if (room != Character.MAX_VALUE + 2) {
+                row.setPassage(room, PackedGrid.EAST, true);
+                column.setPassage(room, PackedGrid.SOUTH, true);
+            }
+        }
+
+        CorridorIndex rows = new CorridorIndex(row);
+        CorridorIndex columns = new CorridorIndex(column);
+        int wall = Character.MAX_VALUE + 2;
+
+        for (int room : new int[]{0, 1, wall, wall + 1, length - Character.MAX_VALUE - 1, length - 1}) {
+            int east = room <= wall ? wall - room : length - 1 - room;
+            int west = room <= wall ? room : room - wall - 1;
+
+            assertEquals(east, rows.getRun(room, PackedGrid.EAST));
+            assertEquals(west, rows.getRun(room, PackedGrid.WEST));
+            assertEquals(east, columns.getRun(room, PackedGrid.SOUTH));
+            assertEquals(west, columns.getRun(room, PackedGrid.NORTH));
+        }
+
+        assertTrue(rows.canSee(wall, 0, length));
+        assertFalse(rows.canSee(wall, wall + 1, length));
+
+// The line of sight index walks the rooms of a corridor longer than the cap
+        LineOfSightIndex sight = new LineOfSightIndex(row, rows, 2);
+        int[] found = new int[2];
+        sight.add(0, wall);
+        sight.add(1, length - 1);
+
+        assertEquals(1, sight.getMobsInSight(wall - 3, 3, found));
+        assertEquals(0, found[0]);
+        assertEquals(1, sight.getMobsInSight(length - 2, 3, found));
+        assertEquals(1, found[0]);
+        assertEquals(0, sight.getMobsInSight(wall + 1, 3, found));
+    }
+
+    @Test
+    public void testVisibleRooms() {
+        int visRange = 4;
+        int[] rooms = new int[4 * visRange + 1];
+
+        for (int room = 0; room < grid.size(); room++) {
+            Set<Integer> expected = new HashSet<>();
+            expected.add(room);
+
+            for (int direction = PackedGrid.NORTH; direction <= PackedGrid.EAST; direction++) {
+                int current = room;
+
+                for (int i = 0; i < visRange && grid.isPassage(current, direction); i++) {
+                    current = grid.neighbour(current, direction);
+                    expected.add(current);
+                }
+            }
+
+            int cnt = index.getVisibleRooms(room, visRange, rooms);
+            Set<Integer> actual = new HashSet<>();
+            List<Integer> visited = new ArrayList<>();
+
+            for (int i = 0; i < cnt; i++) {
+                actual.add(rooms[i]);
+            }
+
+            index.forEachVisibleRoom(room, visRange, visited::add);
+            assertEquals(expected, actual);
+            assertEquals(cnt, visited.size());
+            assertEquals(expected, new HashSet<>(visited));
+
+            for (int other = 0; other < grid.size(); other++) {
+                assertEquals(expected.contains(other), index.canSee(room, other, visRange));
+            }
+        }
+    }
+
+    @Test
+    public void testMazeVisibility() {
+        Maze maze = new Maze(20, 20, 5, 3, new PrimGenerator(), 2L);
+
+        for (Cell room : maze.getVisibleRooms(maze.getPlayer())) {
+            assertTrue(room.isVisited());
+            assertTrue(maze.canSee(maze.getPlayer(), room));
+        }
+
+        assertFalse(maze.canSee(maze.getPlayer(), new Cell(-1, -1)));
+    }
+}
@@ -0,0 +1,107 @@
+package deathmaze;
+
+import junit.framework.TestCase;
+
+import java.util.Random;
+
+import org.junit.Before;
+import org.junit.Test;
+
+import deathmaze.DescentMaze;
+import deathmaze.EllerRows;
+import deathmaze.MazeRow;
+import deathmaze.PackedGrid;
+
+public class DescentMazeTest extends TestCase {
+
+    private static final String[] MOVES = {"N", "W", "S", "E", "S", "S"};
+
+    private DescentMaze maze;
+
+    @Before
+    @Override
+    public void setUp() {
+        maze = new DescentMaze(20, 3, 5, new Random(3));
+    }
+
+    @Test
+    public void testEndlessRows() {
+        EllerRows rows = new EllerRows(10, new Random(5));
+
+        for (int y = 0; y < 10000; y++) {
+            assertTrue(rows.hasNext());
+            MazeRow row = rows.next();
+            assertEquals(y, row.getY());
+            assertEquals(10, row.getWidth());
+        }
+    }
+
+    @Test
+    public void testBoundedRows() {
+        EllerRows rows = new EllerRows(10, 3, new Random(5));
+
+        rows.next();
+        rows.next();
+        MazeRow last = rows.next();
+
+        assertFalse(rows.hasNext());
+
+        for (int x = 0; x < 10; x++) {
+            assertFalse(last.isSouthPassage(x));
+        }
+    }
+
+    @Test
+    public void testStartWindow() {
+        assertEquals(0, maze.getPlayerY());
+        assertEquals(0, maze.getTop());
+        assertEquals(4, maze.getBottom());
+        assertNotNull(maze.getRow(3));
+        assertNull(maze.getRow(4));
+        assertFalse(maze.isPassage(maze.getPlayerX(), 0, PackedGrid.NORTH));
+    }
+
+    @Test
+    public void testWindowFollowsPlayer() {
+        Random rand = new Random(11);
+        long deepest = 0;
+
+        for (int i = 0; i < 200000; i++) {
+            maze.movePlayer(MOVES[rand.nextInt(MOVES.length)]);
+            deepest = Math.max(deepest, maze.getPlayerY());
+
+            assertTrue(maze.getTop() >= maze.getPlayerY() - 5);
+            assertTrue(maze.getBottom() >= maze.getPlayerY() + 4);
+            assertTrue(maze.getPlayerY() >= maze.getTop());
+            assertTrue(maze.getBottom() - maze.getTop() <= 9);
+            assertNull(maze.getRow(maze.getTop() - 1));
+        }
+
+        assertTrue(deepest > 10);
+    }
+
+    @Test
+    public void testPassagesMatch() {
+        for (int y = 0; y < 3; y++) {
+            for (int x = 0; x < 19; x++) {
+                assertEquals(maze.isPassage(x, y, PackedGrid.EAST), maze.isPassage(x + 1, y, PackedGrid.WEST));
+                assertEquals(maze.isPassage(x, y, PackedGrid.SOUTH), maze.isPassage(x, y + 1, PackedGrid.NORTH));
+            }
+        }
+    }
+
+    @Test
+    public void testMovePlayer() {
+        int x = maze.getPlayerX();
+
+        assertFalse(maze.movePlayer("N"));
+
+        if (maze.isPassage(x, 0, PackedGrid.SOUTH)) {
+            assertTrue(maze.movePlayer("S"));
+            assertEquals(1, maze.getPlayerY());
+        } else {
+            assertFalse(maze.movePlayer("S"));
+            assertEquals(0, maze.getPlayerY());
+        }
+    }
+}
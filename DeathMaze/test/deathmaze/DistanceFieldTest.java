@@ -0,0 +1,81 @@
+package deathmaze;
+
+import junit.framework.TestCase;
+
+import java.util.Random;
+
+import org.junit.Before;
+import org.junit.Test;
+
+import deathmaze.DistanceField;
+import deathmaze.Maze;
+import deathmaze.PackedGrid;
+
+public class DistanceFieldTest extends TestCase {
+
+    private PackedGrid grid;
+
+    @Before
+    @Override
+    public void setUp() {
+        grid = new PackedGrid(4, 3);
+
+// A serpentine path through all the rooms
+        for (int y = 0; y < 3; y++) {
+            for (int x = 0; x < 3; x++) {
+                grid.setPassage(grid.index(x, y), PackedGrid.EAST, true);
+            }
+        }
+
+        grid.setPassage(grid.index(3, 0), PackedGrid.SOUTH, true);
+        grid.setPassage(grid.index(0, 1), PackedGrid.SOUTH, true);
+    }
+
+    @Test
+    public void testDistances() {
+        DistanceField field = new DistanceField(grid, 0);
+
+        assertEquals(12, field.getReached());
+        assertEquals(11, field.getMaxDistance());
+        assertEquals(3, field.getDistance(grid.index(3, 0)));
+        assertEquals(4, field.getDistance(grid.index(3, 1)));
+        assertEquals(7, field.getDistance(grid.index(0, 1)));
+        assertEquals(11, field.getDistance(grid.index(3, 2)));
+
+        field.compute(grid.index(3, 2));
+        assertEquals(11, field.getDistance(0));
+        assertEquals(0, field.getDistance(grid.index(3, 2)));
+    }
+
+    @Test
+    public void testUnreachable() {
+        grid.setPassage(grid.index(0, 1), PackedGrid.SOUTH, false);
+        DistanceField field = new DistanceField(grid, 0);
+
+        assertEquals(8, field.getReached());
+        assertEquals(-1, field.getDistance(grid.index(0, 2)));
+    }
+
+    @Test
+    public void testPercentile() {
+        DistanceField field = new DistanceField(grid, 0);
+
+        assertEquals(0, field.percentile(0));
+        assertEquals(5, field.percentile(0.5));
+        assertEquals(8, field.percentile(0.75));
+        assertEquals(11, field.percentile(1));
+    }
+
+    @Test
+    public void testKeyAndExitPlacement() {
+        for (long seed = 0; seed < 10; seed++) {
+            Maze maze = new Maze(50, 50, 10, 3, new PrimGenerator(), seed);
+            PackedGrid mazeGrid = maze.getPackedGrid();
+            int exit = mazeGrid.index(maze.getExit().getX(), maze.getExit().getY());
+            DistanceField fromExit = new DistanceField(mazeGrid, exit);
+
+            assertTrue(fromExit.getDistance(mazeGrid.index(maze.getKey().getX(), maze.getKey().getY()))
+                    >= fromExit.percentile(0.5));
+        }
+    }
+}
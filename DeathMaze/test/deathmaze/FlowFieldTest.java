@@ -0,0 +1,118 @@
+package deathmaze;
+
+import junit.framework.TestCase;
+
+import org.junit.Before;
+import org.junit.Test;
+
+import deathmaze.DistanceField;
+import deathmaze.FlowField;
+import deathmaze.Maze;
+import deathmaze.PackedGrid;
+
+public class FlowFieldTest extends TestCase {
+
+    private PackedGrid grid;
+
+    @Before
+    @Override
+    public void setUp() {
+        grid = new PackedGrid(4, 3);
+
+// A serpentine path through all the rooms
+        for (int y = 0; y < 3; y++) {
+            for (int x = 0; x < 3; x++) {
+                grid.setPassage(grid.index(x, y), PackedGrid.EAST, true);
+            }
+        }
+
+        grid.setPassage(grid.index(3, 0), PackedGrid.SOUTH, true);
+        grid.setPassage(grid.index(0, 1), PackedGrid.SOUTH, true);
+    }
+
+    @Test
+    public void testNextHops() {
+        FlowField field = new FlowField(grid, 4);
+        field.compute(grid.index(3, 1));
+
+        assertEquals(grid.index(3, 1), field.nextHop(grid.index(3, 1)));
+        assertEquals(grid.index(3, 1), field.nextHop(grid.index(3, 0)));
+        assertEquals(grid.index(3, 0), field.nextHop(grid.index(2, 0)));
+        assertEquals(grid.index(2, 1), field.nextHop(grid.index(1, 1)));
+        assertEquals(4, field.getDistance(grid.index(0, 0)));
+        assertEquals(3, field.getDistance(grid.index(0, 1)));
+
+// Out of the radius, and across a wall despite being next to the source
+        assertEquals(grid.index(0, 1), field.nextHop(grid.index(0, 2)));
+        assertEquals(-1, field.nextHop(grid.index(1, 2)));
+        assertEquals(-1, field.getDistance(grid.index(3, 2)));
+    }
+
+    @Test
+    public void testInSight() {
+        FlowField field = new FlowField(grid, 4);
+        field.compute(grid.index(3, 1));
+
+        assertTrue(field.isInSight(grid.index(0, 1)));
+        assertTrue(field.isInSight(grid.index(3, 0)));
+        assertFalse(field.isInSight(grid.index(3, 2)));
+        assertFalse(field.isInSight(grid.index(2, 0)));
+
+        field.compute(grid.index(0, 0));
+        assertFalse(field.isInSight(grid.index(0, 1)));
+        assertTrue(field.isInSight(grid.index(3, 0)));
+    }
+
+    @Test
+    public void testMatchesDistanceField() {
+        Maze maze = new Maze(60, 60, 0, 5, new PrimGenerator(), 11L);
+        PackedGrid mazeGrid = maze.getPackedGrid();
+        int source = mazeGrid.index(30, 30);
+        FlowField flow = new FlowField(mazeGrid, 5);
+        DistanceField distances = new DistanceField(mazeGrid, source);
+
+        flow.compute(source);
+
+        for (int room = 0; room < mazeGrid.size(); room++) {
+            int distance = distances.getDistance(room);
+
+            if (distance <= 5) {
+                assertEquals(distance, flow.getDistance(room));
+
+                if (distance > 0) {
+                    assertEquals(distance - 1, distances.getDistance(flow.nextHop(room)));
+                }
+            } else {
+                assertEquals(-1, flow.getDistance(room));
+            }
+        }
+    }
+
+    @Test
+    public void testMobsOnlyStepThroughPassages() {
+        Maze maze = new Maze(30, 30, 200, 4, new PrimGenerator(), 5L);
+        PackedGrid mazeGrid = maze.getPackedGrid();
+        String[] moves = {"N", "E", "S", "W"};
+
+        for (int turn = 0; turn < 50 && maze.getAlive(); turn++) {
+            int[] before = new int[maze.getMobs().size()];
+
+            for (int i = 0; i < before.length; i++) {
+                before[i] = mazeGrid.index(maze.getMobs().get(i).getX(), maze.getMobs().get(i).getY());
+            }
+
+            maze.movePlayer(moves[turn % moves.length]);
+
+            for (int i = 0; i < before.length; i++) {
+                int after = mazeGrid.index(maze.getMobs().get(i).getX(), maze.getMobs().get(i).getY());
+                boolean adjacent = after == before[i];
+
+                for (int direction = PackedGrid.NORTH; direction <= PackedGrid.EAST; direction++) {
+                    adjacent |= mazeGrid.isPassage(before[i], direction) && mazeGrid.neighbour(before[i], direction) == after;
+                }
+
+                assertTrue(adjacent);
+            }
+        }
+    }
+}
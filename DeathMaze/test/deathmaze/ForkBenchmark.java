@@ -0,0 +1,87 @@
+package deathmaze;
+
+/**
+ * <h1>ForkBenchmark</h1>
+ * Reports the number of forks of a game taken per second, and the time taken by a search trying a
+ * few moves ahead in every fork, for a small and a large maze. The time of a turn of the game itself
+ * is reported for comparison.
+ *
+ * @author Fred Erlenbusch
+ * @version 1.0
+ * @since 2026-10-17
+ */
+public class ForkBenchmark {
+
+    /**
+     * The number of forks measured.
+     */
+    private static final int FORKS = 20000;
+    /**
+     * The number of moves played in every fork by the search.
+     */
+    private static final int DEPTH = 8;
+
+    /**
+     * Runs the benchmark.
+     *
+     * @param args Not used.
+     */
+    public static void main(String[] args) {
+        for (int round = 0; round < 3; round++) {
+            run(200, 200, 100, FORKS);
+            run(1000, 1000, 1000, FORKS / 10);
+        }
+    }
+
+    /**
+     * Measures the forks of one game.
+     *
+     * @param width The width of the maze.
+     * @param height The height of the maze.
+     * @param mobCnt The number of monsters.
+     * @param forks The number of forks measured.
+     */
+    private static void run(int width, int height, int mobCnt, int forks) {
+        Maze maze = new Maze(width, height, mobCnt, 4, new PrimGenerator(), 5L);
+        PlayerPolicy policy = new RandomWalkPolicy();
+        MazeRandom rand = new MazeRandom(5L);
+        int sink = 0;
+
+        for (int turn = 0; turn < 100; turn++) {
+            maze.setAlive(true);
+            maze.movePlayer(policy.nextMove(maze, rand));
+        }
+
+        long start = System.nanoTime();
+
+        for (int turn = 0; turn < forks; turn++) {
+            maze.setAlive(true);
+            maze.movePlayer(policy.nextMove(maze, rand));
+        }
+
+        long played = System.nanoTime();
+
+        for (int fork = 0; fork < forks; fork++) {
+            sink += maze.fork().getWidth();
+        }
+
+        long forked = System.nanoTime();
+
+        for (int fork = 0; fork < forks; fork++) {
+            Maze ahead = maze.fork();
+            ahead.setAlive(true);
+
+            for (int move = 0; move < DEPTH; move++) {
+                ahead.movePlayer(policy.nextMove(ahead, rand));
+            }
+
+            sink += ahead.getRevealedCount();
+        }
+
+        long searched = System.nanoTime();
+
+        System.out.printf("%dx%d, %d mobs: turn %7.2f us, fork %7.2f us (%,.0f/s), fork and %d moves %8.2f us%s%n",
+                width, height, mobCnt, (played - start) / 1e3 / forks, (forked - played) / 1e3 / forks,
+                forks * 1e9 / (forked - played), DEPTH, (searched - forked) / 1e3 / forks, sink < 0 ? "!" : "");
+    }
+}
@@ -0,0 +1,115 @@
+package deathmaze;
+
+import java.lang.management.ManagementFactory;
+import java.lang.management.MemoryPoolMXBean;
+import java.lang.management.MemoryType;
+import java.util.Random;
+
+/**
+ * <h1>GeneratorBenchmark</h1>
+ * Reports the speed, in rooms carved per second, and the memory used by each MazeGenerator for a
+ * range of maze sizes. The memory is reported as the bytes allocated by the generator on top of
+ * the grid, and as the peak of the heap while the maze is carved.
+ *
+ * @author Fred Erlenbusch
+ * @version 1.0
+ * @since 2026-10-17
+ */
+public class GeneratorBenchmark {
+
+    /**
+     * The generators being measured.
+     */
+    private static final MazeGenerator[] GENERATORS = {new PrimGenerator(), new KruskalGenerator(),
+        new WilsonGenerator(), new BacktrackerGenerator(), new EllerGenerator()};
+
+    /**
+     * Runs the benchmark.
+     *
+     * @param args The sizes of the mazes to measure, defaults to 100, 500, 1000 and 2000.
+     */
+    public static void main(String[] args) {
+        int[] sizes = {100, 500, 1000, 2000};
+
+        if (args.length > 0) {
+            sizes = new int[args.length];
+
+            for (int i = 0; i < args.length; i++) {
+                sizes[i] = Integer.parseInt(args[i]);
+            }
+        }
+
+        System.out.printf("%-12s %-12s %14s %14s %14s%n", "size", "generator", "rooms/s", "allocated",
+                "peak heap");
+
+        for (int size : sizes) {
+            for (MazeGenerator generator : GENERATORS) {
+// Warm up on a smaller maze so the JIT compiled generator is measured
+                generator.generate(new PackedGrid(200, 200), 0, new Random(1));
+
+                PackedGrid grid = new PackedGrid(size, size);
+                Random rand = new Random(size);
+                long baseline = resetPeakHeap();
+                long allocated = allocatedBytes();
+                long start = System.nanoTime();
+
+                generator.generate(grid, grid.size() / 2, rand);
+
+                long time = System.nanoTime() - start;
+                allocated = allocatedBytes() - allocated;
+                long peak = peakHeap() - baseline;
+
+                System.out.printf("%-12s %-12s %14.0f %14s %14s%n", size + "x" + size, generator.getName(),
+                        grid.size() / (time / 1e9), megabytes(allocated), megabytes(Math.max(0, peak)));
+            }
+        }
+    }
+
+    /**
+     * @return	The bytes allocated so far by the current thread.
+     */
+    private static long allocatedBytes() {
+        return ((com.sun.management.ThreadMXBean) ManagementFactory.getThreadMXBean())
+                .getThreadAllocatedBytes(Thread.currentThread().getId());
+    }
+
+    /**
+     * Collects the garbage and resets the peak usage of the heap.
+     *
+     * @return	The heap in use after the collection.
+     */
+    private static long resetPeakHeap() {
+        System.gc();
+
+        for (MemoryPoolMXBean pool : ManagementFactory.getMemoryPoolMXBeans()) {
+            if (pool.getType() == MemoryType.HEAP) {
+                pool.resetPeakUsage();
+            }
+        }
+
+        return peakHeap();
+    }
+
+    /**
+     * @return	The sum of the peak usage of the heap's memory pools.
+     */
+    private static long peakHeap() {
+        long peak = 0;
+
+        for (MemoryPoolMXBean pool : ManagementFactory.getMemoryPoolMXBeans()) {
+            if (pool.getType() == MemoryType.HEAP) {
+                peak += pool.getPeakUsage().getUsed();
+            }
+        }
+
+        return peak;
+    }
+
+    /**
+     * @param	bytes	A number of bytes.
+     * @return	The number of bytes formatted in megabytes.
+     */
+    private static String megabytes(long bytes) {
+        return String.format("%.1f MB", bytes / (1024.0 * 1024.0));
+    }
+}
@@ -0,0 +1,167 @@
+package deathmaze;
+
+import junit.framework.TestCase;
+
+import java.util.HashSet;
+import java.util.Random;
+import java.util.Set;
+
+import org.junit.Before;
+import org.junit.Test;
+
+import deathmaze.CorridorIndex;
+import deathmaze.LineOfSightIndex;
+import deathmaze.Maze;
+import deathmaze.PackedGrid;
+
+public class LineOfSightIndexTest extends TestCase {
+
+    private static final int MOBS = 300;
+
+    private PackedGrid grid;
+    private CorridorIndex corridors;
+    private LineOfSightIndex index;
+    private int[] rooms;
+    private Random rand;
+
+    @Before
+    @Override
+    public void setUp() {
+        grid = new Maze(30, 25, 0, 3, new PrimGenerator(), 4L).getPackedGrid();
+        corridors = new CorridorIndex(grid);
+        index = new LineOfSightIndex(grid, corridors, 16);
+        rooms = new int[MOBS];
+        rand = new Random(6);
+
+        for (int mob = 0; mob < MOBS; mob++) {
+            rooms[mob] = rand.nextInt(grid.size());
+            index.add(mob, rooms[mob]);
+        }
+    }
+
+    @Test
+    public void testMobsInSight() {
+        int[] found = new int[MOBS];
+
+        for (int turn = 0; turn < 20; turn++) {
+            for (int room = 0; room < grid.size(); room++) {
+                Set<Integer> expected = new HashSet<>();
+                Set<Integer> actual = new HashSet<>();
+
+                for (int mob = 0; mob < MOBS; mob++) {
+                    if (corridors.canSee(room, rooms[mob], 3)) {
+                        expected.add(mob);
+                    }
+                }
+
+                int cnt = index.getMobsInSight(room, 3, found);
+
+                for (int i = 0; i < cnt; i++) {
+                    actual.add(found[i]);
+                }
+
+                assertEquals(expected.size(), cnt);
+                assertEquals(expected, actual);
+            }
+
+// Every monster takes a random step along a passage
+            for (int mob = 0; mob < MOBS; mob++) {
+                int direction = rand.nextInt(4);
+
+                if (grid.isPassage(rooms[mob], direction)) {
+                    int next = grid.neighbour(rooms[mob], direction);
+                    index.move(mob, next);
+                    rooms[mob] = next;
+                }
+            }
+        }
+    }
+
+    @Test
+    public void testRemove() {
+        int[] found = new int[MOBS];
+        int room = rooms[0];
+
+        index.remove(0);
+
+        int cnt = index.getMobsInSight(room, 0, found);
+
+        for (int i = 0; i < cnt; i++) {
+            assertFalse(found[i] == 0);
+            assertEquals(room, rooms[found[i]]);
+        }
+    }
+
+    @Test
+    public void testRoom() {
+        for (int mob = 0; mob < MOBS; mob++) {
+            assertEquals(rooms[mob], index.getRoom(mob));
+        }
+
+// Past the initial capacity, the index grows
+        index.add(MOBS, 0);
+        assertEquals(0, index.getRoom(MOBS));
+    }
+
+    @Test
+    public void testFork() {
+        LineOfSightIndex fork = index.fork(grid);
+        int[] found = new int[MOBS];
+        int room = rooms[1];
+
+// The fork moves a monster out of its room, the index still finds it there
+        for (int direction = 0; direction < 4; direction++) {
+            if (grid.isPassage(room, direction)) {
+                fork.move(1, grid.neighbour(room, direction));
+                break;
+            }
+        }
+
+        fork.remove(2);
+        assertFalse(room == fork.getRoom(1));
+        assertEquals(room, index.getRoom(1));
+
+        int cnt = index.getMobsInSight(room, 0, found);
+        boolean seen = false;
+
+        for (int i = 0; i < cnt; i++) {
+            seen |= found[i] == 1;
+        }
+
+        assertTrue(seen);
+
+        cnt = index.getMobsInSight(rooms[2], 0, found);
+        seen = false;
+
+        for (int i = 0; i < cnt; i++) {
+            seen |= found[i] == 2;
+        }
+
+        assertTrue(seen);
+    }
+
+    @Test
+    public void testMazeTurns() {
+        Maze maze = new Maze(25, 25, 60, 4, new PrimGenerator(), 9L);
+        PackedGrid mazeGrid = maze.getPackedGrid();
+        String[] moves = {"N", "E", "S", "W"};
+        int[] found = new int[60];
+
+        for (int turn = 0; turn < 40; turn++) {
+            maze.setAlive(true);
+            maze.movePlayer(moves[turn % moves.length]);
+
+            int player = mazeGrid.index(maze.getPlayer().getX(), maze.getPlayer().getY());
+            int cnt = maze.getLineOfSightIndex().getMobsInSight(player, 4, found);
+            int expected = 0;
+
+            for (Cell mob : maze.getMobs()) {
+                if (maze.canSee(maze.getPlayer(), mob)) {
+                    expected++;
+                }
+            }
+
+            assertEquals(expected, cnt);
+        }
+    }
+}
@@ -0,0 +1,186 @@
+package deathmaze;
+
+import junit.framework.TestCase;
+
+import java.io.IOException;
+import java.lang.management.ManagementFactory;
+import java.lang.management.OperatingSystemMXBean;
+import java.nio.ByteBuffer;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Arrays;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+import com.sun.management.UnixOperatingSystemMXBean;
+
+import deathmaze.MappedGrid;
+import deathmaze.MazeRandom;
+import deathmaze.MazeValidator;
+import deathmaze.PackedGrid;
+
+public class MappedGridTest extends TestCase {
+
+    private Path file;
+    private MappedGrid grid;
+
+    @Before
+    @Override
+    public void setUp() throws IOException {
+        file = Files.createTempFile("deathmaze", ".grid");
+        grid = MappedGrid.create(file, 70, 45, 8);
+    }
+
+    @After
+    @Override
+    public void tearDown() throws IOException {
+        grid.close();
+        Files.deleteIfExists(file);
+    }
+
+    @Test
+    public void testPassagesAndFlags() {
+        long room = grid.index(10, 20);
+
+        assertEquals(70 * 45, grid.size());
+        assertEquals(10, grid.getX(room));
+        assertEquals(20, grid.getY(room));
+
+        grid.setPassage(room, PackedGrid.EAST, true);
+        grid.setPassage(room, PackedGrid.NORTH, true);
+        assertTrue(grid.isPassage(room + 1, PackedGrid.WEST));
+        assertTrue(grid.isPassage(grid.index(10, 19), PackedGrid.SOUTH));
+        assertFalse(grid.isPassage(room, PackedGrid.SOUTH));
+
+        grid.setPassage(room + 1, PackedGrid.WEST, false);
+        assertFalse(grid.isPassage(room, PackedGrid.EAST));
+
+        grid.setFlag(room, PackedGrid.VISITED, true);
+        assertTrue(grid.hasFlag(room, PackedGrid.VISITED));
+        assertFalse(grid.hasFlag(room + 1, PackedGrid.VISITED));
+
+        try {
+            grid.setPassage(grid.index(69, 0), PackedGrid.EAST, true);
+            fail();
+        } catch (IllegalArgumentException e) {
+            assertFalse(grid.isPassage(grid.index(69, 0), PackedGrid.EAST));
+        }
+    }
+
+    @Test
+    public void testGenerateAndReopen() throws IOException {
+        grid.generate(new MazeRandom(3));
+        grid.close();
+        grid = MappedGrid.open(file, 12);
+
+        PackedGrid copy = new PackedGrid(grid.getWidth(), grid.getHeight());
+
+        for (int room = 0; room < copy.size(); room++) {
+            assertTrue(grid.hasFlag(room, PackedGrid.PART_OF_MAZE));
+
+            if (grid.isPassage(room, PackedGrid.EAST)) {
+                copy.setPassage(room, PackedGrid.EAST, true);
+            }
+
+            if (grid.isPassage(room, PackedGrid.SOUTH)) {
+                copy.setPassage(room, PackedGrid.SOUTH, true);
+            }
+        }
+
+        assertTrue(MazeValidator.isPerfect(copy));
+    }
+
+    @Test
+    public void testNeighbourQueries() {
+        long[] rooms = new long[9];
+        long center = grid.index(5, 5);
+
+        grid.setPassage(center, PackedGrid.EAST, true);
+        grid.setPassage(center + 1, PackedGrid.EAST, true);
+        grid.setPassage(center, PackedGrid.NORTH, true);
+
+        assertEquals(2, grid.getAdjRooms(center, rooms));
+        assertEquals(grid.index(5, 4), rooms[0]);
+        assertEquals(center + 1, rooms[1]);
+
+        assertEquals(4, grid.getVisibleRooms(center, 2, rooms));
+        assertEquals(center, rooms[0]);
+        assertEquals(grid.index(5, 4), rooms[1]);
+        assertEquals(center + 1, rooms[2]);
+        assertEquals(center + 2, rooms[3]);
+    }
+
+    @Test
+    public void testOpenInvalid() throws IOException {
+        Path other = Files.createTempFile("deathmaze", ".grid");
+
+        try {
+            Files.write(other, new byte[]{1, 2, 3});
+            MappedGrid.open(other);
+            fail();
+        } catch (IOException e) {
+            assertTrue(e.getMessage().startsWith("Not a mapped grid"));
+        } finally {
+            Files.deleteIfExists(other);
+        }
+    }
+
+    @Test
+    public void testOpenCorrupt() throws IOException {
+        Path other = Files.createTempFile("deathmaze", ".grid");
+        grid.close();
+        byte[] bytes = Files.readAllBytes(file);
+
+        try {
+// A truncated file isn't grown back to the size in its header
+            Files.write(other, Arrays.copyOf(bytes, bytes.length - 1));
+            assertOpenFails(other, "Corrupt mapped grid");
+            assertEquals(bytes.length - 1, Files.size(other));
+
+            ByteBuffer.wrap(bytes).putInt(8, -70);
+            Files.write(other, bytes);
+            assertOpenFails(other, "Invalid mapped grid size");
+
+            ByteBuffer.wrap(bytes).putInt(8, 70).putInt(12, Integer.MAX_VALUE);
+            Files.write(other, bytes);
+            assertOpenFails(other, "Corrupt mapped grid");
+        } finally {
+            Files.deleteIfExists(other);
+            grid = MappedGrid.open(file);
+        }
+    }
+
+    @Test
+    public void testCreateUnmappable() throws IOException {
+        OperatingSystemMXBean os = ManagementFactory.getOperatingSystemMXBean();
+        Path other = Files.createTempFile("deathmaze", ".grid");
+
+        if (!(os instanceof UnixOperatingSystemMXBean)) {
+            Files.deleteIfExists(other);
+            return;
+        }
+
+        long open = ((UnixOperatingSystemMXBean) os).getOpenFileDescriptorCount();
+
+// A segment larger than 2GB can't be mapped, the channel opened for the file is closed
+        try {
+            MappedGrid.create(other, 50000, 50000, 31).close();
+            fail();
+        } catch (IllegalArgumentException e) {
+            assertEquals(open, ((UnixOperatingSystemMXBean) os).getOpenFileDescriptorCount());
+        } finally {
+            Files.deleteIfExists(other);
+        }
+    }
+
+    private static void assertOpenFails(Path path, String message) {
+        try {
+            MappedGrid.open(path).close();
+            fail();
+        } catch (IOException e) {
+            assertTrue(e.getMessage().startsWith(message));
+        }
+    }
+}
@@ -0,0 +1,147 @@
+package deathmaze;
+
+import junit.framework.TestCase;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.RandomAccessFile;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Comparator;
+import java.util.concurrent.ForkJoinPool;
+import java.util.stream.Stream;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+import deathmaze.Maze;
+import deathmaze.MazeCache;
+import deathmaze.PackedGrid;
+import deathmaze.PrimGenerator;
+import deathmaze.TiledGenerator;
+
+public class MazeCacheTest extends TestCase {
+
+    private Path directory;
+
+    @Before
+    @Override
+    public void setUp() throws IOException {
+        directory = Files.createTempDirectory("maze-cache");
+    }
+
+    @After
+    @Override
+    public void tearDown() throws IOException {
+        try (Stream<Path> paths = Files.walk(directory)) {
+            for (Path path : (Iterable<Path>) paths.sorted(Comparator.reverseOrder())::iterator) {
+                Files.deleteIfExists(path);
+            }
+        }
+    }
+
+    @Test
+    public void testHit() throws IOException {
+        MazeCache cache = new MazeCache(directory, 1 << 20);
+        Maze carved = cache.get(40, 30, 5, 3, new PrimGenerator(), 42L);
+        Maze cached = cache.get(40, 30, 5, 3, new PrimGenerator(), 42L);
+
+        assertEquals(1, cache.getMisses());
+        assertEquals(1, cache.getHits());
+        assertEquals(1, cache.getEntries());
+        assertSameMaze(carved, cached);
+        assertSameMaze(new Maze(40, 30, 5, 3, new PrimGenerator(), 42L), cached);
+
+        cache.get(40, 30, 5, 3, new KruskalGenerator(), 42L);
+        cache.get(40, 30, 5, 3, new PrimGenerator(), 43L);
+        assertEquals(3, cache.getMisses());
+
+        cache = new MazeCache(directory, 1 << 20);
+        assertEquals(3, cache.getEntries());
+        cache.get(40, 30, 5, 3, new PrimGenerator(), 42L);
+        assertEquals(1, cache.getHits());
+    }
+
+    @Test
+    public void testGeneratorParameters() throws IOException {
+        MazeCache cache = new MazeCache(directory, 1 << 20);
+        TiledGenerator small = new TiledGenerator(new PrimGenerator(), 8, ForkJoinPool.commonPool());
+        TiledGenerator large = new TiledGenerator(new PrimGenerator(), 16, ForkJoinPool.commonPool());
+
+        assertEquals(small.getName(), large.getName());
+        assertFalse(small.getKey().equals(large.getKey()));
+
+        cache.get(40, 30, 5, 3, small, 42L);
+        Maze cached = cache.get(40, 30, 5, 3, large, 42L);
+
+// The tile sizes carve different mazes, so they don't share an entry
+        assertEquals(0, cache.getHits());
+        assertEquals(2, cache.getMisses());
+        assertEquals(2, cache.getEntries());
+        assertSameMaze(new Maze(40, 30, 5, 3, large, 42L), cached);
+        assertSameMaze(new Maze(40, 30, 5, 3, large, 42L), cache.get(40, 30, 5, 3, large, 42L));
+        assertEquals(1, cache.getHits());
+    }
+
+    @Test
+    public void testEviction() throws IOException {
+        MazeCache cache = new MazeCache(directory, 1 << 20);
+        cache.get(40, 30, 5, 3, new PrimGenerator(), 1L);
+        long entrySize = cache.getTotalBytes();
+
+        cache = new MazeCache(directory, entrySize * 2);
+        cache.get(40, 30, 5, 3, new PrimGenerator(), 2L);
+        cache.get(40, 30, 5, 3, new PrimGenerator(), 1L);
+        cache.get(40, 30, 5, 3, new PrimGenerator(), 3L);
+
+        assertEquals(2, cache.getEntries());
+        assertEquals(1, cache.getEvictions());
+        assertTrue(cache.getTotalBytes() <= entrySize * 2);
+
+        cache.get(40, 30, 5, 3, new PrimGenerator(), 1L);
+        assertEquals(2, cache.getHits());
+        cache.get(40, 30, 5, 3, new PrimGenerator(), 2L);
+        assertEquals(3, cache.getMisses());
+    }
+
+    @Test
+    public void testCorruptEntry() throws IOException {
+        MazeCache cache = new MazeCache(directory, 1 << 20);
+        Maze carved = cache.get(40, 30, 5, 3, new PrimGenerator(), 7L);
+        File[] files = directory.toFile().listFiles();
+
+        assertEquals(1, files.length);
+
+        try (RandomAccessFile file = new RandomAccessFile(files[0], "rw")) {
+            file.seek(file.length() / 2);
+            int b = file.read();
+            file.seek(file.length() / 2);
+            file.write(b ^ 0x10);
+        }
+
+        Maze recarved = cache.get(40, 30, 5, 3, new PrimGenerator(), 7L);
+
+        assertEquals(1, cache.getCorrupt());
+        assertEquals(0, cache.getHits());
+        assertEquals(2, cache.getMisses());
+        assertSameMaze(carved, recarved);
+        assertSameMaze(carved, cache.get(40, 30, 5, 3, new PrimGenerator(), 7L));
+        assertEquals(1, cache.getHits());
+    }
+
+    private static void assertSameMaze(Maze expected, Maze actual) {
+        PackedGrid grid = expected.getPackedGrid();
+
+        for (int room = 0; room < grid.size(); room++) {
+            assertEquals(grid.isPassage(room, PackedGrid.EAST), actual.getPackedGrid().isPassage(room, PackedGrid.EAST));
+            assertEquals(grid.isPassage(room, PackedGrid.SOUTH), actual.getPackedGrid().isPassage(room, PackedGrid.SOUTH));
+            assertEquals(grid.hasFlag(room, PackedGrid.VISITED), actual.getPackedGrid().hasFlag(room, PackedGrid.VISITED));
+        }
+
+        assertEquals(expected.getPlayer(), actual.getPlayer());
+        assertEquals(expected.getMobs(), actual.getMobs());
+        assertEquals(expected.getKey(), actual.getKey());
+        assertEquals(expected.getExit(), actual.getExit());
+    }
+}
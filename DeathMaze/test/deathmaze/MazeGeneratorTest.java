@@ -0,0 +1,51 @@
+package deathmaze;
+
+import junit.framework.TestCase;
+
+import java.util.Random;
+
+import org.junit.Test;
+
+import deathmaze.BacktrackerGenerator;
+import deathmaze.EllerGenerator;
+import deathmaze.KruskalGenerator;
+import deathmaze.Maze;
+import deathmaze.MazeGenerator;
+import deathmaze.MazeValidator;
+import deathmaze.PackedGrid;
+import deathmaze.PrimGenerator;
+import deathmaze.WilsonGenerator;
+
+public class MazeGeneratorTest extends TestCase {
+
+    private static final MazeGenerator[] GENERATORS = {new PrimGenerator(), new KruskalGenerator(),
+        new WilsonGenerator(), new BacktrackerGenerator(), new EllerGenerator()};
+
+    private static final int[][] SIZES = {{1, 1}, {1, 7}, {7, 1}, {2, 2}, {25, 25}, {64, 17}, {13, 90}};
+
+    @Test
+    public void testPerfectMazes() {
+        Random rand = new Random(7);
+
+        for (MazeGenerator generator : GENERATORS) {
+            for (int[] size : SIZES) {
+                PackedGrid grid = new PackedGrid(size[0], size[1]);
+                generator.generate(grid, rand.nextInt(grid.size()), rand);
+                assertTrue(generator.getName() + " " + size[0] + "x" + size[1], MazeValidator.isPerfect(grid));
+            }
+        }
+    }
+
+    @Test
+    public void testMazeGenerator() {
+        for (MazeGenerator generator : GENERATORS) {
+            Maze maze = new Maze(20, 30, 3, 3, generator);
+
+            assertSame(generator, maze.getGenerator());
+            assertTrue(generator.getName(), MazeValidator.isPerfect(maze.getPackedGrid()));
+            assertTrue(maze.getOccupancy().has(maze.getPackedGrid().index(maze.getPlayer().getX(), maze.getPlayer().getY()),
+                    Occupancy.PLAYER));
+            assertTrue(maze.getPlayer().isVisited());
+        }
+    }
+}
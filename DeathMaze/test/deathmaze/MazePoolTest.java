@@ -0,0 +1,175 @@
+package deathmaze;
+
+import junit.framework.TestCase;
+
+import java.util.Random;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+import deathmaze.KruskalGenerator;
+import deathmaze.Maze;
+import deathmaze.MazeGenerator;
+import deathmaze.MazePool;
+import deathmaze.PackedGrid;
+import deathmaze.PrimGenerator;
+import deathmaze.TiledGenerator;
+
+public class MazePoolTest extends TestCase {
+
+    private MazePool pool;
+    private MazeGenerator generator;
+
+    @Before
+    @Override
+    public void setUp() {
+        pool = new MazePool(2);
+        generator = new PrimGenerator();
+    }
+
+    @After
+    @Override
+    public void tearDown() {
+        pool.shutdown();
+    }
+
+    @Test
+    public void testTake() throws InterruptedException {
+        Maze maze = pool.take(12, 8, 3, 2, generator);
+
+        assertEquals(12, maze.getWidth());
+        assertEquals(8, maze.getHeight());
+        assertEquals(3, maze.getMobs().size());
+        assertEquals(2, maze.getVisRange());
+        assertEquals(0, pool.getHits());
+        assertEquals(1, pool.getMisses());
+
+        awaitReady(2);
+        assertEquals(2, pool.getRefills());
+        assertTrue(pool.getAverageRefillNanos() > 0);
+
+        Maze next = pool.take(12, 8, 3, 2, generator);
+        assertNotSame(maze, next);
+        assertEquals(12, next.getWidth());
+        assertEquals(1, pool.getHits());
+        assertEquals(1, pool.getMisses());
+    }
+
+    @Test
+    public void testSettingsChange() throws InterruptedException {
+        pool.take(12, 8, 3, 2, generator);
+        awaitReady(2);
+
+        Maze maze = pool.take(20, 8, 3, 2, generator);
+        assertEquals(20, maze.getWidth());
+        assertEquals(0, pool.getHits());
+        assertEquals(2, pool.getMisses());
+
+        awaitReady(2);
+        assertEquals(20, pool.take(20, 8, 3, 2, generator).getWidth());
+        assertEquals(1, pool.getHits());
+    }
+
+    @Test
+    public void testRequestOffCallingThread() throws Exception {
+        Set<Thread> builders = ConcurrentHashMap.newKeySet();
+        MazeGenerator recording = new MazeGenerator() {
+            @Override
+            public String getName() {
+                return generator.getName();
+            }
+
+            @Override
+            public void generate(PackedGrid grid, int start, Random rand) {
+                builders.add(Thread.currentThread());
+                generator.generate(grid, start, rand);
+            }
+        };
+
+        CompletableFuture<Maze> future = pool.request(14, 9, 2, 2, recording);
+        Maze maze = future.get(10, TimeUnit.SECONDS);
+
+        assertEquals(14, maze.getWidth());
+        assertEquals(1, pool.getMisses());
+        awaitReady(2);
+        assertFalse(builders.isEmpty());
+        assertFalse(builders.contains(Thread.currentThread()));
+        assertTrue(pool.request(14, 9, 2, 2, recording).isDone());
+        assertEquals(1, pool.getHits());
+    }
+
+    @Test
+    public void testEqualGenerators() throws InterruptedException {
+        pool.take(12, 8, 3, 2, new KruskalGenerator());
+        awaitReady(2);
+
+        pool.take(12, 8, 3, 2, new KruskalGenerator());
+        assertEquals(1, pool.getHits());
+
+        pool.take(12, 8, 3, 2, new TiledGenerator(new PrimGenerator(), 4, ForkJoinPool.commonPool()));
+        awaitReady(2);
+
+        pool.take(12, 8, 3, 2, new TiledGenerator(new PrimGenerator(), 4, ForkJoinPool.commonPool()));
+        assertEquals(2, pool.getHits());
+        assertEquals(2, pool.getMisses());
+    }
+
+    @Test
+    public void testMissAheadOfRefill() throws Exception {
+        CountDownLatch refilling = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+        AtomicBoolean blocking = new AtomicBoolean();
+        MazeGenerator slow = new MazeGenerator() {
+            @Override
+            public String getName() {
+                return "Slow";
+            }
+
+            @Override
+            public void generate(PackedGrid grid, int start, Random rand) {
+                if (blocking.get()) {
+                    refilling.countDown();
+
+                    try {
+                        release.await();
+                    } catch (InterruptedException e) {
+                        Thread.currentThread().interrupt();
+                    }
+                }
+
+                generator.generate(grid, start, rand);
+            }
+        };
+
+        try {
+            pool.take(12, 8, 3, 2, slow);
+            awaitReady(2);
+
+// The refill started by the hit is stuck, the maze missed with new settings doesn't wait for it
+            blocking.set(true);
+            pool.take(12, 8, 3, 2, slow);
+            assertTrue(refilling.await(10, TimeUnit.SECONDS));
+
+            Maze maze = pool.request(16, 8, 3, 2, generator).get(10, TimeUnit.SECONDS);
+            assertEquals(16, maze.getWidth());
+        } finally {
+            release.countDown();
+        }
+    }
+
+    private void awaitReady(int cnt) throws InterruptedException {
+        for (int i = 0; i < 500 && pool.getReady() < cnt; i++) {
+            Thread.sleep(10);
+        }
+
+        assertEquals(cnt, pool.getReady());
+    }
+}
@@ -0,0 +1,85 @@
+package deathmaze;
+
+import junit.framework.TestCase;
+
+import org.junit.Test;
+
+import deathmaze.MazeRandom;
+
+public class MazeRandomTest extends TestCase {
+
+    @Test
+    public void testSameSeed() {
+        MazeRandom a = new MazeRandom(42);
+        MazeRandom b = new MazeRandom(42);
+
+        for (int i = 0; i < 1000; i++) {
+            assertEquals(a.nextLong(), b.nextLong());
+            assertEquals(a.nextInt(17), b.nextInt(17));
+            assertEquals(a.nextBoolean(), b.nextBoolean());
+        }
+
+        a.setSeed(7);
+        b = new MazeRandom(7);
+        assertEquals(a.nextLong(), b.nextLong());
+    }
+
+    @Test
+    public void testSplit() {
+        MazeRandom a = new MazeRandom(42);
+        MazeRandom b = new MazeRandom(42);
+        MazeRandom splitA = a.split();
+        MazeRandom splitB = b.split();
+
+        assertEquals(splitA.nextLong(), splitB.nextLong());
+
+// Drawing from a split stream doesn't change its parent
+        for (int i = 0; i < 10; i++) {
+            splitA.nextLong();
+        }
+
+        assertEquals(a.nextLong(), b.nextLong());
+        assertFalse(a.split().nextLong() == a.split().nextLong());
+    }
+
+    @Test
+    public void testBounds() {
+        MazeRandom rand = new MazeRandom(3);
+        int[] counts = new int[10];
+
+        for (int i = 0; i < 100000; i++) {
+            counts[rand.nextInt(10)]++;
+            int value = rand.nextInt(1 << 30 | 1);
+            assertTrue(value >= 0 && value <= 1 << 30);
+            assertTrue(rand.nextInt(8) < 8);
+        }
+
+        for (int count : counts) {
+            assertTrue(count > 9000 && count < 11000);
+        }
+
+        try {
+            rand.nextInt(0);
+            fail();
+        } catch (IllegalArgumentException e) {
+            assertNotNull(e.getMessage());
+        }
+    }
+
+    @Test
+    public void testStreamPositions() {
+        int[] counts = new int[3];
+
+        for (int position = 0; position < 90000; position++) {
+            int value = MazeRandom.nextInt(11L, position, 3);
+            assertEquals(value, MazeRandom.nextInt(11L, position, 3));
+            counts[value]++;
+        }
+
+        for (int count : counts) {
+            assertTrue(count > 29000 && count < 31000);
+        }
+
+        assertFalse(MazeRandom.nextInt(11L, 0, 1 << 30) == MazeRandom.nextInt(12L, 0, 1 << 30));
+    }
+}
@@ -0,0 +1,119 @@
+package deathmaze;
+
+import junit.framework.TestCase;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.file.Files;
+import java.nio.file.Path;
+
+import org.junit.Before;
+import org.junit.Test;
+
+import deathmaze.Maze;
+import deathmaze.MazeSnapshot;
+import deathmaze.PackedGrid;
+
+public class MazeSnapshotTest extends TestCase {
+
+    private static final String[] MOVES = {"N", "E", "S", "W", "E", "E", "S", "N"};
+
+    private Path path;
+
+    @Before
+    @Override
+    public void setUp() throws IOException {
+        File file = File.createTempFile("maze", ".dms");
+        file.deleteOnExit();
+        path = file.toPath();
+    }
+
+    @Test
+    public void testRoundTrip() throws IOException {
+        Maze maze = new Maze(37, 23, 6, 3, new PrimGenerator(), 99L);
+
+        for (int turn = 0; turn < 10; turn++) {
+            maze.movePlayer(MOVES[turn % MOVES.length]);
+        }
+
+        maze.save(path);
+        Maze loaded = Maze.load(path);
+
+        assertEquals(maze.getWidth(), loaded.getWidth());
+        assertEquals(maze.getHeight(), loaded.getHeight());
+        assertEquals(maze.getVisRange(), loaded.getVisRange());
+        assertEquals(maze.getSeed(), loaded.getSeed());
+        assertNull(loaded.getGenerator());
+
+        PackedGrid grid = maze.getPackedGrid();
+        PackedGrid loadedGrid = loaded.getPackedGrid();
+
+        for (int room = 0; room < grid.size(); room++) {
+            assertEquals(grid.isPassage(room, PackedGrid.EAST), loadedGrid.isPassage(room, PackedGrid.EAST));
+            assertEquals(grid.isPassage(room, PackedGrid.SOUTH), loadedGrid.isPassage(room, PackedGrid.SOUTH));
+            assertEquals(grid.hasFlag(room, PackedGrid.VISITED), loadedGrid.hasFlag(room, PackedGrid.VISITED));
+            assertTrue(loadedGrid.hasFlag(room, PackedGrid.PART_OF_MAZE));
+        }
+
+        for (int turn = 0; turn < 200; turn++) {
+            assertEquals(maze.getPlayer(), loaded.getPlayer());
+            assertEquals(maze.getMobs(), loaded.getMobs());
+            assertEquals(maze.getKey(), loaded.getKey());
+            assertEquals(maze.getExit(), loaded.getExit());
+            assertEquals(maze.getAlive(), loaded.getAlive());
+            assertEquals(maze.getEscaped(), loaded.getEscaped());
+
+            maze.movePlayer(MOVES[turn % MOVES.length]);
+            loaded.movePlayer(MOVES[turn % MOVES.length]);
+        }
+    }
+
+    @Test
+    public void testInvalidFile() throws IOException {
+        Files.write(path, new byte[]{1, 2, 3, 4});
+
+        try {
+            MazeSnapshot.load(path);
+            fail();
+        } catch (IOException e) {
+            assertTrue(e.getMessage().startsWith("Not a saved game"));
+        }
+    }
+
+    @Test
+    public void testCorruptFile() throws IOException {
+        Maze maze = new Maze(12, 9, 4, 3, new PrimGenerator(), 5L);
+        int rooms = maze.getPackedGrid().size();
+        ByteBuffer saved = MazeSnapshot.encode(maze);
+        int exit = saved.getInt(54);
+
+// The player, the key, the exit, and the first monster, out of the grid, a key on the exit, and a
+// negative monster count
+        int[][] corruptions = {{46, rooms}, {50, -2}, {54, -1}, {62, rooms + 7}, {50, exit}, {58, -1}};
+
+        for (int[] corruption : corruptions) {
+            ByteBuffer buffer = MazeSnapshot.encode(maze);
+            buffer.putInt(corruption[0], corruption[1]);
+            assertCorrupt(buffer);
+        }
+
+// A truncated game, and a game claiming a grid far larger than the buffer
+        ByteBuffer buffer = MazeSnapshot.encode(maze);
+        buffer.limit(buffer.limit() - 8);
+        assertCorrupt(buffer);
+
+        buffer = MazeSnapshot.encode(maze);
+        buffer.putInt(8, 1 << 20).putInt(12, 1 << 10);
+        assertCorrupt(buffer);
+    }
+
+    private static void assertCorrupt(ByteBuffer buffer) {
+        try {
+            MazeSnapshot.decode(buffer, "test");
+            fail();
+        } catch (IOException e) {
+            assertTrue(e.getMessage().startsWith("Corrupt saved game"));
+        }
+    }
+}
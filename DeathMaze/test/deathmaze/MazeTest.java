@@ -2,14 +2,20 @@ package deathmaze;
 
 import junit.framework.TestCase;
 
+import java.lang.management.ManagementFactory;
 import java.util.ArrayList;
 import java.util.List;
+import java.util.concurrent.ForkJoinPool;
 
 import org.junit.Before;
 import org.junit.Test;
 
 import deathmaze.Cell;
 import deathmaze.Maze;
+import deathmaze.MazeGenerator;
+import deathmaze.PackedGrid;
+import deathmaze.PrimGenerator;
+import deathmaze.TiledGenerator;
 
 public class MazeTest extends TestCase {
 
@@ -35,6 +41,107 @@ public class MazeTest extends TestCase {
         assertEquals(maze.getGrid()[0].length, 5);
     }
 
+    @Test
+    public void testPerfectMaze() {
+        maze = new Maze(300, 200, mobCnt, visRange);
+        PackedGrid grid = maze.getPackedGrid();
+        boolean[] reached = new boolean[grid.size()];
+        int[] queue = new int[grid.size()];
+        int passages = 0;
+        int head = 0;
+        int tail = 0;
+
+        for (int room = 0; room < grid.size(); room++) {
+            assertTrue(grid.hasFlag(room, PackedGrid.PART_OF_MAZE));
+
+            if (grid.isPassage(room, PackedGrid.EAST)) {
+                passages++;
+            }
+
+            if (grid.isPassage(room, PackedGrid.SOUTH)) {
+                passages++;
+            }
+        }
+
+        queue[tail++] = 0;
+        reached[0] = true;
+
+        while (head < tail) {
+            int room = queue[head++];
+
+            for (int direction = PackedGrid.NORTH; direction <= PackedGrid.EAST; direction++) {
+                int other = grid.neighbour(room, direction);
+
+                if (grid.isPassage(room, direction) && !reached[other]) {
+                    reached[other] = true;
+                    queue[tail++] = other;
+                }
+            }
+        }
+
+        assertEquals(grid.size() - 1, passages);
+        assertEquals(grid.size(), tail);
+    }
+
+    @Test
+    public void testSeed() {
+        String[] moves = {"N", "E", "S", "W", "E", "E", "S", "N"};
+
+        for (MazeGenerator generator : new MazeGenerator[]{new PrimGenerator(), new TiledGenerator(new PrimGenerator(), 8,
+            ForkJoinPool.commonPool())}) {
+            Maze first = new Maze(40, 30, 8, visRange, generator, 1234L);
+            Maze second = new Maze(40, 30, 8, visRange, generator, 1234L);
+
+            assertEquals(1234L, first.getSeed());
+
+            for (int room = 0; room < first.getPackedGrid().size(); room++) {
+                assertEquals(first.getPackedGrid().isPassage(room, PackedGrid.EAST),
+                        second.getPackedGrid().isPassage(room, PackedGrid.EAST));
+                assertEquals(first.getPackedGrid().isPassage(room, PackedGrid.SOUTH),
+                        second.getPackedGrid().isPassage(room, PackedGrid.SOUTH));
+            }
+
+            for (int turn = 0; turn < 200; turn++) {
+                assertEquals(first.getPlayer(), second.getPlayer());
+                assertEquals(first.getMobs(), second.getMobs());
+                assertEquals(first.getKey(), second.getKey());
+                assertEquals(first.getExit(), second.getExit());
+                assertEquals(first.getAlive(), second.getAlive());
+
+                first.movePlayer(moves[turn % moves.length]);
+                second.movePlayer(moves[turn % moves.length]);
+            }
+        }
+    }
+
+    @Test
+    public void testFullMaze() {
+        Maze full = new Maze(10, 10, Maze.getMaxMobs(10, 10), visRange, new PrimGenerator(), 1L);
+
+        assertEquals(97, full.getMobs().size());
+        assertFalse(full.getMobs().contains(full.getExit()));
+        assertFalse(full.getMobs().contains(full.getKey()));
+        assertFalse(full.getMobs().contains(full.getPlayer()));
+
+        try {
+            new Maze(10, 10, 98, visRange, new PrimGenerator(), 1L);
+            fail();
+        } catch (IllegalArgumentException e) {
+            assertEquals(97, Maze.getMaxMobs(10, 10));
+        }
+
+        try {
+            new Maze(1, 1, 0, visRange, new PrimGenerator(), 1L);
+            fail();
+        } catch (IllegalArgumentException e) {
+            assertEquals(-1, Maze.getMaxMobs(1, 1));
+        }
+
+        Maze tiny = new Maze(1, 3, 0, visRange, new PrimGenerator(), 1L);
+        assertEquals(0, tiny.getMobs().size());
+        assertFalse(tiny.getExit().equals(tiny.getKey()));
+    }
+
     @Test
     public void testMovePlayerNorth() {
         boolean flag = false;
@@ -194,10 +301,152 @@ public class MazeTest extends TestCase {
     }
 
     @Test
-    public void testGetNextRoom() {
-        assertEquals(new Cell(2, 2), maze.getNextRoom(new Cell(2, 1), new Cell(2, 3)));
-        assertEquals(new Cell(2, 2), maze.getNextRoom(new Cell(2, 3), new Cell(2, 1)));
-        assertEquals(new Cell(2, 2), maze.getNextRoom(new Cell(1, 2), new Cell(3, 2)));
-        assertEquals(new Cell(2, 2), maze.getNextRoom(new Cell(3, 2), new Cell(1, 2)));
+    public void testTurnAllocation() {
+        java.lang.management.ThreadMXBean bean = ManagementFactory.getThreadMXBean();
+
+        if (!(bean instanceof com.sun.management.ThreadMXBean)) {
+            return;
+        }
+
+        com.sun.management.ThreadMXBean threads = (com.sun.management.ThreadMXBean) bean;
+
+        if (!threads.isThreadAllocatedMemorySupported()) {
+            return;
+        }
+
+        threads.setThreadAllocatedMemoryEnabled(true);
+
+        Maze turns = new Maze(60, 60, 200, 4, new PrimGenerator(), 3L);
+        String[] moves = {"N", "E", "S", "W"};
+        long thread = Thread.currentThread().getId();
+
+// Warm up, so the lazy indices are built and the turn is compiled
+        for (int turn = 0; turn < 20000; turn++) {
+            turns.setAlive(true);
+            turns.movePlayer(moves[turn % moves.length]);
+        }
+
+        long overhead = threads.getThreadAllocatedBytes(thread);
+        overhead = threads.getThreadAllocatedBytes(thread) - overhead;
+
+        long before = threads.getThreadAllocatedBytes(thread);
+
+        for (int turn = 0; turn < 1000; turn++) {
+            turns.setAlive(true);
+            turns.movePlayer(moves[turn % moves.length]);
+        }
+
+        assertEquals(0, threads.getThreadAllocatedBytes(thread) - before - overhead);
+    }
+
+    @Test
+    public void testFork() {
+        Maze game = new Maze(40, 40, 30, 4, new PrimGenerator(), 21L);
+        String[] moves = {"N", "E", "E", "S", "W", "S", "X", "N"};
+
+        for (int turn = 0; turn < 10; turn++) {
+            game.movePlayer(moves[turn % moves.length]);
+        }
+
+        List<Integer> before = state(game);
+        Maze fork = game.fork();
+        assertEquals(before, state(fork));
+
+// The fork plays ahead without changing the game
+        for (int turn = 0; turn < 50; turn++) {
+            fork.movePlayer(moves[turn % moves.length]);
+        }
+
+        assertEquals(before, state(game));
+
+        Maze second = fork.fork();
+        second.movePlayer("S");
+        List<Integer> ahead = state(fork);
+
+// The game plays the same moves and ends up where the fork did
+        for (int turn = 0; turn < 50; turn++) {
+            game.movePlayer(moves[turn % moves.length]);
+        }
+
+        assertEquals(ahead, state(game));
+        fork.movePlayer("S");
+        assertEquals(state(fork), state(second));
+    }
+
+    @Test
+    public void testForkCost() {
+        String[] moves = {"N", "E", "S", "W", "E", "E", "S", "N"};
+
+        for (int size : new int[]{100, 1000}) {
+            for (int mobCnt : new int[]{0, 10}) {
+                Maze game = new Maze(size, size, mobCnt, 4, new PrimGenerator(), 3L);
+                Maze fork = game.fork();
+
+                assertEquals(0, game.getOwnedPages());
+                assertEquals(0, fork.getOwnedPages());
+
+                for (int turn = 0; turn < 8; turn++) {
+                    fork.setAlive(true);
+                    fork.movePlayer(moves[turn % moves.length]);
+                    game.setAlive(true);
+                    game.movePlayer(moves[turn % moves.length]);
+                }
+
+// The game and its fork only copy the pages around the characters, however large the maze
+                assertTrue(game.getOwnedPages() <= 6 * (mobCnt + 1));
+                assertTrue(fork.getOwnedPages() <= 6 * (mobCnt + 1));
+            }
+        }
+    }
+
+    @Test
+    public void testRevealedRooms() {
+        Maze fog = new Maze(30, 30, 0, 4, new PrimGenerator(), 8L);
+        PackedGrid grid = fog.getPackedGrid();
+        String[] moves = {"N", "E", "E", "S", "W", "S", "S", "E"};
+        boolean[] visited = new boolean[grid.size()];
+
+        for (int i = 0; i < fog.getRevealedCount(); i++) {
+            visited[fog.getRevealedRoom(i)] = true;
+        }
+
+        for (int turn = 0; turn < 200; turn++) {
+            fog.movePlayer(moves[turn % moves.length]);
+
+// Every revealed room is new, and the revealed rooms are all the rooms visited
+            for (int i = 0; i < fog.getRevealedCount(); i++) {
+                assertFalse(visited[fog.getRevealedRoom(i)]);
+                visited[fog.getRevealedRoom(i)] = true;
+            }
+
+            for (int room = 0; room < grid.size(); room++) {
+                assertEquals(visited[room], grid.hasFlag(room, PackedGrid.VISITED));
+            }
+        }
+
+        try {
+            fog.getRevealedRoom(fog.getRevealedCount());
+            fail();
+        } catch (IndexOutOfBoundsException e) {
+            assertNotNull(e.getMessage());
+        }
+    }
+
+    private static List<Integer> state(Maze game) {
+        PackedGrid grid = game.getPackedGrid();
+        List<Integer> state = new ArrayList<>();
+
+        state.add(grid.index(game.getPlayer().getX(), game.getPlayer().getY()));
+        state.add(game.getKey().getX() < 0 ? -1 : grid.index(game.getKey().getX(), game.getKey().getY()));
+        state.add(game.getAlive() ? 1 : 0);
+        state.add(game.getEscaped() ? 1 : 0);
+        state.add(grid.countFlag(PackedGrid.VISITED));
+
+        for (int mob = 0; mob < game.getHorde().size(); mob++) {
+            state.add(game.getHorde().getRoom(mob));
+            state.add(game.getOccupancy().getMobCount(game.getHorde().getRoom(mob)));
+        }
+
+        return state;
     }
 }
@@ -0,0 +1,58 @@
+package deathmaze;
+
+import junit.framework.TestCase;
+
+import org.junit.Before;
+import org.junit.Test;
+
+import deathmaze.MazeValidator;
+import deathmaze.PackedGrid;
+
+public class MazeValidatorTest extends TestCase {
+
+    private PackedGrid grid;
+
+    @Before
+    @Override
+    public void setUp() {
+        grid = new PackedGrid(3, 3);
+
+// A comb: the top row is open, and every column hangs from it
+        grid.setPassage(0, PackedGrid.EAST, true);
+        grid.setPassage(1, PackedGrid.EAST, true);
+
+        for (int x = 0; x < 3; x++) {
+            grid.setPassage(x, PackedGrid.SOUTH, true);
+            grid.setPassage(3 + x, PackedGrid.SOUTH, true);
+        }
+    }
+
+    @Test
+    public void testPerfect() {
+        assertEquals(8, grid.countPassages());
+        assertFalse(MazeValidator.hasCycle(grid));
+        assertTrue(MazeValidator.isPerfect(grid));
+        assertTrue(MazeValidator.isPerfect(new PackedGrid(1, 1)));
+    }
+
+    @Test
+    public void testCycle() {
+        grid.setPassage(3, PackedGrid.EAST, true);
+        assertTrue(MazeValidator.hasCycle(grid));
+
+        grid.setPassage(0, PackedGrid.EAST, false);
+        assertFalse(MazeValidator.hasCycle(grid));
+        assertTrue(MazeValidator.isPerfect(grid));
+
+        grid.setPassage(7, PackedGrid.EAST, true);
+        assertTrue(MazeValidator.hasCycle(grid));
+        assertFalse(MazeValidator.isPerfect(grid));
+    }
+
+    @Test
+    public void testDisconnected() {
+        grid.setPassage(4, PackedGrid.SOUTH, false);
+        assertFalse(MazeValidator.hasCycle(grid));
+        assertFalse(MazeValidator.isPerfect(grid));
+    }
+}
@@ -0,0 +1,156 @@
+package deathmaze;
+
+import junit.framework.TestCase;
+
+import java.util.Random;
+import java.util.concurrent.ForkJoinPool;
+
+import org.junit.Before;
+import org.junit.Test;
+
+import deathmaze.CorridorIndex;
+import deathmaze.FlowField;
+import deathmaze.LineOfSightIndex;
+import deathmaze.Maze;
+import deathmaze.MobHorde;
+import deathmaze.Occupancy;
+import deathmaze.PackedGrid;
+import deathmaze.TurnEvents;
+
+public class MobHordeTest extends TestCase {
+
+    private static final int MOBS = 5000;
+
+    private PackedGrid grid;
+    private int[] rooms;
+
+    @Before
+    @Override
+    public void setUp() {
+        grid = new Maze(80, 60, 0, 3, new PrimGenerator(), 12L).getPackedGrid();
+        rooms = new int[MOBS];
+        Random rand = new Random(5);
+
+        for (int mob = 0; mob < MOBS; mob++) {
+            rooms[mob] = rand.nextInt(grid.size());
+        }
+    }
+
+    @Test
+    public void testParallelMatchesSequential() {
+        ForkJoinPool pool = new ForkJoinPool(4);
+
+        try {
+            MobHorde sequential = newHorde(pool, Integer.MAX_VALUE);
+            MobHorde parallel = newHorde(pool, 64);
+            Occupancy sequentialOccupancy = newOccupancy();
+            Occupancy parallelOccupancy = newOccupancy();
+            LineOfSightIndex sequentialSight = newSightIndex();
+            LineOfSightIndex parallelSight = newSightIndex();
+            FlowField flowField = new FlowField(grid, 3);
+
+            for (long turn = 0; turn < 30; turn++) {
+                sequential.decide(sequentialOccupancy, flowField, turn);
+                parallel.decide(parallelOccupancy, flowField, turn);
+                sequential.apply(sequentialOccupancy, sequentialSight, new TurnEvents(MOBS));
+                parallel.apply(parallelOccupancy, parallelSight, new TurnEvents(MOBS));
+
+                for (int mob = 0; mob < MOBS; mob++) {
+                    assertEquals(sequential.getRoom(mob), parallel.getRoom(mob));
+                }
+            }
+        } finally {
+            pool.shutdown();
+        }
+    }
+
+    @Test
+    public void testDecide() {
+        MobHorde horde = newHorde(ForkJoinPool.commonPool(), MobHorde.DEFAULT_TASK_SIZE);
+        Occupancy occupancy = new Occupancy(grid.size());
+        FlowField flowField = new FlowField(grid, 3);
+        int player = rooms[0];
+
+        occupancy.set(player, Occupancy.PLAYER, true);
+        flowField.compute(player);
+        horde.setChasing(1, true);
+        horde.decide(occupancy, flowField, 8L);
+
+// A monster with the player stays, a chasing monster follows the flow field, the others wander
+        assertEquals(player, horde.getNext(0));
+        assertEquals(flowField.nextHop(rooms[1]), horde.getNext(1));
+
+        for (int mob = 2; mob < MOBS; mob++) {
+            int next = horde.getNext(mob);
+            boolean adjacent = rooms[mob] == player && next == player;
+
+            for (int direction = PackedGrid.NORTH; direction <= PackedGrid.EAST; direction++) {
+                adjacent |= grid.isPassage(rooms[mob], direction) && grid.neighbour(rooms[mob], direction) == next;
+            }
+
+            assertTrue(adjacent);
+        }
+    }
+
+    @Test
+    public void testApply() {
+        MobHorde horde = newHorde(ForkJoinPool.commonPool(), MobHorde.DEFAULT_TASK_SIZE);
+        Occupancy occupancy = newOccupancy();
+        LineOfSightIndex sightIndex = newSightIndex();
+
+        horde.decide(occupancy, new FlowField(grid, 3), 21L);
+        TurnEvents events = new TurnEvents(16);
+        horde.apply(occupancy, sightIndex, events);
+
+        for (int mob = 0; mob < MOBS; mob++) {
+            assertEquals(horde.getNext(mob), horde.getRoom(mob));
+            assertEquals(horde.getRoom(mob), sightIndex.getRoom(mob));
+            assertTrue(occupancy.has(horde.getRoom(mob), Occupancy.MOB));
+        }
+
+// Every monster that left its room is one MOVED event, in order
+        for (int i = 0, mob = 0; i < events.size(); i++, mob++) {
+            while (rooms[mob] == horde.getRoom(mob)) {
+                mob++;
+            }
+
+            assertEquals(TurnEvents.MOVED, events.getType(i));
+            assertEquals(mob, events.getSubject(i));
+            assertEquals(rooms[mob], events.getFrom(i));
+            assertEquals(horde.getRoom(mob), events.getTo(i));
+        }
+
+        horde.clear();
+        assertEquals(0, horde.size());
+    }
+
+    private MobHorde newHorde(ForkJoinPool pool, int taskSize) {
+        MobHorde horde = new MobHorde(grid, 16, pool, taskSize);
+
+        for (int mob = 0; mob < MOBS; mob++) {
+            assertEquals(mob, horde.add(rooms[mob]));
+        }
+
+        return horde;
+    }
+
+    private Occupancy newOccupancy() {
+        Occupancy occupancy = new Occupancy(grid.size());
+
+        for (int mob = 0; mob < MOBS; mob++) {
+            occupancy.addMob(rooms[mob]);
+        }
+
+        return occupancy;
+    }
+
+    private LineOfSightIndex newSightIndex() {
+        LineOfSightIndex sightIndex = new LineOfSightIndex(grid, new CorridorIndex(grid), MOBS);
+
+        for (int mob = 0; mob < MOBS; mob++) {
+            sightIndex.add(mob, rooms[mob]);
+        }
+
+        return sightIndex;
+    }
+}
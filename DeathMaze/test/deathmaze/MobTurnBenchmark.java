@@ -0,0 +1,79 @@
+package deathmaze;
+
+import java.util.concurrent.ForkJoinPool;
+
+/**
+ * <h1>MobTurnBenchmark</h1>
+ * Reports the time taken by a turn of the game, moving the player and every monster, against the
+ * number of monsters in the maze. The monsters chasing the player all read their next room from
+ * the one FlowField computed per turn, and the horde decides its moves in parallel on the common
+ * pool, so the times depend on the number of cores.
+ *
+ * @author Fred Erlenbusch
+ * @version 1.0
+ * @since 2026-10-17
+ */
+public class MobTurnBenchmark {
+
+    /**
+     * The number of rooms wide and tall of the maze.
+     */
+    private static final int SIZE = 1000;
+    /**
+     * The visibility range of the characters.
+     */
+    private static final int VIS_RANGE = 8;
+    /**
+     * The number of turns measured for every number of monsters.
+     */
+    private static final int TURNS = 200;
+    /**
+     * The moves of the player, repeated.
+     */
+    private static final String[] MOVES = {"N", "E", "S", "W", "E", "E", "S", "N"};
+
+    /**
+     * Runs the benchmark.
+     *
+     * @param args The numbers of monsters to measure, defaults to 10, 100, 1000, 10000 and 100000.
+     */
+    public static void main(String[] args) {
+        int[] mobCounts = {10, 100, 1000, 10000, 100000};
+
+        if (args.length > 0) {
+            mobCounts = new int[args.length];
+
+            for (int i = 0; i < args.length; i++) {
+                mobCounts[i] = Integer.parseInt(args[i]);
+            }
+        }
+
+// Warm up so the JIT compiled turn is measured
+        play(new Maze(200, 200, 1000, VIS_RANGE, new PrimGenerator(), 1L), 2000);
+
+        System.out.printf("parallelism: %d%n", ForkJoinPool.commonPool().getParallelism());
+        System.out.printf("%-10s %14s %14s%n", "mobs", "us/turn", "ns/mob");
+
+        for (int mobCnt : mobCounts) {
+            Maze maze = new Maze(SIZE, SIZE, mobCnt, VIS_RANGE, new PrimGenerator(), mobCnt);
+            long start = System.nanoTime();
+            play(maze, TURNS);
+            long time = System.nanoTime() - start;
+
+            System.out.printf("%-10d %14.1f %14.1f%n", mobCnt, time / 1e3 / TURNS, (double) time / TURNS / mobCnt);
+        }
+    }
+
+    /**
+     * Plays turns of a game, keeping the player alive so every turn moves the monsters.
+     *
+     * @param	maze	The game.
+     * @param	turns	The number of turns.
+     */
+    private static void play(Maze maze, int turns) {
+        for (int turn = 0; turn < turns; turn++) {
+            maze.setAlive(true);
+            maze.movePlayer(MOVES[turn % MOVES.length]);
+        }
+    }
+}
@@ -0,0 +1,142 @@
+package deathmaze;
+
+import junit.framework.TestCase;
+
+import org.junit.Before;
+import org.junit.Test;
+
+import deathmaze.Cell;
+import deathmaze.Maze;
+import deathmaze.Occupancy;
+import deathmaze.PackedGrid;
+import deathmaze.PrimGenerator;
+
+public class OccupancyTest extends TestCase {
+
+    private Occupancy occupancy;
+
+    @Before
+    @Override
+    public void setUp() {
+        occupancy = new Occupancy(10);
+    }
+
+    @Test
+    public void testOccupants() {
+        occupancy.set(3, Occupancy.KEY, true);
+        occupancy.set(3, Occupancy.PLAYER, true);
+        assertTrue(occupancy.has(3, Occupancy.KEY));
+        assertTrue(occupancy.has(3, Occupancy.PLAYER | Occupancy.EXIT));
+        assertFalse(occupancy.has(3, Occupancy.EXIT));
+        assertTrue(occupancy.isEmpty(4));
+
+        occupancy.move(3, 4, Occupancy.PLAYER);
+        assertEquals(Occupancy.KEY, occupancy.getBits(3));
+        assertEquals(Occupancy.PLAYER, occupancy.getBits(4));
+
+        try {
+            occupancy.set(5, Occupancy.MOB, true);
+            fail();
+        } catch (IllegalArgumentException e) {
+            assertTrue(occupancy.isEmpty(5));
+        }
+    }
+
+    @Test
+    public void testMobCounts() {
+        occupancy.set(2, Occupancy.KEY, true);
+        occupancy.addMob(1);
+        occupancy.addMob(1);
+        occupancy.moveMob(1, 2);
+        assertEquals(1, occupancy.getMobCount(1));
+        assertTrue(occupancy.has(1, Occupancy.MOB));
+
+        occupancy.moveMob(1, 2);
+        assertEquals(0, occupancy.getMobCount(1));
+        assertTrue(occupancy.isEmpty(1));
+        assertEquals(2, occupancy.getMobCount(2));
+
+// A monster on the key doesn't erase it
+        occupancy.removeMob(2);
+        occupancy.removeMob(2);
+        assertEquals(Occupancy.KEY, occupancy.getBits(2));
+
+        try {
+            occupancy.removeMob(2);
+            fail();
+        } catch (IllegalStateException e) {
+            assertEquals(0, occupancy.getMobCount(2));
+        }
+    }
+
+    @Test
+    public void testFork() {
+        occupancy.set(3, Occupancy.KEY, true);
+        occupancy.addMob(4);
+        Occupancy fork = occupancy.fork();
+
+        fork.moveMob(4, 5);
+        fork.set(3, Occupancy.KEY, false);
+        assertEquals(1, occupancy.getMobCount(4));
+        assertEquals(0, occupancy.getMobCount(5));
+        assertTrue(occupancy.has(3, Occupancy.KEY));
+        assertEquals(0, fork.getMobCount(4));
+        assertEquals(1, fork.getMobCount(5));
+        assertTrue(fork.isEmpty(3));
+    }
+
+    @Test
+    public void testCellValues() {
+        Maze maze = new Maze(30, 30, 40, 3, new PrimGenerator(), 2L);
+        PackedGrid grid = maze.getPackedGrid();
+        Cell player = maze.getPlayer();
+        Cell mob = maze.getMobs().get(0);
+
+        assertEquals("P", maze.getCell(player.getX(), player.getY()).getValue());
+
+        if (!mob.equals(player)) {
+            assertEquals("M", mob.getValue());
+        }
+
+        for (int room = 0; room < grid.size(); room++) {
+            if (maze.getOccupancy().isEmpty(room)) {
+                Cell empty = maze.getCell(grid.getX(room), grid.getY(room));
+                assertEquals("", empty.getValue());
+
+// A value set on a view is kept by the view
+                empty.setValue("X");
+                assertEquals("X", empty.getValue());
+                assertTrue(maze.getOccupancy().isEmpty(room));
+                break;
+            }
+        }
+    }
+
+    @Test
+    public void testMazeOccupancy() {
+        String[] moves = {"N", "E", "S", "W", "E", "E", "S", "N"};
+        Maze maze = new Maze(30, 30, 40, 3);
+        PackedGrid grid = maze.getPackedGrid();
+
+        for (int turn = 0; turn < 100 && maze.getAlive() && !maze.getEscaped(); turn++) {
+            int[] counts = new int[grid.size()];
+
+            for (Cell mob : maze.getMobs()) {
+                counts[grid.index(mob.getX(), mob.getY())]++;
+            }
+
+            for (int room = 0; room < grid.size(); room++) {
+                assertEquals(counts[room], maze.getOccupancy().getMobCount(room));
+                assertEquals(counts[room] > 0, maze.getOccupancy().has(room, Occupancy.MOB));
+            }
+
+            assertTrue(maze.getOccupancy().has(grid.index(maze.getPlayer().getX(), maze.getPlayer().getY()),
+                    Occupancy.PLAYER));
+            assertTrue(maze.getOccupancy().has(grid.index(maze.getExit().getX(), maze.getExit().getY()),
+                    Occupancy.EXIT));
+            assertFalse(maze.isRoomEmpty(maze.getExit()));
+
+            maze.movePlayer(moves[turn % moves.length]);
+        }
+    }
+}
@@ -0,0 +1,127 @@
+package deathmaze;
+
+/**
+ * <h1>PackedGridBenchmark</h1>
+ * Measures the heap used by the rooms and walls of a maze, stored as a graph of Cell and Wall
+ * objects and stored as a PackedGrid. Run with a large heap, e.g. <code>-Xmx4g</code>.
+ *
+ * @author Fred Erlenbusch
+ * @version 1.0
+ * @since 2026-10-17
+ */
+public class PackedGridBenchmark {
+
+    /**
+     * The largest maze measured as a graph of objects, larger graphs don't fit in most heaps.
+     */
+    private static final int MAX_GRAPH_SIZE = 2000;
+
+    /**
+     * Runs the benchmark.
+     *
+     * @param args The sizes of the mazes to measure, defaults to 1000, 5000 and 10000.
+     */
+    public static void main(String[] args) {
+        int[] sizes = {1000, 5000, 10000};
+
+        if (args.length > 0) {
+            sizes = new int[args.length];
+
+            for (int i = 0; i < args.length; i++) {
+                sizes[i] = Integer.parseInt(args[i]);
+            }
+        }
+
+        System.out.printf("%-12s %16s %16s %12s%n", "size", "Cell/Wall graph", "PackedGrid", "bytes/room");
+
+        for (int size : sizes) {
+            String graph = "-";
+
+            if (size <= MAX_GRAPH_SIZE) {
+                long before = usedHeap();
+                Cell[][] cells = buildGraph(size, size);
+                graph = megabytes(usedHeap() - before);
+                cells[0][0].setVisited(true);
+            }
+
+            long before = usedHeap();
+            PackedGrid grid = new PackedGrid(size, size);
+            long packed = usedHeap() - before;
+            grid.setFlag(0, PackedGrid.VISITED, true);
+
+            System.out.printf("%-12s %16s %16s %12.2f%n", size + "x" + size, graph, megabytes(packed),
+                    (double) packed / grid.size());
+        }
+    }
+
+    /**
+     * Builds the rooms and walls of a maze as a graph of objects, the way the maze did before it
+     * was backed by a PackedGrid.
+     *
+     * @param	width	The number of rooms wide.
+     * @param	height	The number of rooms tall.
+     * @return	The rooms of the graph.
+     */
+    private static Cell[][] buildGraph(int width, int height) {
+        Cell[][] grid = new Cell[width][height];
+
+        for (int y = 0; y < height; y++) {
+            for (int x = 0; x < width; x++) {
+                grid[x][y] = new Cell(x, y);
+            }
+        }
+
+        for (int y = 0; y < height; y++) {
+            for (int x = 0; x < width; x++) {
+                Cell cell = grid[x][y];
+
+                if (y == 0) {
+                    cell.setNorth(new Wall(cell));
+                }
+
+                if (x == 0) {
+                    cell.setWest(new Wall(cell));
+                }
+
+                Wall south = new Wall(cell);
+                cell.setSouth(south);
+
+                if (y < height - 1) {
+                    south.setSide2(grid[x][y + 1]);
+                    grid[x][y + 1].setNorth(south);
+                }
+
+                Wall east = new Wall(cell);
+                cell.setEast(east);
+
+                if (x < width - 1) {
+                    east.setSide2(grid[x + 1][y]);
+                    grid[x + 1][y].setWest(east);
+                }
+            }
+        }
+
+        return grid;
+    }
+
+    /**
+     * @return	The heap in use after a garbage collection.
+     */
+    private static long usedHeap() {
+        Runtime runtime = Runtime.getRuntime();
+
+        for (int i = 0; i < 3; i++) {
+            System.gc();
+        }
+
+        return runtime.totalMemory() - runtime.freeMemory();
+    }
+
+    /**
+     * @param	bytes	A number of bytes.
+     * @return	The number of bytes formatted in megabytes.
+     */
+    private static String megabytes(long bytes) {
+        return String.format("%.1f MB", bytes / (1024.0 * 1024.0));
+    }
+}
@@ -0,0 +1,156 @@
+package deathmaze;
+
+import junit.framework.TestCase;
+
+import org.junit.Before;
+import org.junit.Test;
+
+import deathmaze.Cell;
+import deathmaze.PackedGrid;
+import deathmaze.Wall;
+
+public class PackedGridTest extends TestCase {
+
+    private PackedGrid grid;
+
+    @Before
+    @Override
+    public void setUp() {
+        grid = new PackedGrid(4, 3);
+    }
+
+    @Test
+    public void testIndex() {
+        assertEquals(12, grid.size());
+        assertEquals(6, grid.index(2, 1));
+        assertEquals(2, grid.getX(6));
+        assertEquals(1, grid.getY(6));
+    }
+
+    @Test
+    public void testNeighbours() {
+        assertEquals(-1, grid.neighbour(0, PackedGrid.NORTH));
+        assertEquals(-1, grid.neighbour(0, PackedGrid.WEST));
+        assertEquals(4, grid.neighbour(0, PackedGrid.SOUTH));
+        assertEquals(1, grid.neighbour(0, PackedGrid.EAST));
+        assertEquals(-1, grid.neighbour(11, PackedGrid.SOUTH));
+        assertEquals(-1, grid.neighbour(11, PackedGrid.EAST));
+        assertEquals(7, grid.neighbour(11, PackedGrid.NORTH));
+        assertEquals(10, grid.neighbour(11, PackedGrid.WEST));
+    }
+
+    @Test
+    public void testPassages() {
+        grid.setPassage(5, PackedGrid.EAST, true);
+        assertTrue(grid.isPassage(5, PackedGrid.EAST));
+        assertTrue(grid.isPassage(6, PackedGrid.WEST));
+        assertFalse(grid.isPassage(5, PackedGrid.SOUTH));
+
+        grid.setPassage(9, PackedGrid.NORTH, true);
+        assertTrue(grid.isPassage(5, PackedGrid.SOUTH));
+
+        int[] rooms = new int[4];
+        assertEquals(1 << PackedGrid.SOUTH | 1 << PackedGrid.EAST, grid.getPassageMask(5));
+        assertEquals(2, grid.getAdjRooms(5, rooms));
+        assertEquals(9, rooms[0]);
+        assertEquals(6, rooms[1]);
+
+        grid.setPassage(6, PackedGrid.WEST, false);
+        assertFalse(grid.isPassage(5, PackedGrid.EAST));
+        assertEquals(1 << PackedGrid.SOUTH, grid.getPassageMask(5));
+
+        assertFalse(grid.isPassage(3, PackedGrid.EAST));
+        grid.setPassage(3, PackedGrid.EAST, false);
+
+        try {
+            grid.setPassage(3, PackedGrid.EAST, true);
+            fail();
+        } catch (IllegalArgumentException e) {
+            assertFalse(grid.isPassage(3, PackedGrid.EAST));
+        }
+    }
+
+    @Test
+    public void testFlags() {
+        grid.setFlag(7, PackedGrid.VISITED, true);
+        assertTrue(grid.hasFlag(7, PackedGrid.VISITED));
+        assertFalse(grid.hasFlag(7, PackedGrid.PART_OF_MAZE));
+        assertFalse(grid.hasFlag(6, PackedGrid.VISITED));
+
+        grid.setFlag(7, PackedGrid.VISITED, false);
+        assertFalse(grid.hasFlag(7, PackedGrid.VISITED));
+    }
+
+    @Test
+    public void testFork() {
+        grid.setPassage(5, PackedGrid.EAST, true);
+        grid.setFlag(5, PackedGrid.VISITED, true);
+        PackedGrid fork = grid.fork();
+
+        assertTrue(fork.isPassage(5, PackedGrid.EAST));
+        assertTrue(fork.hasFlag(5, PackedGrid.VISITED));
+
+        fork.setFlag(6, PackedGrid.VISITED, true);
+        grid.setFlag(5, PackedGrid.VISITED, false);
+        assertTrue(fork.hasFlag(6, PackedGrid.VISITED));
+        assertFalse(grid.hasFlag(6, PackedGrid.VISITED));
+        assertTrue(fork.hasFlag(5, PackedGrid.VISITED));
+        assertEquals(2, fork.countFlag(PackedGrid.VISITED));
+        assertEquals(0, grid.countFlag(PackedGrid.VISITED));
+
+// The passages are shared, so neither grid can change them
+        try {
+            grid.setPassage(1, PackedGrid.EAST, true);
+            fail();
+        } catch (IllegalStateException e) {
+            assertFalse(fork.isPassage(1, PackedGrid.EAST));
+        }
+    }
+
+    @Test
+    public void testCellViews() {
+        Cell cell = new Cell(grid, 1, 1);
+        Cell east = new Cell(grid, 2, 1);
+
+        assertTrue(cell.getValidWalls().size() == 4);
+        assertTrue(cell.getAdjRooms().isEmpty());
+
+        cell.getEast().setPassage(true);
+        assertTrue(grid.isPassage(grid.index(1, 1), PackedGrid.EAST));
+        assertTrue(east.getWest().isPassage());
+        assertEquals(east, cell.getEast().getOther(cell));
+        assertEquals(cell, east.getWest().getOther(east));
+        assertEquals(cell.getEast(), east.getWest());
+        assertEquals(1, cell.getAdjRooms().size());
+        assertEquals(1 << PackedGrid.EAST, cell.getPassageMask());
+        assertEquals(1 << PackedGrid.WEST, east.getPassageMask());
+        assertEquals(7, cell.getValidWallMask());
+
+        assertEquals("", cell.getValue());
+        cell.setValue("P");
+        assertEquals("P", cell.getValue());
+
+        cell.setVisited(true);
+        cell.setPartOfMaze(true);
+        assertTrue(grid.hasFlag(grid.index(1, 1), PackedGrid.VISITED));
+        assertTrue(grid.hasFlag(grid.index(1, 1), PackedGrid.PART_OF_MAZE));
+    }
+
+    @Test
+    public void testBorderWallViews() {
+        Cell corner = new Cell(grid, 0, 0);
+        Wall north = corner.getNorth();
+
+        assertFalse(north.isPassage());
+        assertNull(north.getSide2());
+        assertEquals(2, corner.getValidWalls().size());
+        assertEquals(1 << PackedGrid.SOUTH | 1 << PackedGrid.EAST, corner.getValidWallMask());
+
+        try {
+            corner.setNorth(new Wall(corner));
+            fail();
+        } catch (UnsupportedOperationException e) {
+            assertNull(corner.getNorth().getSide2());
+        }
+    }
+}
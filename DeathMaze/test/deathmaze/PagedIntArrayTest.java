@@ -0,0 +1,80 @@
+package deathmaze;
+
+import junit.framework.TestCase;
+
+import org.junit.Before;
+import org.junit.Test;
+
+import deathmaze.PagedIntArray;
+
+public class PagedIntArrayTest extends TestCase {
+
+    private static final int SIZE = PagedIntArray.PAGE_SIZE * 3 + 5;
+
+    private PagedIntArray array;
+
+    @Before
+    @Override
+    public void setUp() {
+        array = new PagedIntArray(SIZE, -1);
+    }
+
+    @Test
+    public void testInitialValue() {
+        assertEquals(SIZE, array.size());
+        assertEquals(-1, array.get(0));
+        assertEquals(-1, array.get(SIZE - 1));
+        assertEquals(0, array.getOwnedPages());
+
+        array.set(SIZE - 1, 7);
+        assertEquals(7, array.get(SIZE - 1));
+        assertEquals(-1, array.get(SIZE - 2));
+        assertEquals(1, array.getOwnedPages());
+    }
+
+    @Test
+    public void testFork() {
+        array.set(3, 30);
+        array.set(PagedIntArray.PAGE_SIZE, 40);
+        PagedIntArray fork = array.fork();
+
+        assertEquals(0, array.getOwnedPages());
+        assertEquals(0, fork.getOwnedPages());
+        assertEquals(30, fork.get(3));
+        assertEquals(40, fork.get(PagedIntArray.PAGE_SIZE));
+
+// Each side copies only the page it writes to, and doesn't see the other's writes
+        fork.set(4, 50);
+        array.set(PagedIntArray.PAGE_SIZE, 60);
+        assertEquals(1, fork.getOwnedPages());
+        assertEquals(1, array.getOwnedPages());
+        assertEquals(50, fork.get(4));
+        assertEquals(-1, array.get(4));
+        assertEquals(60, array.get(PagedIntArray.PAGE_SIZE));
+        assertEquals(40, fork.get(PagedIntArray.PAGE_SIZE));
+
+// A fork of a fork
+        PagedIntArray second = fork.fork();
+        second.set(3, 70);
+        assertEquals(70, second.get(3));
+        assertEquals(30, fork.get(3));
+        assertEquals(30, array.get(3));
+    }
+
+    @Test
+    public void testGrow() {
+        array.set(0, 1);
+        PagedIntArray fork = array.fork();
+
+        fork.grow(SIZE * 2);
+        fork.set(SIZE * 2 - 1, 2);
+        assertEquals(SIZE * 2, fork.size());
+        assertEquals(-1, fork.get(SIZE + 1));
+        assertEquals(2, fork.get(SIZE * 2 - 1));
+        assertEquals(1, fork.get(0));
+        assertEquals(SIZE, array.size());
+
+        fork.grow(1);
+        assertEquals(SIZE * 2, fork.size());
+    }
+}
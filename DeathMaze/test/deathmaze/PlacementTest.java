@@ -0,0 +1,93 @@
+package deathmaze;
+
+import junit.framework.TestCase;
+
+import java.util.HashSet;
+import java.util.Random;
+import java.util.Set;
+
+import org.junit.Before;
+import org.junit.Test;
+
+import deathmaze.Cell;
+import deathmaze.DistanceField;
+import deathmaze.Maze;
+import deathmaze.PackedGrid;
+import deathmaze.Placement;
+
+public class PlacementTest extends TestCase {
+
+    private PackedGrid grid;
+    private Placement placement;
+
+    @Before
+    @Override
+    public void setUp() {
+        grid = new PackedGrid(7, 5);
+
+        for (int room = 0; room < grid.size(); room++) {
+            grid.setFlag(room, PackedGrid.PART_OF_MAZE, true);
+        }
+
+        placement = new Placement(grid, new Random(3));
+    }
+
+    @Test
+    public void testBorder() {
+        Placement.CandidateSet border = placement.border();
+        Set<Integer> rooms = new HashSet<>();
+        int room;
+
+        assertEquals(20, border.size());
+
+        while ((room = placement.takeRandom(border)) >= 0) {
+            int x = grid.getX(room);
+            int y = grid.getY(room);
+
+            assertTrue(x == 0 || y == 0 || x == 6 || y == 4);
+            assertTrue(rooms.add(room));
+        }
+
+        assertEquals(20, rooms.size());
+    }
+
+    @Test
+    public void testTakenRoomsAreDropped() {
+        Placement.CandidateSet all = placement.candidates(room -> true);
+        Placement.CandidateSet left = placement.candidates(room -> grid.getX(room) == 0);
+
+        for (int y = 0; y < 4; y++) {
+            placement.take(grid.index(0, y));
+        }
+
+        assertEquals(grid.index(0, 4), placement.takeRandom(left));
+        assertEquals(-1, placement.takeRandom(left));
+
+        for (int i = 0; i < grid.size() - 5; i++) {
+            assertTrue(placement.takeRandom(all) >= 0);
+        }
+
+        assertEquals(-1, placement.takeRandom(all));
+    }
+
+    @Test
+    public void testMazePlacement() {
+        Maze maze = new Maze(60, 40, 2000, 3);
+        PackedGrid mazeGrid = maze.getPackedGrid();
+        DistanceField field = new DistanceField(mazeGrid, mazeGrid.index(maze.getPlayer().getX(), maze.getPlayer().getY()));
+        Set<Cell> rooms = new HashSet<>();
+
+        assertEquals(2000, maze.getMobs().size());
+        assertTrue(rooms.add(maze.getPlayer()));
+        assertTrue(rooms.add(maze.getExit()));
+        assertTrue(rooms.add(maze.getKey()));
+
+        for (Cell mob : maze.getMobs()) {
+            assertTrue(rooms.add(mob));
+            assertTrue(field.getDistance(mazeGrid.index(mob.getX(), mob.getY())) > 3);
+        }
+
+        Cell exit = maze.getExit();
+        assertTrue(exit.getX() == 0 || exit.getY() == 0 || exit.getX() == 59 || exit.getY() == 39);
+    }
+}
@@ -0,0 +1,77 @@
+package deathmaze;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+
+/**
+ * <h1>ReplayBenchmark</h1>
+ * Reports the time taken to record a long game with a ReplayLog, to open its journal, to replay it
+ * from its first turn to its last, and to seek to turns spread over the game from the snapshots.
+ *
+ * @author Fred Erlenbusch
+ * @version 1.0
+ * @since 2026-10-17
+ */
+public class ReplayBenchmark {
+
+    /**
+     * The number of moves of the game.
+     */
+    private static final int TURNS = 100000;
+    /**
+     * The number of seeks measured.
+     */
+    private static final int SEEKS = 100;
+
+    /**
+     * Runs the benchmark.
+     *
+     * @param args Not used.
+     * @throws IOException If the journal can't be written or read.
+     */
+    public static void main(String[] args) throws IOException {
+        File file = File.createTempFile("maze", ".dmr");
+        file.deleteOnExit();
+        Path path = file.toPath();
+
+        for (int round = 0; round < 3; round++) {
+            Maze maze = new Maze(300, 300, 10, 3, new PrimGenerator(), round);
+            PlayerPolicy policy = new RandomWalkPolicy();
+            MazeRandom rand = new MazeRandom(round);
+            int ended = -1;
+
+            long start = System.nanoTime();
+
+            try (ReplayLog log = new ReplayLog(path, maze)) {
+                while (log.getTurns() < TURNS) {
+                    maze.movePlayer(policy.nextMove(maze, rand));
+
+                    if (ended < 0 && (!maze.getAlive() || maze.getEscaped())) {
+                        ended = log.getTurns();
+                    }
+                }
+            }
+
+            long recorded = System.nanoTime();
+            Replay replay = Replay.open(path);
+            long opened = System.nanoTime();
+            Maze replayed = replay.seek(0);
+            replay.play(replayed, 0, replay.getTurns());
+            long played = System.nanoTime();
+
+            for (int seek = 1; seek <= SEEKS; seek++) {
+                replay.seek((int) ((long) replay.getTurns() * seek / SEEKS));
+            }
+
+            long sought = System.nanoTime();
+
+            System.out.printf("journal %,d bytes, %d snapshots, game over at turn %d%n", Files.size(path),
+                    replay.getSnapshots(), ended);
+            System.out.printf("record %8.1f ms, open %6.2f ms, replay all %8.1f ms, seek %6.2f ms%n",
+                    (recorded - start) / 1e6, (opened - recorded) / 1e6, (played - opened) / 1e6,
+                    (sought - played) / 1e6 / SEEKS);
+        }
+    }
+}
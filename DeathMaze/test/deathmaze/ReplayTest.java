@@ -0,0 +1,131 @@
+package deathmaze;
+
+import junit.framework.TestCase;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+import org.junit.Before;
+import org.junit.Test;
+
+import deathmaze.Maze;
+import deathmaze.PrimGenerator;
+import deathmaze.Replay;
+import deathmaze.ReplayLog;
+
+public class ReplayTest extends TestCase {
+
+    private static final String[] MOVES = {"N", "E", "S", "W", "E", "X", "S", "N", "W"};
+    private static final int TURNS = 320;
+    private static final int INTERVAL = 32;
+
+    private Path path;
+    private Maze maze;
+    private List<int[]> states;
+
+    @Before
+    @Override
+    public void setUp() throws IOException {
+        File file = File.createTempFile("maze", ".dmr");
+        file.deleteOnExit();
+        path = file.toPath();
+        maze = new Maze(30, 30, 8, 3, new PrimGenerator(), 17L);
+        states = new ArrayList<>();
+
+        try (ReplayLog log = new ReplayLog(path, maze, INTERVAL)) {
+            states.add(state(maze));
+
+            for (int turn = 0; turn < TURNS; turn++) {
+                maze.movePlayer(MOVES[turn % MOVES.length]);
+                states.add(state(maze));
+            }
+
+            assertEquals(TURNS, log.getTurns());
+        }
+    }
+
+    @Test
+    public void testHeader() throws IOException {
+        Replay replay = Replay.open(path);
+
+        assertEquals(30, replay.getWidth());
+        assertEquals(30, replay.getHeight());
+        assertEquals(8, replay.getMobCnt());
+        assertEquals(3, replay.getVisRange());
+        assertEquals(17L, replay.getSeed());
+        assertEquals(INTERVAL, replay.getSnapshotInterval());
+        assertEquals(new PrimGenerator().getName(), replay.getGeneratorName());
+        assertEquals(TURNS, replay.getTurns());
+        assertEquals(TURNS / INTERVAL + 1, replay.getSnapshots());
+        assertEquals(PackedGrid.NORTH, replay.getMove(0));
+        assertEquals(-1, replay.getMove(5));
+    }
+
+    @Test
+    public void testSeek() throws IOException {
+        Replay replay = Replay.open(path);
+
+// Seek to turns on, right after, and right before the snapshots
+        for (int turn : new int[]{0, 1, 31, 32, 33, 100, 255, 256, TURNS}) {
+            assertTrue(Arrays.equals(states.get(turn), state(replay.seek(turn))));
+        }
+
+        Maze replayed = replay.seek(0);
+        replay.play(replayed, 0, TURNS);
+        assertTrue(Arrays.equals(states.get(TURNS), state(replayed)));
+
+        try {
+            replay.seek(TURNS + 1);
+            fail();
+        } catch (IndexOutOfBoundsException e) {
+            assertEquals(TURNS, replay.getTurns());
+        }
+    }
+
+    @Test
+    public void testTruncated() throws IOException {
+        byte[] journal = Files.readAllBytes(path);
+        Files.write(path, Arrays.copyOf(journal, journal.length - 10));
+        Replay replay = Replay.open(path);
+
+// The last snapshot is cut short, the moves before it are all there
+        assertEquals(TURNS, replay.getTurns());
+        assertEquals(TURNS / INTERVAL, replay.getSnapshots());
+        assertTrue(Arrays.equals(states.get(TURNS), state(replay.seek(TURNS))));
+    }
+
+    @Test
+    public void testInvalidFile() throws IOException {
+        Files.write(path, new byte[]{1, 2, 3, 4});
+
+        try {
+            Replay.open(path);
+            fail();
+        } catch (IOException e) {
+            assertTrue(e.getMessage().startsWith("Not a recorded game"));
+        }
+    }
+
+    private static int[] state(Maze game) {
+        PackedGrid grid = game.getPackedGrid();
+        MobHorde horde = game.getHorde();
+        int[] state = new int[5 + horde.size()];
+
+        state[0] = grid.index(game.getPlayer().getX(), game.getPlayer().getY());
+        state[1] = game.getKey().getX() < 0 ? -1 : grid.index(game.getKey().getX(), game.getKey().getY());
+        state[2] = game.getAlive() ? 1 : 0;
+        state[3] = game.getEscaped() ? 1 : 0;
+        state[4] = grid.countFlag(PackedGrid.VISITED);
+
+        for (int mob = 0; mob < horde.size(); mob++) {
+            state[5 + mob] = horde.getRoom(mob);
+        }
+
+        return state;
+    }
+}
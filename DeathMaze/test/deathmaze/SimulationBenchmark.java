@@ -0,0 +1,51 @@
+package deathmaze;
+
+import java.util.concurrent.ForkJoinPool;
+
+/**
+ * <h1>SimulationBenchmark</h1>
+ * Reports the number of headless games played per second by a SimulationRunner against the number
+ * of threads of its pool, from one thread up to the number of cores, with the statistics of the
+ * games.
+ *
+ * @author Fred Erlenbusch
+ * @version 1.0
+ * @since 2026-10-17
+ */
+public class SimulationBenchmark {
+
+    /**
+     * The number of games played for every number of threads.
+     */
+    private static final int GAMES = 2000;
+
+    /**
+     * Runs the benchmark.
+     *
+     * @param args Not used.
+     */
+    public static void main(String[] args) {
+        int cores = Runtime.getRuntime().availableProcessors();
+        PlayerPolicy[] policies = {new RandomWalkPolicy(), new ShortestPathPolicy()};
+
+        for (PlayerPolicy policy : policies) {
+            System.out.printf("%s%n%-8s %12s %10s %10s %10s %10s%n", policy.getName(), "threads", "games/s",
+                    "win", "death", "turns", "explored");
+
+            for (int threads = 1; threads <= cores; threads *= 2) {
+                ForkJoinPool pool = new ForkJoinPool(threads);
+                SimulationRunner runner = new SimulationRunner(30, 30, 10, 3, new PrimGenerator(), policy, 2000, pool);
+
+// Warm up so the JIT compiled games are measured
+                runner.run(GAMES / 4, -1L);
+
+                SimulationStats stats = runner.run(GAMES, 1L);
+
+                System.out.printf("%-8d %12.1f %10.3f %10.3f %10.1f %10.3f%n", threads, stats.getGamesPerSecond(),
+                        stats.getWinRate(), (double) stats.getDeaths() / stats.getGames(), stats.getMeanTurns(),
+                        stats.getMeanExplored());
+                pool.shutdown();
+            }
+        }
+    }
+}
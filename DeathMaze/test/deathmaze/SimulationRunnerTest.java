@@ -0,0 +1,83 @@
+package deathmaze;
+
+import junit.framework.TestCase;
+
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.junit.Before;
+import org.junit.Test;
+
+import deathmaze.PrimGenerator;
+import deathmaze.RandomWalkPolicy;
+import deathmaze.ShortestPathPolicy;
+import deathmaze.SimulationRunner;
+import deathmaze.SimulationStats;
+
+public class SimulationRunnerTest extends TestCase {
+
+    private ForkJoinPool pool;
+
+    @Before
+    @Override
+    public void setUp() {
+        pool = new ForkJoinPool(3);
+    }
+
+    @Override
+    public void tearDown() {
+        pool.shutdown();
+    }
+
+    @Test
+    public void testSameStatsOnAnyPool() {
+        SimulationRunner parallel = new SimulationRunner(15, 15, 4, 3, new PrimGenerator(), new RandomWalkPolicy(),
+                300, pool);
+        SimulationRunner sequential = new SimulationRunner(15, 15, 4, 3, new PrimGenerator(), new RandomWalkPolicy(),
+                300, new ForkJoinPool(1));
+        SimulationStats expected = sequential.run(50, 17L);
+        SimulationStats actual = parallel.run(50, 17L);
+
+        assertEquals(50, actual.getGames());
+        assertEquals(expected.getWins(), actual.getWins());
+        assertEquals(expected.getDeaths(), actual.getDeaths());
+        assertEquals(expected.getTurns(), actual.getTurns());
+        assertEquals(expected.getExplored(), actual.getExplored());
+        assertEquals(expected.getLongestGame(), actual.getLongestGame());
+        assertEquals(actual.getGames(), actual.getWins() + actual.getDeaths() + actual.getTimeouts());
+        assertTrue(actual.getLongestGame() <= 300);
+        assertTrue(actual.getGamesPerSecond() > 0);
+    }
+
+    @Test
+    public void testShortestPathWithoutMobs() {
+        SimulationRunner runner = new SimulationRunner(20, 20, 0, 3, new PrimGenerator(), new ShortestPathPolicy(),
+                1000, pool);
+        AtomicInteger listened = new AtomicInteger();
+        SimulationStats stats = runner.run(30, 3L, result -> {
+            assertTrue(result.isWon());
+            listened.incrementAndGet();
+        });
+
+// Without monsters, a player who knows the maze always escapes
+        assertEquals(30, listened.get());
+        assertEquals(30, stats.getWins());
+        assertEquals(1.0, stats.getWinRate(), 0);
+        assertTrue(stats.getMeanExplored() > 0 && stats.getMeanExplored() <= 1);
+    }
+
+    @Test
+    public void testPlay() {
+        SimulationRunner runner = new SimulationRunner(12, 12, 3, 2, new PrimGenerator(), new RandomWalkPolicy(),
+                200, pool);
+        SimulationRunner.GameResult first = runner.play(5L);
+        SimulationRunner.GameResult second = runner.play(5L);
+
+        assertEquals(first.getTurns(), second.getTurns());
+        assertEquals(first.isWon(), second.isWon());
+        assertEquals(first.isDead(), second.isDead());
+        assertEquals(first.getExplored(), second.getExplored());
+        assertEquals(144, first.getRooms());
+        assertFalse(first.isWon() && first.isDead());
+    }
+}
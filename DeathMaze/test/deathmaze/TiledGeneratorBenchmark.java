@@ -0,0 +1,65 @@
+package deathmaze;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.ForkJoinPool;
+
+/**
+ * <h1>TiledGeneratorBenchmark</h1>
+ * Reports the speedup of the TiledGenerator over carving the whole maze on one thread, for pools
+ * of one core up to all the cores of the machine, and checks every maze with the MazeValidator.
+ * Run with a large heap, e.g. <code>-Xmx2g</code> for the default 10000x10000 maze.
+ *
+ * @author Fred Erlenbusch
+ * @version 1.0
+ * @since 2026-10-17
+ */
+public class TiledGeneratorBenchmark {
+
+    /**
+     * Runs the benchmark.
+     *
+     * @param args The size of the maze, defaults to 10000.
+     */
+    public static void main(String[] args) {
+        int size = args.length > 0 ? Integer.parseInt(args[0]) : 10000;
+        MazeGenerator tileGenerator = new BacktrackerGenerator();
+        List<Integer> cores = new ArrayList<>();
+
+        for (int p = 1; p < Runtime.getRuntime().availableProcessors(); p *= 2) {
+            cores.add(p);
+        }
+
+        cores.add(Runtime.getRuntime().availableProcessors());
+
+        long start = System.nanoTime();
+        PackedGrid grid = new PackedGrid(size, size);
+        tileGenerator.generate(grid, 0, new Random(1));
+        double sequential = (System.nanoTime() - start) / 1e9;
+
+        System.out.printf("%s %dx%d on one thread: %.2f s%n", tileGenerator.getName(), size, size, sequential);
+        System.out.printf("%-6s %10s %10s %12s %10s%n", "cores", "time", "speedup", "validation", "perfect");
+
+        for (int p : cores) {
+            ForkJoinPool pool = new ForkJoinPool(p);
+            TiledGenerator generator = new TiledGenerator(tileGenerator, TiledGenerator.DEFAULT_TILE_SIZE, pool);
+
+            grid = null;
+            System.gc();
+            grid = new PackedGrid(size, size);
+            generator.generate(new PackedGrid(1000, 1000), 0, new Random(1));
+
+            start = System.nanoTime();
+            generator.generate(grid, 0, new Random(1));
+            double time = (System.nanoTime() - start) / 1e9;
+
+            start = System.nanoTime();
+            boolean perfect = MazeValidator.isPerfect(grid);
+            double validation = (System.nanoTime() - start) / 1e9;
+
+            System.out.printf("%-6d %9.2fs %9.2fx %11.2fs %10s%n", p, time, sequential / time, validation, perfect);
+            pool.shutdown();
+        }
+    }
+}
@@ -0,0 +1,57 @@
+package deathmaze;
+
+import junit.framework.TestCase;
+
+import java.util.Random;
+import java.util.concurrent.ForkJoinPool;
+
+import org.junit.Test;
+
+import deathmaze.BacktrackerGenerator;
+import deathmaze.MazeValidator;
+import deathmaze.PackedGrid;
+import deathmaze.PrimGenerator;
+import deathmaze.TiledGenerator;
+
+public class TiledGeneratorTest extends TestCase {
+
+    @Test
+    public void testPerfectMazes() {
+        int[][] sizes = {{1, 1}, {5, 5}, {16, 16}, {17, 33}, {100, 7}, {97, 131}};
+        Random rand = new Random(9);
+
+        for (int tileSize : new int[]{1, 4, 16, 64}) {
+            TiledGenerator generator = new TiledGenerator(new PrimGenerator(), tileSize, ForkJoinPool.commonPool());
+
+            for (int[] size : sizes) {
+                PackedGrid grid = new PackedGrid(size[0], size[1]);
+                generator.generate(grid, 0, rand);
+                assertTrue(tileSize + " " + size[0] + "x" + size[1], MazeValidator.isPerfect(grid));
+            }
+        }
+    }
+
+    @Test
+    public void testDeterministic() {
+        PackedGrid serial = new PackedGrid(300, 200);
+        PackedGrid parallel = new PackedGrid(300, 200);
+        ForkJoinPool single = new ForkJoinPool(1);
+        ForkJoinPool many = new ForkJoinPool(4);
+
+        new TiledGenerator(new BacktrackerGenerator(), 32, single).generate(serial, 0, new Random(5));
+        new TiledGenerator(new BacktrackerGenerator(), 32, many).generate(parallel, 0, new Random(5));
+
+        single.shutdown();
+        many.shutdown();
+
+        for (int room = 0; room < serial.size(); room++) {
+            assertEquals(serial.isPassage(room, PackedGrid.EAST), parallel.isPassage(room, PackedGrid.EAST));
+            assertEquals(serial.isPassage(room, PackedGrid.SOUTH), parallel.isPassage(room, PackedGrid.SOUTH));
+        }
+    }
+
+    @Test
+    public void testName() {
+        assertEquals("Tiled Prim", new TiledGenerator(new PrimGenerator()).getName());
+    }
+}
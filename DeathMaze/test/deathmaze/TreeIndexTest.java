@@ -0,0 +1,103 @@
+package deathmaze;
+
+import junit.framework.TestCase;
+
+import java.util.Random;
+
+import org.junit.Before;
+import org.junit.Test;
+
+import deathmaze.DistanceField;
+import deathmaze.Maze;
+import deathmaze.PackedGrid;
+import deathmaze.TreeIndex;
+
+public class TreeIndexTest extends TestCase {
+
+    private Random rand;
+
+    @Before
+    @Override
+    public void setUp() {
+        rand = new Random(8);
+    }
+
+    @Test
+    public void testDistancesAndNextHops() {
+        for (MazeGenerator generator : new MazeGenerator[]{new PrimGenerator(), new BacktrackerGenerator(),
+            new EllerGenerator()}) {
+            Maze maze = new Maze(70, 45, 0, 3, generator, 3L);
+            PackedGrid grid = maze.getPackedGrid();
+            TreeIndex index = maze.getTreeIndex();
+
+            assertSame(index, maze.getTreeIndex());
+
+            for (int i = 0; i < 20; i++) {
+                int source = rand.nextInt(grid.size());
+                DistanceField field = new DistanceField(grid, source);
+
+                for (int room = 0; room < grid.size(); room++) {
+                    assertEquals(field.getDistance(room), index.distance(room, source));
+                    assertEquals(field.getDistance(room), index.distance(source, room));
+
+                    int next = index.nextHop(room, source);
+
+                    if (room == source) {
+                        assertEquals(source, next);
+                    } else {
+                        assertEquals(field.getDistance(room) - 1, field.getDistance(next));
+                    }
+                }
+            }
+        }
+    }
+
+    @Test
+    public void testLca() {
+        PackedGrid grid = new PackedGrid(3, 1);
+        grid.setPassage(0, PackedGrid.EAST, true);
+        grid.setPassage(1, PackedGrid.EAST, true);
+
+        TreeIndex index = new TreeIndex(grid);
+
+        assertEquals(1, index.lca(1, 2));
+        assertEquals(0, index.lca(0, 2));
+        assertEquals(2, index.getDepth(2));
+        assertEquals(1, index.getParent(2));
+        assertTrue(index.isAncestor(1, 2));
+        assertFalse(index.isAncestor(2, 1));
+        assertEquals(2, index.nextHop(1, 2));
+        assertEquals(1, index.nextHop(2, 0));
+    }
+
+    @Test
+    public void testNotPerfect() {
+        PackedGrid grid = new PackedGrid(2, 2);
+        grid.setPassage(0, PackedGrid.EAST, true);
+        grid.setPassage(0, PackedGrid.SOUTH, true);
+        grid.setPassage(1, PackedGrid.SOUTH, true);
+        grid.setPassage(2, PackedGrid.EAST, true);
+
+        try {
+            new TreeIndex(grid);
+            fail();
+        } catch (IllegalArgumentException e) {
+            assertTrue(e.getMessage().startsWith("Not a perfect maze"));
+        }
+
+// A cycle of four rooms, and two rooms apart from it
+        grid = new PackedGrid(3, 2);
+        grid.setPassage(0, PackedGrid.EAST, true);
+        grid.setPassage(0, PackedGrid.SOUTH, true);
+        grid.setPassage(1, PackedGrid.SOUTH, true);
+        grid.setPassage(3, PackedGrid.EAST, true);
+        grid.setPassage(2, PackedGrid.SOUTH, true);
+
+        try {
+            new TreeIndex(grid);
+            fail();
+        } catch (IllegalArgumentException e) {
+            assertTrue(e.getMessage().contains("connected"));
+        }
+    }
+}
@@ -0,0 +1,105 @@
+package deathmaze;
+
+import junit.framework.TestCase;
+
+import org.junit.Before;
+import org.junit.Test;
+
+import deathmaze.Maze;
+import deathmaze.PrimGenerator;
+import deathmaze.TurnEvents;
+
+public class TurnEventsTest extends TestCase {
+
+    private TurnEvents events;
+
+    @Before
+    @Override
+    public void setUp() {
+        events = new TurnEvents(3);
+    }
+
+    @Test
+    public void testRing() {
+        assertEquals(4, events.capacity());
+
+// Turns of 3 events wrap around the ring of 4 without growing it
+        for (int turn = 0; turn < 10; turn++) {
+            events.clear();
+
+            for (int i = 0; i < 3; i++) {
+                events.add(TurnEvents.MOVED, i, turn, turn + i);
+            }
+
+            assertEquals(3, events.size());
+            assertEquals(4, events.capacity());
+
+            for (int i = 0; i < 3; i++) {
+                assertEquals(TurnEvents.MOVED, events.getType(i));
+                assertEquals(i, events.getSubject(i));
+                assertEquals(turn, events.getFrom(i));
+                assertEquals(turn + i, events.getTo(i));
+            }
+        }
+    }
+
+    @Test
+    public void testGrow() {
+        events.add(TurnEvents.MOVED, 0, 0, 0);
+        events.clear();
+
+// The turn starts in the middle of the ring, and keeps its order when the ring grows
+        for (int i = 0; i < 9; i++) {
+            events.add(TurnEvents.REVEALED, TurnEvents.PLAYER, i, i);
+        }
+
+        assertEquals(16, events.capacity());
+        assertEquals(9, events.size());
+
+        int[] next = {0};
+        events.forEach((type, subject, from, to) -> {
+            assertEquals(TurnEvents.REVEALED, type);
+            assertEquals(TurnEvents.PLAYER, subject);
+            assertEquals(next[0]++, from);
+        });
+        assertEquals(9, next[0]);
+
+        try {
+            events.getType(9);
+            fail();
+        } catch (IndexOutOfBoundsException e) {
+            events.clear();
+            assertEquals(0, events.size());
+        }
+    }
+
+    @Test
+    public void testMazeEvents() {
+        Maze maze = new Maze(30, 30, 20, 3, new PrimGenerator(), 6L);
+        String[] moves = {"N", "E", "S", "W", "E", "S"};
+
+        for (int turn = 0; turn < 100 && maze.getAlive() && !maze.getEscaped(); turn++) {
+            int player = maze.getPackedGrid().index(maze.getPlayer().getX(), maze.getPlayer().getY());
+            maze.movePlayer(moves[turn % moves.length]);
+
+            TurnEvents turnEvents = maze.getEvents();
+            int revealed = 0;
+            int moved = 0;
+
+            for (int i = 0; i < turnEvents.size(); i++) {
+                if (turnEvents.getType(i) == TurnEvents.REVEALED) {
+                    assertEquals(maze.getRevealedRoom(revealed++), turnEvents.getTo(i));
+                } else if (turnEvents.getType(i) == TurnEvents.MOVED && turnEvents.getSubject(i) == TurnEvents.PLAYER) {
+                    assertEquals(player, turnEvents.getFrom(i));
+                    moved++;
+                } else if (turnEvents.getType(i) == TurnEvents.DIED) {
+                    assertFalse(maze.getAlive());
+                }
+            }
+
+            assertEquals(maze.getRevealedCount(), revealed);
+            assertEquals(player == maze.getPackedGrid().index(maze.getPlayer().getX(), maze.getPlayer().getY()) ? 0 : 1,
+                    moved);
+        }
+    }
+}
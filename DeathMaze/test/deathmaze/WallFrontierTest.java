@@ -0,0 +1,84 @@
+package deathmaze;
+
+import junit.framework.TestCase;
+
+import java.util.Random;
+
+import org.junit.Before;
+import org.junit.Test;
+
+import deathmaze.PackedGrid;
+import deathmaze.WallFrontier;
+
+public class WallFrontierTest extends TestCase {
+
+    private WallFrontier frontier;
+
+    @Before
+    @Override
+    public void setUp() {
+        frontier = new WallFrontier(10);
+    }
+
+    @Test
+    public void testWallIds() {
+        int east = WallFrontier.wallId(7, PackedGrid.EAST);
+        int south = WallFrontier.wallId(7, PackedGrid.SOUTH);
+
+        assertFalse(east == south);
+        assertEquals(7, WallFrontier.room(east));
+        assertEquals(7, WallFrontier.room(south));
+        assertEquals(PackedGrid.EAST, WallFrontier.direction(east));
+        assertEquals(PackedGrid.SOUTH, WallFrontier.direction(south));
+    }
+
+    @Test
+    public void testTooManyRooms() {
+        try {
+            new WallFrontier(Integer.MAX_VALUE / 2 + 1);
+            fail();
+        } catch (IllegalArgumentException e) {
+            assertTrue(e.getMessage().startsWith("Too many rooms"));
+        }
+    }
+
+    @Test
+    public void testAddRemove() {
+        assertTrue(frontier.isEmpty());
+
+        frontier.add(3);
+        frontier.add(5);
+        frontier.add(3);
+        assertEquals(2, frontier.size());
+        assertTrue(frontier.contains(3));
+
+        frontier.remove(3);
+        assertFalse(frontier.contains(3));
+        assertTrue(frontier.contains(5));
+        assertEquals(1, frontier.size());
+
+        frontier.remove(3);
+        assertEquals(1, frontier.size());
+    }
+
+    @Test
+    public void testRemoveRandom() {
+        Random rand = new Random(1);
+
+        for (int wall = 0; wall < 20; wall++) {
+            frontier.add(wall);
+        }
+
+        boolean[] removed = new boolean[20];
+
+        while (!frontier.isEmpty()) {
+            int wall = frontier.removeRandom(rand);
+            assertFalse(removed[wall]);
+            removed[wall] = true;
+        }
+
+        for (boolean wall : removed) {
+            assertTrue(wall);
+        }
+    }
+}